@@ -0,0 +1,172 @@
+package com.stock.batch.cluster;
+
+import com.stock.batch.mapper.BatchLeaseMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 다중 노드 작업 점유 (batch.cluster.enabled)
+ * - batch_lease 테이블의 key 단위 lease 로 due job / 입력 파일을 한 노드만 처리하도록 점유
+ * - 점유는 INSERT ... ON DUPLICATE KEY UPDATE 한 문장 (행 잠금 안에서 만료 여부 판단 → 원자적)
+ * - 보유 lease 는 heartbeat 로 만료 시각 연장, 노드가 죽으면 ttl 경과 후 다른 노드가 회수
+ * - 비활성 시 모든 점유 요청은 성공 (단일 노드 동작과 동일)
+ */
+@Slf4j
+@Component
+public class BatchLeaseManager {
+
+    public static final String BATCH_IN = "IN:";
+    public static final String BATCH_OUT = "OUT:";
+    public static final String FILE = "FILE:";
+
+    private final BatchLeaseMapper leaseMapper;
+
+    @Value("${batch.cluster.enabled:false}")
+    private boolean enabled;
+
+    // 비어 있으면 host:pid
+    @Value("${batch.cluster.node-id:}")
+    private String nodeId;
+
+    @Value("${batch.cluster.lease-ttl-seconds:120}")
+    private int ttlSeconds;
+
+    // 이 노드가 보유 중인 lease (종료 시 반납)
+    private final Set<String> held = ConcurrentHashMap.newKeySet();
+
+    public BatchLeaseManager(BatchLeaseMapper leaseMapper) {
+        this.leaseMapper = leaseMapper;
+    }
+
+    @PostConstruct
+    public void init() {
+
+        if (nodeId == null || nodeId.isBlank()) {
+            nodeId = defaultNodeId();
+        }
+
+        if (enabled) {
+            log.info("[Cluster] lease enabled: node={}, ttlSeconds={}", nodeId, ttlSeconds);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String nodeId() {
+        return nodeId;
+    }
+
+    public static String jobKey(String type, int jobId, String today) {
+        return type + jobId + ":" + today;
+    }
+
+    public static String fileKey(String today, String fileName) {
+        return FILE + today + "/" + fileName;
+    }
+
+    /**
+     * lease 점유 시도
+     *
+     * @return 이 노드가 점유했으면 true (이미 보유 중인 경우 포함)
+     */
+    public boolean tryAcquire(String leaseKey) {
+
+        if (!enabled) {
+            return true;
+        }
+
+        leaseMapper.upsertLease(leaseKey, nodeId, ttlSeconds);
+
+        if (nodeId.equals(leaseMapper.selectOwner(leaseKey))) {
+            held.add(leaseKey);
+            return true;
+        }
+
+        log.info("[Cluster] lease held by another node: key={}", leaseKey);
+        return false;
+    }
+
+    public void release(String leaseKey) {
+
+        if (!enabled) {
+            return;
+        }
+
+        held.remove(leaseKey);
+
+        try {
+            leaseMapper.deleteLease(leaseKey, nodeId);
+        } catch (Exception e) {
+            // 반납 실패 시 ttl 경과 후 만료 → 회수 대상이 되지만 처리 완료 상태는 job 재확인에서 걸러진다
+            log.warn("[Cluster] lease release failed: key={}", leaseKey, e);
+        }
+    }
+
+    /**
+     * 만료된 job lease 의 job id (오늘자, type 일치) → 점유 노드가 작업 중 종료된 job
+     */
+    public List<Integer> expiredJobIds(String type, String today) {
+
+        if (!enabled) {
+            return List.of();
+        }
+
+        return leaseMapper.selectExpiredLeaseKeys(type).stream()
+                .map(key -> key.substring(type.length()).split(":"))
+                .filter(parts -> parts.length == 2 && parts[1].equals(today))
+                .map(parts -> Integer.valueOf(parts[0]))
+                .toList();
+    }
+
+    // ===============================
+    // heartbeat (보유 lease 연장 + 오래된 lease 정리)
+    // ===============================
+    @Scheduled(fixedDelayString = "${batch.cluster.heartbeat-ms:30000}")
+    public void heartbeat() {
+
+        if (!enabled) {
+            return;
+        }
+
+        int extended = leaseMapper.extendLeases(nodeId, ttlSeconds);
+        int cleaned = leaseMapper.deleteStaleLeases();
+
+        log.debug("[Cluster] heartbeat: node={}, held={}, extended={}, cleaned={}", nodeId, held.size(), extended, cleaned);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+
+        if (!enabled) {
+            return;
+        }
+
+        for (String leaseKey : List.copyOf(held)) {
+            release(leaseKey);
+        }
+    }
+
+    private static String defaultNodeId() {
+
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "unknown";
+        }
+
+        return host + ":" + ManagementFactory.getRuntimeMXBean().getPid();
+    }
+}
@@ -18,6 +18,7 @@ act_gb	        varchar(1)	    YES                                 // 동작 구
 last_exec_info	varchar(50)	    YES                                 // 마지막 실행 정보 (시간 또는 상태 등)
 next_exec_info	varchar(50)	    YES                                 // 다음 실행 예정 정보
 file_pattern	varchar(255)	NO                                  // 처리할 파일 패턴 (예: DAILY_PRICE_*.txt)
+depends_on	    varchar(500)	YES                                 // 선행 job_name 목록 (콤마 구분, 선행 job 성공 후 실행)
 is_active	    tinyint(1)	    YES		1                           // 활성 여부 (1=사용, 0=미사용)
 created_at	    datetime	    YES		        current_timestamp() // 생성 시각
 */
@@ -68,6 +69,9 @@ public class BatchIn implements SchedulableJob{
     // 처리할 파일 패턴
     private String filePattern;
 
+    // 선행 job_name 목록 (콤마 구분)
+    private String dependsOn;
+
     // 활성 여부 (1=활성, 0=비활성)
     private Integer isActive;
 
@@ -0,0 +1,44 @@
+package com.stock.batch.domain;
+
+import lombok.*;
+
+import java.sql.Timestamp;
+
+/*
+file_hash	    char(64)	    NO	PRI                         // 파일 내용 SHA-256 (hex)
+table_name	    varchar(100)	NO                              // 적재 대상 테이블
+file_name	    varchar(255)	NO                              // 적재 중인 파일명
+file_path	    varchar(1000)	YES                             // 적재 중인 파일 경로 (재개 시 조회 위치)
+byte_offset	    bigint(20)	    NO                              // 마지막 commit 이후 다음 레코드 시작 바이트 위치
+row_num	        bigint(20)	    NO                              // 마지막 commit 까지 적재된 row 수
+updated_at	    datetime	    YES		current_timestamp()     // 마지막 commit 시각
+*/
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchInCheckpoint {
+
+    // 파일 내용 SHA-256 (PK)
+    private String fileHash;
+
+    // 적재 대상 테이블
+    private String tableName;
+
+    // 적재 중인 파일명
+    private String fileName;
+
+    // 적재 중인 파일 경로
+    private String filePath;
+
+    // 다음 레코드 시작 바이트 위치
+    private Long byteOffset;
+
+    // commit 된 row 수
+    private Long rowNum;
+
+    // 마지막 commit 시각
+    private Timestamp updatedAt;
+}
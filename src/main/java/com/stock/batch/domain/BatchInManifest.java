@@ -0,0 +1,41 @@
+package com.stock.batch.domain;
+
+import lombok.*;
+
+import java.sql.Timestamp;
+
+/*
+manifest_id	    bigint(20)	    NO	PRI		auto_increment      // 적재 manifest 고유 ID (PK)
+table_name	    varchar(100)	NO	MUL                         // 적재 대상 테이블
+file_name	    varchar(255)	NO                              // 마지막으로 적재된 파일명
+file_size	    bigint(20)	    NO                              // 파일 크기 (byte)
+file_hash	    char(64)	    NO                              // 파일 내용 SHA-256 (hex)
+loaded_at	    datetime	    YES		current_timestamp()     // 적재(commit) 시각
+UNIQUE KEY uk_batch_in_manifest (table_name, file_hash)
+*/
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchInManifest {
+
+    // manifest 고유 ID (PK)
+    private Long manifestId;
+
+    // 적재 대상 테이블
+    private String tableName;
+
+    // 마지막으로 적재된 파일명
+    private String fileName;
+
+    // 파일 크기 (byte)
+    private Long fileSize;
+
+    // 파일 내용 SHA-256 (hex)
+    private String fileHash;
+
+    // 적재 시각
+    private Timestamp loadedAt;
+}
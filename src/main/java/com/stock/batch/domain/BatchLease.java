@@ -0,0 +1,32 @@
+package com.stock.batch.domain;
+
+import lombok.*;
+
+import java.sql.Timestamp;
+
+/*
+lease_key	    varchar(200)	NO	PRI                         // 점유 대상 (IN:{jobId}:{yyyyMMdd}, OUT:..., FILE:{yyyyMMdd}/{파일명})
+owner_node	    varchar(100)	NO	                            // 점유 노드 id
+expires_at	    datetime	    NO	MUL                         // 만료 시각 (heartbeat 로 연장, 지나면 다른 노드가 회수)
+acquired_at	    datetime	    NO		                        // 점유 시각
+*/
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchLease {
+
+    // 점유 대상 key (PK)
+    private String leaseKey;
+
+    // 점유 노드 id
+    private String ownerNode;
+
+    // 만료 시각
+    private Timestamp expiresAt;
+
+    // 점유 시각
+    private Timestamp acquiredAt;
+}
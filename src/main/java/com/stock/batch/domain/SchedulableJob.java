@@ -2,6 +2,9 @@ package com.stock.batch.domain;
 
 public interface SchedulableJob {
     String getScheduleGb();
+    String getJobMonth();
     String getJobDay();
     String getJobWeek();
+    String getJobHour();
+    String getJobMin();
 }
@@ -9,6 +9,8 @@ handler_name	varchar(200)	YES                         // 실행할 핸들러 클
 description	    varchar(200)	YES                         // 배치 작업 설명
 use_yn	        char(1)	        YES		Y                   // 사용 여부 (Y=사용, N=미사용)
 reg_dt	        datetime	    YES		current_timestamp() // 등록 일시
+priority	    tinyint(4)	    NO		5                   // queue 우선순위 등급 (1=최우선 ~ 9=후순위)
+share_weight	int(11)	        NO		1                   // 같은 등급 내 job_code 간 실행 비중
 */
 
 @Data
@@ -28,4 +30,10 @@ public class StockJobInfo {
 
     // 등록 일시
     private LocalDateTime regDt;
+
+    // queue 우선순위 등급
+    private Integer priority;
+
+    // 같은 등급 내 실행 비중
+    private Integer shareWeight;
 }
\ No newline at end of file
@@ -1,8 +1,11 @@
 package com.stock.batch.domain;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 /*
@@ -12,10 +15,17 @@ status	        char(1)	        YES                                             /
 requested_at	datetime	    NO		        current_timestamp()             // 배치 실행 요청 시각
 started_at	    datetime	    YES                                             // 실제 실행 시작 시각
 batch_out_id	bigint(20)	    YES                                             // 실행된 batch_out 작업 ID (연동용)
+claimed_by	    varchar(100)	YES                                             // 점유한 Java worker (batch.queue.worker.owner-id, 외부 runner 는 NULL)
+priority	    tinyint(4)	    NO	    MUL	    5                               // 실행 우선순위 (작을수록 먼저, aging 으로 감소) - idx (status, priority, requested_at)
+base_priority	tinyint(4)	    NO		        5                               // 등록 시 우선순위 (stock_job_info.priority)
+exec_date	    date	        YES		                                        // 실행 기준일 (멱등 key) - uq (live_batch_out_id, exec_date)
+live_batch_out_id bigint(20) YES      UNI                                     // 진행 중(W / R)일 때만 batch_out_id (PERSISTENT 생성 컬럼, 종료 후 NULL)
 */
 
 @Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class StockJobQueue {
 
     // 배치 대기열 고유 ID
@@ -24,7 +34,7 @@ public class StockJobQueue {
     // 실행 요청된 배치 작업 코드
     private String jobCode;
 
-    // 처리 상태 (W=Waiting, R=Running, S=Success, F=Fail 등)
+    // 처리 상태 (W=Waiting, R=Running, S=Success, F=Fail)
     private String status;
 
     // 배치 실행 요청 시각
@@ -33,6 +43,18 @@ public class StockJobQueue {
     // 실제 실행 시작 시각
     private LocalDateTime startedAt;
 
-    // 실행된 BatchOut 작업 ID
-    private int batchOutId;
+    // 실행된 BatchOut 작업 ID (외부 등록 작업은 NULL 일 수 있음)
+    private Integer batchOutId;
+
+    // 점유한 Java worker
+    private String claimedBy;
+
+    // 실행 우선순위 (aging 반영)
+    private Integer priority;
+
+    // 등록 시 우선순위
+    private Integer basePriority;
+
+    // 실행 기준일 (진행 중 요청의 batch_out_id 와 함께 멱등 key)
+    private LocalDate execDate;
 }
\ No newline at end of file
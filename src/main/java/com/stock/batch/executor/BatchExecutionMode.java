@@ -0,0 +1,197 @@
+package com.stock.batch.executor;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * job / 파일 단위 작업 실행 스레드 모드 (batch.exec.virtual-threads)
+ * - false(기본) : 용도별 고정 크기 platform thread 풀
+ * - true        : Java 21+ 에서 작업마다 virtual thread 생성 (Java 17 등 미지원 런타임은 platform 모드로 동작)
+ * - 동시 실행 상한은 풀 크기가 아니라 semaphore 로 제한
+ *   · DB 작업 : Hikari maximum-pool-size - reserve (스케줄러 / mapper 조회용 여유 커넥션)
+ *     같은 스레드의 중첩 withDbPermit 은 바깥 permit 을 그대로 사용 (자기 자신을 기다리는 교착 방지)
+ *   · Python  : batch.python.slots
+ * - permit 잔량은 batch.exec.*.available gauge 로 노출
+ * - 빌드 toolchain 이 17 이므로 virtual thread API 는 reflection 으로 호출
+ * - virtual thread 에서 socket I/O 를 감싸는 synchronized 는 carrier 를 점유(pinning)하므로
+ *   DB 작업 경로의 임계 구역은 ReentrantLock 을 사용한다
+ */
+@Slf4j
+@Component
+public class BatchExecutionMode {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${batch.exec.virtual-threads:false}")
+    private boolean virtualRequested;
+
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int dbPoolSize;
+
+    @Value("${batch.exec.db-reserve:2}")
+    private int dbReserve;
+
+    @Value("${batch.python.slots:2}")
+    private int pythonSlots;
+
+    private boolean virtual;
+    private Semaphore dbPermits;
+    private Semaphore pythonPermits;
+
+    // 현재 스레드의 withDbPermit 중첩 깊이
+    private final ThreadLocal<int[]> dbPermitDepth = ThreadLocal.withInitial(() -> new int[1]);
+
+    public BatchExecutionMode(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void init() {
+
+        virtual = virtualRequested && virtualThreadsSupported();
+
+        if (virtualRequested && !virtual) {
+            log.warn("[Exec] virtual threads not supported on Java {}, using platform threads", Runtime.version().feature());
+        }
+
+        dbPermits = new Semaphore(Math.max(1, dbPoolSize - dbReserve), true);
+        pythonPermits = new Semaphore(Math.max(1, pythonSlots), true);
+
+        Gauge.builder("batch.exec.db.permits.available", dbPermits, Semaphore::availablePermits).register(meterRegistry);
+        Gauge.builder("batch.exec.python.slots.available", pythonPermits, Semaphore::availablePermits).register(meterRegistry);
+
+        log.info("[Exec] mode={}, dbPermits={}, pythonSlots={}",
+                virtual ? "virtual" : "platform", dbPermits.availablePermits(), pythonPermits.availablePermits());
+    }
+
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    /**
+     * 작업 실행기
+     * - virtual 모드 : 작업마다 virtual thread (platformThreads 무시, 상한은 호출측 permit)
+     * - platform 모드: platformThreads 개 고정 풀
+     * - 호출측이 shutdown 책임
+     */
+    public ExecutorService newExecutor(String name, int platformThreads) {
+
+        if (virtual) {
+            try {
+                return (ExecutorService) Executors.class
+                        .getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                        .invoke(null, virtualThreadFactory(name));
+            } catch (ReflectiveOperationException e) {
+                log.warn("[Exec] virtual executor unavailable, fallback to platform: {}", name, e);
+            }
+        }
+
+        AtomicInteger threadSeq = new AtomicInteger();
+
+        return Executors.newFixedThreadPool(Math.max(1, platformThreads), r -> {
+            Thread t = new Thread(r, name + "-" + threadSeq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * DB 커넥션을 사용하는 작업 (permit 대기 후 실행)
+     * - 이미 permit 을 보유한 스레드에서의 중첩 호출은 대기 없이 실행
+     */
+    public <T> T withDbPermit(Callable<T> task) throws Exception {
+
+        int[] depth = dbPermitDepth.get();
+
+        if (depth[0] > 0) {
+            depth[0]++;
+            try {
+                return task.call();
+            } finally {
+                depth[0]--;
+            }
+        }
+
+        dbPermits.acquire();
+        depth[0]++;
+        try {
+            return task.call();
+        } finally {
+            depth[0]--;
+            dbPermits.release();
+        }
+    }
+
+    public int availableDbPermits() {
+        return dbPermits.availablePermits();
+    }
+
+    /**
+     * 추가 DB permit 을 대기 없이 최대 wanted 개까지 획득 (이미 permit 을 보유한 작업의 추가 커넥션용)
+     *
+     * @return 획득한 permit 수 (releaseDbPermits 로 반납)
+     */
+    public int tryAcquireDbPermits(int wanted) {
+
+        int acquired = 0;
+        while (acquired < wanted && dbPermits.tryAcquire()) {
+            acquired++;
+        }
+        return acquired;
+    }
+
+    public void releaseDbPermits(int count) {
+
+        if (count > 0) {
+            dbPermits.release(count);
+        }
+    }
+
+    /**
+     * Python 프로세스 실행 작업 (slot 대기 후 실행)
+     */
+    public <T> T withPythonSlot(Callable<T> task) throws Exception {
+        return withPermit(pythonPermits, task);
+    }
+
+    private static <T> T withPermit(Semaphore permits, Callable<T> task) throws Exception {
+
+        permits.acquire();
+        try {
+            return task.call();
+        } finally {
+            permits.release();
+        }
+    }
+
+    private static boolean virtualThreadsSupported() {
+
+        try {
+            Thread.class.getMethod("ofVirtual");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    private static ThreadFactory virtualThreadFactory(String name) throws ReflectiveOperationException {
+
+        Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+        Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+
+        builder = builderType.getMethod("name", String.class, long.class).invoke(builder, name + "-", 1L);
+
+        return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+    }
+}
@@ -0,0 +1,126 @@
+package com.stock.batch.executor;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 테이블별 adaptive batch size 제어
+ * - row 당 바이트(EWMA)로 패킷 상한(max_allowed_packet 의 절반)을 넘지 않는 row 수 계산
+ * - executeBatch 지연(EWMA)이 목표보다 짧으면 키우고, 길면 줄인다
+ * - 튜닝 값은 테이블 단위로 유지되어 다음 파일에도 이어진다
+ * - 값은 로그와 MeterRegistry(batch.in.batch.*) 로 노출
+ * - observe 는 테이블별 lock 으로 직렬화 (다른 테이블 적재와는 경합하지 않음)
+ */
+@Slf4j
+@Component
+public class BatchInBatchSizer {
+
+    private static final double ALPHA = 0.3;
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${batch.in.batch.initial-rows:1000}")
+    private int initialRows;
+
+    @Value("${batch.in.batch.min-rows:100}")
+    private int minRows;
+
+    @Value("${batch.in.batch.max-rows:20000}")
+    private int maxRows;
+
+    @Value("${batch.in.batch.target-latency-ms:200}")
+    private long targetLatencyMs;
+
+    @Value("${batch.in.batch.max-packet-bytes:16777216}")
+    private long maxPacketBytes;
+
+    private final Map<String, Tuning> tunings = new ConcurrentHashMap<>();
+
+    public BatchInBatchSizer(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public Tuning tuning(String tableName) {
+        return tunings.computeIfAbsent(BatchInStagingManager.logicalTable(tableName), this::register);
+    }
+
+    private Tuning register(String table) {
+
+        Tuning tuning = new Tuning(table, initialRows);
+
+        Gauge.builder("batch.in.batch.rows", tuning, t -> t.batchRows).tag("table", table).register(meterRegistry);
+        Gauge.builder("batch.in.batch.row.bytes", tuning, t -> t.avgRowBytes).tag("table", table).register(meterRegistry);
+        Gauge.builder("batch.in.batch.latency.ms", tuning, t -> t.avgLatencyMs).tag("table", table).register(meterRegistry);
+
+        return tuning;
+    }
+
+    public final class Tuning {
+
+        private final String table;
+        private final ReentrantLock lock = new ReentrantLock();
+        private volatile int batchRows;
+        private volatile double avgRowBytes;
+        private volatile double avgLatencyMs;
+
+        private Tuning(String table, int batchRows) {
+            this.table = table;
+            this.batchRows = batchRows;
+        }
+
+        public int batchRows() {
+            return batchRows;
+        }
+
+        /**
+         * executeBatch 1회 결과 반영
+         */
+        public void observe(int rows, long bytes, long elapsedNanos) {
+
+            if (rows <= 0) {
+                return;
+            }
+
+            lock.lock();
+            try {
+                update(rows, bytes, elapsedNanos);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void update(int rows, long bytes, long elapsedNanos) {
+
+            double rowBytes = (double) bytes / rows;
+            double latencyMs = elapsedNanos / 1_000_000.0;
+
+            avgRowBytes = avgRowBytes == 0 ? rowBytes : avgRowBytes + ALPHA * (rowBytes - avgRowBytes);
+            avgLatencyMs = avgLatencyMs == 0 ? latencyMs : avgLatencyMs + ALPHA * (latencyMs - avgLatencyMs);
+
+            double next = batchRows;
+
+            if (avgLatencyMs < targetLatencyMs * 0.5) {
+                next = batchRows * 1.5;
+            } else if (avgLatencyMs > targetLatencyMs) {
+                next = batchRows * 0.7;
+            }
+
+            // 패킷 상한 (max_allowed_packet 절반)
+            double byPacket = (maxPacketBytes / 2.0) / Math.max(1.0, avgRowBytes);
+
+            batchRows = (int) Math.max(minRows, Math.min(maxRows, Math.min(next, byPacket)));
+        }
+
+        public void logSummary() {
+            log.info("[BatchIn] batch tuning: table={}, batchRows={}, avgRowBytes={}, avgLatencyMs={}",
+                    table, batchRows, Math.round(avgRowBytes), Math.round(avgLatencyMs));
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.stock.batch.executor;
+
+import com.stock.batch.util.BatchInValueCleaner;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * LOAD DATA LOCAL INFILE 기반 CSV/TXT 적재
+ * - batch.in.load-data.tables 에 등록된 테이블만 사용 (그 외는 JDBC batch insert)
+ * - 파싱/정제된 레코드를 MariaDB 드라이버의 local infile stream 으로 바로 흘려보낸다
+ * - commit / rollback 은 호출측(BatchInProcessor) 정책을 그대로 따른다
+ * - 쓰기 방식: REPLACE 는 REPLACE, INSERT 는 키워드 없이 적재 후 반영 건수로 중복 키 검출
+ *   (LOCAL 적재는 중복 키를 경고로만 넘기므로), UPSERT 테이블은 JDBC batch insert 사용
+ * - MariaDB 드라이버는 기본적으로 LOCAL INFILE 을 거부하므로 datasource URL 에 allowLocalInfile=true 필요
+ *   (테이블이 등록되어 있는데 설정이 없으면 기동 실패)
+ */
+@Slf4j
+@Component
+public class BatchInBulkLoader {
+
+    private final BatchInWriteMode writeMode;
+
+    @Value("${batch.in.load-data.tables:}")
+    private Set<String> loadDataTables;
+
+    @Value("${spring.datasource.url:}")
+    private String datasourceUrl;
+
+    public BatchInBulkLoader(BatchInWriteMode writeMode) {
+        this.writeMode = writeMode;
+    }
+
+    @PostConstruct
+    public void init() {
+
+        loadDataTables = loadDataTables.stream()
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .collect(Collectors.toSet());
+
+        if (!loadDataTables.isEmpty() && !datasourceUrl.contains("allowLocalInfile=true")) {
+            throw new IllegalStateException(
+                    "[BatchIn] batch.in.load-data.tables=" + loadDataTables
+                            + " requires allowLocalInfile=true on spring.datasource.url");
+        }
+    }
+
+    public boolean supports(String tableName, Connection conn) throws SQLException {
+        return loadDataTables.contains(BatchInStagingManager.logicalTable(tableName))
+                && writeMode.resolve(tableName) != BatchInWriteMode.Mode.UPSERT
+                && conn.isWrapperFor(org.mariadb.jdbc.Connection.class);
+    }
+
+    public BatchInProcessor.LoadResult load(BatchInRowSource source, List<String> headers, String tableName, Connection conn) throws Exception {
+
+        BatchInWriteMode.Mode mode = writeMode.resolve(tableName);
+
+        String sql = "LOAD DATA LOCAL INFILE 'batch_in_stream' " + (mode == BatchInWriteMode.Mode.REPLACE ? "REPLACE " : "") +
+                "INTO TABLE " + tableName +
+                " CHARACTER SET utf8mb4" +
+                " FIELDS TERMINATED BY '\\t' ESCAPED BY '\\\\'" +
+                " LINES TERMINATED BY '\\n'" +
+                " (" + String.join(", ", headers) + ")";
+
+        RecordInputStream in = new RecordInputStream(source, headers, tableName);
+
+        try (Statement stmt = conn.createStatement()) {
+
+            stmt.unwrap(org.mariadb.jdbc.Statement.class).setLocalInfileInputStream(in);
+
+            long affected = stmt.executeLargeUpdate(sql);
+
+            log.info("[BatchIn] LOAD DATA completed: table={}, mode={}, rows={}, affected={}", tableName, mode, in.rows, affected);
+
+            // INSERT: 건너뛴 row = 중복 키
+            if (mode == BatchInWriteMode.Mode.INSERT && affected != in.rows) {
+                throw BatchInWriteMode.duplicateKey(
+                        "[BatchIn] duplicate key skipped by LOAD DATA: table=" + tableName + ", rows=" + in.rows + ", affected=" + affected);
+            }
+        }
+
+        return new BatchInProcessor.LoadResult(in.rows, in.hasRowError);
+    }
+
+    /**
+     * 정제된 row → tab 구분 텍스트 (LOAD DATA 기본 escape 규칙)
+     */
+    private static final class RecordInputStream extends InputStream {
+
+        private final BatchInRowSource source;
+        private final List<String> headers;
+        private final String[] row;
+        private final String tableName;
+        private final StringBuilder line = new StringBuilder(256);
+
+        private byte[] buf = new byte[0];
+        private int pos;
+
+        private long rows;
+        private boolean hasRowError;
+
+        private RecordInputStream(BatchInRowSource source, List<String> headers, String tableName) {
+            this.source = source;
+            this.headers = headers;
+            this.row = new String[headers.size()];
+            this.tableName = tableName;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (!fill()) {
+                return -1;
+            }
+            return buf[pos++] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (!fill()) {
+                return -1;
+            }
+            int n = Math.min(len, buf.length - pos);
+            System.arraycopy(buf, pos, b, off, n);
+            pos += n;
+            return n;
+        }
+
+        private boolean fill() throws IOException {
+
+            while (pos >= buf.length) {
+
+                int size = source.next(row);
+
+                if (size < 0) {
+                    return false;
+                }
+
+                if (size != headers.size()) {
+                    log.error(
+                            "[BatchIn] column mismatch: expected={}, actual={}, record={}",
+                            headers.size(),
+                            size,
+                            source.describe()
+                    );
+                    hasRowError = true;
+                    continue;
+                }
+
+                line.setLength(0);
+
+                for (int i = 0; i < headers.size(); i++) {
+                    if (i > 0) {
+                        line.append('\t');
+                    }
+                    appendEscaped(BatchInValueCleaner.toText(tableName, headers.get(i), row[i]));
+                }
+                line.append('\n');
+
+                buf = line.toString().getBytes(StandardCharsets.UTF_8);
+                pos = 0;
+                rows++;
+            }
+
+            return true;
+        }
+
+        private void appendEscaped(String value) {
+
+            if (value == null) {
+                line.append("\\N");
+                return;
+            }
+
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '\\' -> line.append("\\\\");
+                    case '\t' -> line.append("\\t");
+                    case '\n' -> line.append("\\n");
+                    case '\r' -> line.append("\\r");
+                    case '\0' -> line.append("\\0");
+                    default -> line.append(c);
+                }
+            }
+        }
+    }
+}
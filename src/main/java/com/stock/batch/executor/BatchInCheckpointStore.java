@@ -0,0 +1,102 @@
+package com.stock.batch.executor;
+
+import com.stock.batch.domain.BatchInCheckpoint;
+import com.stock.batch.mapper.BatchInCheckpointMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 대용량 파일 chunk commit checkpoint (batch_in_checkpoint)
+ * - batch.in.checkpoint.tables 에 등록된 테이블만 사용
+ * - 저장/삭제는 적재 커넥션의 트랜잭션 안에서 수행하여 데이터와 checkpoint 가 항상 같이 commit 된다
+ * - 파일 경로를 함께 저장 → 기동 시 적재 일자 폴더와 관계없이 남은 파일을 찾아 재개
+ * - 적재 실패 시 checkpoint 는 삭제 (같은 파일이 다시 오면 처음부터, REPLACE / UPSERT 라 재적재 무해)
+ */
+@Slf4j
+@Component
+public class BatchInCheckpointStore {
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO batch_in_checkpoint (file_hash, table_name, file_name, file_path, byte_offset, row_num, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, NOW()) " +
+            "ON DUPLICATE KEY UPDATE file_name = VALUES(file_name), file_path = VALUES(file_path), " +
+            "byte_offset = VALUES(byte_offset), row_num = VALUES(row_num), updated_at = NOW()";
+
+    private static final String DELETE_SQL =
+            "DELETE FROM batch_in_checkpoint WHERE file_hash = ?";
+
+    private final BatchInCheckpointMapper checkpointMapper;
+
+    @Value("${batch.in.checkpoint.tables:}")
+    private Set<String> checkpointTables;
+
+    @Value("${batch.in.checkpoint.interval-rows:100000}")
+    private int intervalRows;
+
+    public BatchInCheckpointStore(BatchInCheckpointMapper checkpointMapper) {
+        this.checkpointMapper = checkpointMapper;
+    }
+
+    public boolean supports(String tableName) {
+        return checkpointTables.contains(BatchInStagingManager.logicalTable(tableName));
+    }
+
+    public int getIntervalRows() {
+        return intervalRows;
+    }
+
+    public BatchInCheckpoint find(String fileHash) {
+        return checkpointMapper.selectByHash(fileHash);
+    }
+
+    public List<BatchInCheckpoint> findOpen() {
+
+        // 사용 테이블이 없으면 batch_in_checkpoint 를 조회하지 않음 (테이블 미생성 환경 기동 가능)
+        if (checkpointTables.isEmpty()) {
+            return List.of();
+        }
+
+        return checkpointMapper.selectOpenCheckpoints();
+    }
+
+    public void save(Connection conn, String fileHash, String tableName, Path file, long byteOffset, long rowNum) throws Exception {
+
+        try (PreparedStatement ps = conn.prepareStatement(UPSERT_SQL)) {
+            ps.setString(1, fileHash);
+            ps.setString(2, tableName);
+            ps.setString(3, file.getFileName().toString());
+            ps.setString(4, file.toAbsolutePath().toString());
+            ps.setLong(5, byteOffset);
+            ps.setLong(6, rowNum);
+            ps.executeUpdate();
+        }
+
+        log.debug("[BatchIn] checkpoint saved: file={}, offset={}, rows={}", file.getFileName(), byteOffset, rowNum);
+    }
+
+    public void clear(Connection conn, String fileHash) throws Exception {
+
+        try (PreparedStatement ps = conn.prepareStatement(DELETE_SQL)) {
+            ps.setString(1, fileHash);
+            ps.executeUpdate();
+        }
+    }
+
+    /**
+     * 재개할 파일이 없는 checkpoint 삭제
+     */
+    public void discard(BatchInCheckpoint checkpoint) {
+
+        checkpointMapper.deleteByHash(checkpoint.getFileHash());
+
+        log.warn("[BatchIn] checkpoint discarded (file not found): file={}, path={}, rows={}",
+                checkpoint.getFileName(), checkpoint.getFilePath(), checkpoint.getRowNum());
+    }
+}
@@ -0,0 +1,167 @@
+package com.stock.batch.executor;
+
+import com.stock.batch.util.BatchInValueCleaner;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 테이블 스키마 기반 컬럼 setter 캐시
+ * - INFORMATION_SCHEMA.COLUMNS 의 타입으로 (table, header 목록) 별 setter 배열을 1회 생성
+ * - 컬럼 메타데이터는 실행(beginRun) 단위로 테이블당 1회 조회, 다음 실행에서 fingerprint 를 비교하여
+ *   스키마가 바뀌었으면 다시 생성
+ * - row 루프에서는 setter 배열 인덱스 접근만 하고 예외 기반 타입 판별을 하지 않는다
+ * - 문자열 컬럼도 기존 규칙대로 숫자 형식 값의 천단위 콤마를 제거 (LOAD DATA 의 toText 와 동일)
+ */
+@Slf4j
+@Component
+public class BatchInColumnBinder {
+
+    @FunctionalInterface
+    public interface ColumnSetter {
+        void set(PreparedStatement ps, int idx, String cleaned) throws SQLException;
+    }
+
+    private static final String COLUMN_SQL =
+            "SELECT COLUMN_NAME, DATA_TYPE FROM INFORMATION_SCHEMA.COLUMNS " +
+            "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? ORDER BY ORDINAL_POSITION";
+
+    private final Map<String, TableSchema> cache = new ConcurrentHashMap<>();
+
+    // 실행 세대 (beginRun 마다 증가, 세대가 지난 캐시는 다음 compile 에서 메타데이터 재조회)
+    private final AtomicLong generation = new AtomicLong();
+
+    private record TableSchema(String fingerprint, long generation, Map<String, String> columnTypes,
+                               Map<List<String>, ColumnSetter[]> compiled) {}
+
+    /**
+     * 실행 시작 (이후 테이블별 첫 compile 에서만 INFORMATION_SCHEMA 조회)
+     */
+    public void beginRun() {
+        generation.incrementAndGet();
+    }
+
+    /**
+     * (table, headers) 에 대한 setter 배열 조회 (스키마 변경 시 재생성)
+     */
+    public ColumnSetter[] compile(Connection conn, String tableName, List<String> headers) throws SQLException {
+
+        long current = generation.get();
+        TableSchema schema = cache.get(tableName);
+
+        if (schema == null || schema.generation() != current) {
+            schema = refresh(conn, tableName, current);
+        }
+
+        TableSchema resolved = schema;
+
+        return resolved.compiled().computeIfAbsent(List.copyOf(headers), h -> build(tableName, h, resolved.columnTypes()));
+    }
+
+    private TableSchema refresh(Connection conn, String tableName, long current) throws SQLException {
+
+        Map<String, String> columnTypes = new HashMap<>();
+        StringBuilder fingerprint = new StringBuilder();
+
+        try (PreparedStatement ps = conn.prepareStatement(COLUMN_SQL)) {
+            ps.setString(1, tableName);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    String column = rs.getString(1).toLowerCase(Locale.ROOT);
+                    String type = rs.getString(2).toLowerCase(Locale.ROOT);
+                    columnTypes.put(column, type);
+                    fingerprint.append(column).append(':').append(type).append(';');
+                }
+            }
+        }
+
+        return cache.compute(tableName, (k, cached) -> {
+            if (cached != null && cached.fingerprint().contentEquals(fingerprint)) {
+                return new TableSchema(cached.fingerprint(), current, cached.columnTypes(), cached.compiled());
+            }
+            if (cached != null) {
+                log.info("[BatchIn] schema changed, binder invalidated: table={}", tableName);
+            }
+            return new TableSchema(fingerprint.toString(), current, columnTypes, new ConcurrentHashMap<>());
+        });
+    }
+
+    private ColumnSetter[] build(String tableName, List<String> headers, Map<String, String> columnTypes) {
+
+        ColumnSetter[] setters = new ColumnSetter[headers.size()];
+
+        for (int i = 0; i < headers.size(); i++) {
+
+            String header = headers.get(i);
+
+            // kodex_etf_* 전용 base_date 처리
+            if (BatchInValueCleaner.isDottedBaseDate(tableName, header)) {
+                setters[i] = (ps, idx, v) -> ps.setString(idx, v.replace(".", ""));
+                continue;
+            }
+
+            // 코드 계열은 문자열 고정
+            if (BatchInValueCleaner.isCodeColumn(header)) {
+                setters[i] = BatchInColumnBinder::setString;
+                continue;
+            }
+
+            setters[i] = switch (columnTypes.getOrDefault(header.toLowerCase(Locale.ROOT), "")) {
+                case "tinyint", "smallint", "mediumint", "int", "integer", "bigint", "year" -> BatchInColumnBinder::setLong;
+                case "decimal", "numeric" -> BatchInColumnBinder::setDecimal;
+                case "float", "double", "real" -> BatchInColumnBinder::setDouble;
+                case "date", "datetime", "timestamp", "time" -> BatchInColumnBinder::setString;
+                case "char", "varchar", "text", "tinytext", "mediumtext", "longtext", "enum", "set" -> BatchInColumnBinder::setText;
+                // 스키마에서 찾지 못한 컬럼은 기존 규칙 (숫자면 double, 아니면 문자열)
+                default -> BatchInColumnBinder::setDouble;
+            };
+        }
+
+        log.info("[BatchIn] binder compiled: table={}, columns={}", tableName, headers.size());
+
+        return setters;
+    }
+
+    private static void setString(PreparedStatement ps, int idx, String v) throws SQLException {
+        ps.setString(idx, v);
+    }
+
+    private static void setText(PreparedStatement ps, int idx, String v) throws SQLException {
+        ps.setString(idx, BatchInValueCleaner.isNumeric(v) ? BatchInValueCleaner.stripComma(v) : v);
+    }
+
+    private static void setLong(PreparedStatement ps, int idx, String v) throws SQLException {
+        if (BatchInValueCleaner.isInteger(v)) {
+            ps.setLong(idx, Long.parseLong(BatchInValueCleaner.stripComma(v)));
+        } else {
+            setDouble(ps, idx, v);
+        }
+    }
+
+    private static void setDecimal(PreparedStatement ps, int idx, String v) throws SQLException {
+        if (BatchInValueCleaner.isNumeric(v)) {
+            ps.setBigDecimal(idx, new BigDecimal(BatchInValueCleaner.stripComma(v)));
+        } else {
+            ps.setString(idx, v);
+        }
+    }
+
+    private static void setDouble(PreparedStatement ps, int idx, String v) throws SQLException {
+        if (BatchInValueCleaner.isNumeric(v)) {
+            ps.setDouble(idx, Double.parseDouble(BatchInValueCleaner.stripComma(v)));
+        } else {
+            ps.setString(idx, v);
+        }
+    }
+}
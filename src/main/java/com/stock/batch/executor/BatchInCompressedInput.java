@@ -0,0 +1,73 @@
+package com.stock.batch.executor;
+
+import io.airlift.compress.zstd.ZstdInputStream;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * 압축 입력 파일 (.gz / .zst) streaming 해제
+ * - {name}.csv.gz / {name}.txt.zst / {name}.json.gz 형태를 지원
+ * - 압축 해제 결과를 디스크에 쓰지 않고 reader 로 바로 흘려보낸다
+ * - 원본 압축 파일은 그대로 ARCHIVE / ERROR 로 이동
+ */
+final class BatchInCompressedInput {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private BatchInCompressedInput() {
+    }
+
+    static boolean isCompressed(String fileName) {
+        return fileName.endsWith(".gz") || fileName.endsWith(".zst");
+    }
+
+    /**
+     * 압축 확장자 제거 (a.csv.gz → a.csv)
+     */
+    static String stripSuffix(String fileName) {
+        return isCompressed(fileName) ? fileName.substring(0, fileName.lastIndexOf('.')) : fileName;
+    }
+
+    static InputStream open(Path file) throws IOException {
+        return open(file, null);
+    }
+
+    /**
+     * @param digest 원본(압축 상태) 바이트로 SHA-256 을 함께 계산할 digest (null 이면 계산 안 함)
+     */
+    static InputStream open(Path file, BatchInFileDigest digest) throws IOException {
+
+        String fileName = file.getFileName().toString();
+        InputStream raw = Files.newInputStream(file);
+        InputStream in = new BufferedInputStream(digest != null ? digest.track(raw) : raw, BUFFER_SIZE);
+
+        try {
+            if (fileName.endsWith(".gz")) {
+                return new GZIPInputStream(in, BUFFER_SIZE);
+            }
+            if (fileName.endsWith(".zst")) {
+                return new BufferedInputStream(new ZstdInputStream(in), BUFFER_SIZE);
+            }
+            return in;
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    static BufferedReader openReader(Path file) throws IOException {
+        return openReader(file, null);
+    }
+
+    static BufferedReader openReader(Path file, BatchInFileDigest digest) throws IOException {
+        return new BufferedReader(new InputStreamReader(open(file, digest), StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+}
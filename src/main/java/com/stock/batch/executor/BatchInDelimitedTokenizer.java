@@ -0,0 +1,248 @@
+package com.stock.batch.executor;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 따옴표 없는 단순 구분자 파일(, / |) 전용 tokenizer
+ * - 재사용 char[] 버퍼 위에서 구분자/줄바꿈을 직접 스캔한다 (CSVRecord / 레코드별 배열 / trim 사본 없음)
+ * - trim 과 null 취급 문자열(공백, none, null, nan) 판별을 버퍼 위에서 끝내고
+ *   실제 값이 있는 필드만 String 으로 만든다 (BatchInValueCleaner.clean 과 같은 결과)
+ * - 줄바꿈은 \n, \r\n, \r 모두 허용하고 빈 줄은 건너뛴다 (CSVFormat.DEFAULT 와 동일)
+ * - 따옴표(")를 만나면 QuotedInputException → 호출측에서 commons-csv 로 재처리
+ */
+final class BatchInDelimitedTokenizer implements BatchInRowSource, AutoCloseable {
+
+    /**
+     * 따옴표 필드 발견 (commons-csv fallback 신호)
+     */
+    static final class QuotedInputException extends IOException {
+        QuotedInputException(long line) {
+            super("[BatchIn] quoted field detected at line " + line);
+        }
+    }
+
+    private final Reader reader;
+    private final char delimiter;
+
+    private char[] buf = new char[64 * 1024];
+    private int pos;
+    private int limit;
+    private boolean eof;
+
+    // 직전 레코드가 \r 로 끝났으면 다음 \n 은 같은 줄바꿈
+    private boolean skipLf;
+
+    // 직전 레코드 범위 (describe 용)
+    private int recordStart;
+    private int recordEnd;
+    private long line;
+
+    BatchInDelimitedTokenizer(Reader reader, char delimiter) {
+        this.reader = reader;
+        this.delimiter = delimiter;
+    }
+
+    /**
+     * 첫 레코드를 헤더로 읽는다 (trim)
+     */
+    List<String> readHeader() throws IOException {
+
+        if (!nextRecord()) {
+            return List.of();
+        }
+
+        List<String> headers = new ArrayList<>();
+        int start = recordStart;
+
+        for (int i = recordStart; i <= recordEnd; i++) {
+            if (i == recordEnd || buf[i] == delimiter) {
+                headers.add(new String(buf, start, i - start).trim());
+                start = i + 1;
+            }
+        }
+
+        return headers;
+    }
+
+    @Override
+    public int next(String[] row) throws IOException {
+
+        if (!nextRecord()) {
+            return -1;
+        }
+
+        int count = 0;
+        int start = recordStart;
+
+        for (int i = recordStart; i <= recordEnd; i++) {
+            if (i == recordEnd || buf[i] == delimiter) {
+                if (count < row.length) {
+                    row[count] = field(start, i);
+                }
+                count++;
+                start = i + 1;
+            }
+        }
+
+        return count;
+    }
+
+    @Override
+    public String describe() {
+        return "line " + line + ": " + new String(buf, recordStart, recordEnd - recordStart);
+    }
+
+    /**
+     * 다음 비어있지 않은 레코드 범위를 [recordStart, recordEnd) 로 잡는다
+     */
+    private boolean nextRecord() throws IOException {
+
+        while (true) {
+
+            if (skipLf) {
+                if (pos >= limit && !fill()) {
+                    return false;
+                }
+                if (buf[pos] == '\n') {
+                    pos++;
+                }
+                skipLf = false;
+            }
+
+            int scan = pos;
+
+            while (true) {
+
+                if (scan >= limit) {
+                    int before = pos;
+                    boolean more = fill();
+                    // fill 이 버퍼를 앞으로 당겼으면 scan 위치도 같이 이동
+                    scan -= before - pos;
+                    if (!more) {
+                        break;
+                    }
+                    continue;
+                }
+
+                char c = buf[scan];
+
+                if (c == '\n' || c == '\r') {
+                    break;
+                }
+                if (c == '"') {
+                    throw new QuotedInputException(line + 1);
+                }
+
+                scan++;
+            }
+
+            // EOF 이고 남은 내용 없음
+            if (scan == pos && scan >= limit) {
+                return false;
+            }
+
+            line++;
+            recordStart = pos;
+            recordEnd = scan;
+
+            if (scan < limit) {
+                skipLf = buf[scan] == '\r';
+                pos = scan + 1;
+            } else {
+                pos = scan;
+            }
+
+            // 빈 줄 skip
+            if (recordEnd > recordStart) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 버퍼 보충 (처리 중인 레코드 [pos, limit) 는 앞으로 당겨 보존, 부족하면 확장)
+     */
+    private boolean fill() throws IOException {
+
+        if (eof) {
+            return false;
+        }
+
+        if (pos > 0) {
+            System.arraycopy(buf, pos, buf, 0, limit - pos);
+            limit -= pos;
+            pos = 0;
+        }
+
+        if (limit == buf.length) {
+            char[] grown = new char[buf.length * 2];
+            System.arraycopy(buf, 0, grown, 0, limit);
+            buf = grown;
+        }
+
+        int n = reader.read(buf, limit, buf.length - limit);
+
+        if (n < 0) {
+            eof = true;
+            return false;
+        }
+
+        limit += n;
+        return true;
+    }
+
+    /**
+     * [start, end) 필드를 trim 후 null 취급 문자열이면 null, 아니면 String 생성
+     */
+    private String field(int start, int end) {
+
+        while (start < end && buf[start] <= ' ') {
+            start++;
+        }
+        while (end > start && buf[end - 1] <= ' ') {
+            end--;
+        }
+
+        int len = end - start;
+
+        if (len == 0 || (len == 4 && (matches(start, "none") || matches(start, "null"))) || (len == 3 && matches(start, "nan"))) {
+            return null;
+        }
+
+        return new String(buf, start, len);
+    }
+
+    private boolean matches(int start, String lower) {
+
+        for (int i = 0; i < lower.length(); i++) {
+            if (Character.toLowerCase(buf[start + i]) != lower.charAt(i)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * 예외 원인 체인에 QuotedInputException 포함 여부
+     * (pipeline / 분할 적재 / LOAD DATA 드라이버가 감싼 경우 포함)
+     */
+    static boolean isQuoted(Throwable e) {
+
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof QuotedInputException) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
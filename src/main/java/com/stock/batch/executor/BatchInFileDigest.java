@@ -0,0 +1,109 @@
+package com.stock.batch.executor;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * 파일 1개 적재(ingest) 동안 공유하는 SHA-256 (manifest 비교 / 기록, checkpoint key)
+ * - tracking 이면 적재 stream 을 원본 바이트 그대로 통과시키며 계산 → 끝까지 읽히면 그 값을 사용
+ * - 적재 전에 값이 필요하거나(checkpoint, 같은 크기의 manifest 비교) stream 이 끝까지 읽히지 않은
+ *   경로(분할 적재 등)는 value() 호출 시 파일을 한 번만 읽어 계산
+ * - 한 ingest 안에서만 사용 (스레드 간 공유하지 않음)
+ */
+final class BatchInFileDigest {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path file;
+    private final boolean tracking;
+    private String value;
+
+    BatchInFileDigest(Path file, boolean tracking) {
+        this.file = file;
+        this.tracking = tracking;
+    }
+
+    /**
+     * 적재용 원본 파일 stream (압축 해제 전) 에 digest 계산을 덧붙인다
+     * - 재시도(fallback)로 다시 열면 새 digest 로 처음부터 계산
+     */
+    InputStream track(InputStream in) {
+
+        if (!tracking || value != null) {
+            return in;
+        }
+
+        MessageDigest md = newDigest();
+
+        return new FilterInputStream(new DigestInputStream(in, md)) {
+
+            @Override
+            public int read() throws IOException {
+                int b = super.read();
+                if (b < 0) {
+                    complete(md);
+                }
+                return b;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                int n = super.read(b, off, len);
+                if (n < 0) {
+                    complete(md);
+                }
+                return n;
+            }
+        };
+    }
+
+    /**
+     * SHA-256 hex (아직 없으면 파일을 읽어 계산)
+     */
+    String value() throws IOException {
+
+        if (value == null) {
+            value = of(file);
+        }
+
+        return value;
+    }
+
+    static String of(Path file) throws IOException {
+
+        MessageDigest md = newDigest();
+        byte[] buf = new byte[BUFFER_SIZE];
+
+        try (InputStream in = Files.newInputStream(file)) {
+            int n;
+            while ((n = in.read(buf)) > 0) {
+                md.update(buf, 0, n);
+            }
+        }
+
+        return HexFormat.of().formatHex(md.digest());
+    }
+
+    private void complete(MessageDigest md) {
+
+        if (value == null) {
+            value = HexFormat.of().formatHex(md.digest());
+        }
+    }
+
+    private static MessageDigest newDigest() {
+
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
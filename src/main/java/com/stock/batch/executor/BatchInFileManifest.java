@@ -0,0 +1,69 @@
+package com.stock.batch.executor;
+
+import com.stock.batch.domain.BatchInManifest;
+import com.stock.batch.mapper.BatchInManifestMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * 적재 완료 파일 manifest (batch_in_manifest)
+ * - 테이블의 가장 최근 적재 파일과 크기 + SHA-256 이 같으면 변경 없음으로 판단
+ *   (과거 임의 시점의 내용과 같아도 그 뒤 다른 내용이 적재됐으면 다시 적재)
+ * - 크기가 다르면 hash 계산 없이 바로 적재
+ * - hash 는 ingest 단위 BatchInFileDigest 로 한 번만 계산 (가능하면 적재 stream 에서 함께 계산)
+ */
+@Slf4j
+@Component
+public class BatchInFileManifest {
+
+    private final BatchInManifestMapper manifestMapper;
+
+    @Value("${batch.in.manifest.enabled:false}")
+    private boolean enabled;
+
+    public BatchInFileManifest(BatchInManifestMapper manifestMapper) {
+        this.manifestMapper = manifestMapper;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 테이블에 마지막으로 적재된 파일과 같은 내용인지 여부
+     */
+    boolean isUnchanged(String tableName, Path file, BatchInFileDigest digest) throws Exception {
+
+        BatchInManifest latest = manifestMapper.selectLatest(tableName);
+
+        if (latest == null || latest.getFileSize() == null || latest.getFileSize() != Files.size(file)) {
+            return false;
+        }
+
+        return digest.value().equals(latest.getFileHash());
+    }
+
+    /**
+     * 적재(commit) 완료 파일 기록
+     */
+    void record(String tableName, Path file, BatchInFileDigest digest) {
+
+        try {
+            manifestMapper.upsertManifest(
+                    BatchInManifest.builder()
+                            .tableName(tableName)
+                            .fileName(file.getFileName().toString())
+                            .fileSize(Files.size(file))
+                            .fileHash(digest.value())
+                            .build()
+            );
+        } catch (Exception e) {
+            // manifest 기록 실패는 적재 결과에 영향 없음 (다음 실행 시 재적재될 뿐)
+            log.warn("[BatchIn] manifest record failed: file={}", file.getFileName(), e);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.stock.batch.executor;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 대용량 CSV/TXT 파일을 레코드 경계 기준으로 분할
+ * - FileChannel.map 으로 window 단위 memory-map 후 스캔
+ * - 따옴표(") 내부 개행은 레코드 경계로 보지 않는다 (CSVFormat.DEFAULT 규칙)
+ *   · 따옴표 필드는 필드 시작 위치의 '"' 로만 열리고, 필드 중간의 '"' 는 일반 문자
+ *   · 따옴표 필드 안의 "" 는 escape, 그 외 '"' 는 필드 종료
+ * - '"' / '\n' / 구분자(, |) 는 UTF-8 멀티바이트 안에 나타나지 않으므로 바이트 단위 스캔으로 충분
+ */
+final class BatchInFileSplitter {
+
+    // 한 번에 매핑하는 크기 (2GB 매핑 한도 회피)
+    private static final long WINDOW = 64L << 20;
+
+    /**
+     * @param headerEnd 헤더 라인 다음 바이트 위치
+     * @param splits    데이터 구간 [start, end)
+     */
+    record Plan(long headerEnd, List<Split> splits) {}
+
+    record Split(long start, long end) {}
+
+    private BatchInFileSplitter() {
+    }
+
+    static Plan plan(FileChannel ch, int parts, char delimiter) throws IOException {
+
+        long size = ch.size();
+        long headerEnd = -1;
+        long[] targets = null;
+        int next = 1;
+
+        List<Long> cuts = new ArrayList<>();
+        boolean inQuote = false;
+        // 따옴표 필드 안에서 '"' 직후 (다음 바이트가 '"' 면 escape, 아니면 필드 종료)
+        boolean quoteEnd = false;
+        boolean fieldStart = true;
+
+        for (long base = 0; base < size && (headerEnd < 0 || next < parts); base += WINDOW) {
+
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, base, Math.min(WINDOW, size - base));
+
+            for (int i = 0; i < buf.limit() && (headerEnd < 0 || next < parts); i++) {
+
+                byte b = buf.get(i);
+
+                if (quoteEnd) {
+                    quoteEnd = false;
+                    if (b == '"') {
+                        continue;
+                    }
+                    inQuote = false;
+                }
+
+                if (inQuote) {
+                    quoteEnd = b == '"';
+                    continue;
+                }
+
+                if (b == '"' && fieldStart) {
+                    inQuote = true;
+                    fieldStart = false;
+                    continue;
+                }
+
+                fieldStart = b == delimiter || b == '\n';
+
+                if (b != '\n') {
+                    continue;
+                }
+
+                long boundary = base + i + 1;
+
+                if (headerEnd < 0) {
+                    headerEnd = boundary;
+                    targets = new long[parts];
+                    for (int p = 1; p < parts; p++) {
+                        targets[p] = headerEnd + (size - headerEnd) * p / parts;
+                    }
+                    continue;
+                }
+
+                if (boundary >= targets[next] && boundary < size) {
+                    cuts.add(boundary);
+                    next++;
+                }
+            }
+        }
+
+        if (headerEnd < 0) {
+            headerEnd = size;
+        }
+
+        List<Split> splits = new ArrayList<>();
+        long start = headerEnd;
+
+        for (long cut : cuts) {
+            splits.add(new Split(start, cut));
+            start = cut;
+        }
+
+        if (start < size) {
+            splits.add(new Split(start, size));
+        }
+
+        return new Plan(headerEnd, splits);
+    }
+
+    /**
+     * [start, end) 구간을 window 단위로 매핑하여 읽는 InputStream
+     */
+    static InputStream open(FileChannel ch, long start, long end) {
+        return new MappedRegionInputStream(ch, start, end);
+    }
+
+    private static final class MappedRegionInputStream extends InputStream {
+
+        private final FileChannel ch;
+        private final long end;
+        private long pos;
+        private MappedByteBuffer buf;
+
+        private MappedRegionInputStream(FileChannel ch, long start, long end) {
+            this.ch = ch;
+            this.pos = start;
+            this.end = end;
+        }
+
+        private boolean ensure() throws IOException {
+
+            if (buf != null && buf.hasRemaining()) {
+                return true;
+            }
+
+            if (pos >= end) {
+                return false;
+            }
+
+            long size = Math.min(WINDOW, end - pos);
+            buf = ch.map(FileChannel.MapMode.READ_ONLY, pos, size);
+            pos += size;
+            return true;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return ensure() ? buf.get() & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (!ensure()) {
+                return -1;
+            }
+            int n = Math.min(len, buf.remaining());
+            buf.get(b, off, n);
+            return n;
+        }
+    }
+}
@@ -9,25 +9,43 @@ public class BatchInJobExecutor {
 
     private final BatchInPreCleaner preCleaner;
     private final BatchInProcessor processor;
+    private final BatchInStagingManager stagingManager;
 
-    public BatchInJobExecutor(BatchInPreCleaner preCleaner, BatchInProcessor processor ) {
+    public BatchInJobExecutor(BatchInPreCleaner preCleaner, BatchInProcessor processor, BatchInStagingManager stagingManager ) {
         this.preCleaner = preCleaner;
         this.processor = processor;
+        this.stagingManager = stagingManager;
     }
 
     public BatchInProcessor.BatchResult execute( String jobName, String today, String pattern ) throws Exception {
 
         log.info("[BatchInJobExecutor] START jobName={}", jobName);
 
-        // 대표 job에서만 truncate
-        preCleaner.clean(jobName);
+        BatchInProcessor.BatchResult result;
 
-        BatchInProcessor.BatchResult result = processor.executeBatch(today, pattern);
+        stagingManager.enterJob();
+
+        try {
+            // 대표 job에서만 truncate
+            preCleaner.clean(jobName);
+
+            result = processor.executeBatch(today, pattern);
+        } finally {
+            // staging 그룹 swap / 폐기 판단
+            stagingManager.afterJob();
+        }
 
         log.info("[BatchInJobExecutor] END jobName={}", jobName);
 
         return result;
     }
 
+    /**
+     * 기동 시 checkpoint 가 남은 파일 재개
+     */
+    public BatchInProcessor.BatchResult resume(String today) {
+        return processor.resumeCheckpoints(today);
+    }
+
 
 }
@@ -6,20 +6,31 @@ import org.springframework.stereotype.Component;
 import javax.sql.DataSource;
 import java.sql.Connection;
 import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Slf4j
 @Component
 public class BatchInPreCleaner {
 
     private final DataSource dataSource;
+    private final BatchInStagingManager stagingManager;
+    private final BatchExecutionMode executionMode;
 
-    public BatchInPreCleaner(DataSource dataSource) {
+    // pre-clean 된 테이블 → pre-clean 일자
+    private final Map<String, LocalDate> cleanedAt = new ConcurrentHashMap<>();
+
+    public BatchInPreCleaner(DataSource dataSource, BatchInStagingManager stagingManager, BatchExecutionMode executionMode) {
         this.dataSource = dataSource;
+        this.stagingManager = stagingManager;
+        this.executionMode = executionMode;
     }
 
     /**
      * jobName 기준 pre-clean
      * - 그룹당 "대표 job"에서만 truncate
+     * - staging 모드면 truncate 대신 staging 테이블 생성 (적재 완료 후 swap)
      */
     public void clean(String jobName) {
 
@@ -27,7 +38,8 @@ public class BatchInPreCleaner {
         // KODEX (SUMMARY에서만)
         // =========================
         if (jobName.equals("KODEX_ETF_SUMMARY_IN")) {
-            truncate(
+            prepare(
+                    "KODEX",
                     "kodex_etf_summary",
                     "kodex_etf_holdings"
             );
@@ -38,7 +50,8 @@ public class BatchInPreCleaner {
         // TIGER (SUMMARY에서만)
         // =========================
         if (jobName.equals("TIGER_ETF_SUMMARY_IN")) {
-            truncate(
+            prepare(
+                    "TIGER",
                     "tiger_etf_summary",
                     "tiger_etf_holdings"
             );
@@ -49,7 +62,8 @@ public class BatchInPreCleaner {
         // NPS (HEADER에서만)
         // =========================
         if (jobName.equals("NPS_PORTFOLIO_HEADER_IN")) {
-            truncate(
+            prepare(
+                    "NPS",
                     "nps_portfolio_header",
                     "nps_portfolio_item"
             );
@@ -59,15 +73,65 @@ public class BatchInPreCleaner {
         log.info("[BatchInPreCleaner] skip pre-clean for jobName={}", jobName);
     }
 
+    /**
+     * jobName 이 속한 pre-clean 그룹 (없으면 null)
+     * - 같은 그룹 job 은 대표 job 의 TRUNCATE / staging 생성과 겹치지 않도록 동시에 실행하지 않는다
+     */
+    public static String groupOf(String jobName) {
+
+        if (jobName == null) {
+            return null;
+        }
+        if (jobName.startsWith("KODEX_ETF_")) {
+            return "KODEX";
+        }
+        if (jobName.startsWith("TIGER_ETF_")) {
+            return "TIGER";
+        }
+        if (jobName.startsWith("NPS_PORTFOLIO_")) {
+            return "NPS";
+        }
+        return null;
+    }
+
+    /**
+     * 오늘 pre-clean(truncate 또는 staging 생성) 된 테이블 여부
+     */
+    public boolean isPreCleanedToday(String tableName) {
+        return LocalDate.now().equals(cleanedAt.get(tableName));
+    }
+
+    private void prepare(String groupName, String... tables) {
+
+        for (String table : tables) {
+            cleanedAt.put(table, LocalDate.now());
+        }
+
+        if (stagingManager.isEnabled()) {
+            stagingManager.begin(groupName, tables);
+            return;
+        }
+
+        truncate(tables);
+
+        // 보조 인덱스는 적재 후 일괄 재생성 (batch.in.staging.defer-indexes)
+        stagingManager.deferLiveIndexes(tables);
+    }
+
     private void truncate(String... tables) {
 
-        try (Connection conn = dataSource.getConnection();
-             Statement stmt = conn.createStatement()) {
+        try {
+            executionMode.withDbPermit(() -> {
+                try (Connection conn = dataSource.getConnection();
+                     Statement stmt = conn.createStatement()) {
 
-            for (String table : tables) {
-                log.info("[BatchInPreCleaner] TRUNCATE {}", table);
-                stmt.execute("TRUNCATE TABLE " + table);
-            }
+                    for (String table : tables) {
+                        log.info("[BatchInPreCleaner] TRUNCATE {}", table);
+                        stmt.execute("TRUNCATE TABLE " + table);
+                    }
+                }
+                return null;
+            });
 
         } catch (Exception e) {
             throw new RuntimeException("[BatchInPreCleaner] truncate failed", e);
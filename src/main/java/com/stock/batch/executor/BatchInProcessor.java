@@ -1,6 +1,12 @@
 package com.stock.batch.executor;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stock.batch.cluster.BatchLeaseManager;
+import com.stock.batch.domain.BatchInCheckpoint;
+import com.stock.batch.util.BatchInValueCleaner;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.csv.*;
 import org.springframework.beans.factory.annotation.Value;
@@ -8,18 +14,42 @@ import org.springframework.stereotype.Component;
 
 import javax.sql.DataSource;
 import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Component
 public class BatchInProcessor {
 
+    private static final int BATCH_SIZE = 1000;
+
+    private static final TypeReference<LinkedHashMap<String, Object>> JSON_ROW_TYPE = new TypeReference<>() {};
+
     private final DataSource dataSource;
+    private final BatchInBulkLoader bulkLoader;
+    private final BatchInColumnBinder columnBinder;
+    private final BatchInStagingManager stagingManager;
+    private final BatchInPreCleaner preCleaner;
+    private final BatchInFileManifest manifest;
+    private final BatchInCheckpointStore checkpointStore;
+    private final BatchInBatchSizer batchSizer;
+    private final BatchInWriteMode writeMode;
+    private final BatchInSessionProfile sessionProfile;
+    private final BatchExecutionMode executionMode;
+    private final BatchLeaseManager leaseManager;
     private final ObjectMapper mapper = new ObjectMapper();
 
     @Value("${batch.path.in}")
@@ -34,10 +64,69 @@ public class BatchInProcessor {
     @Value("${batch.path.error}")
     private String errorRoot;
 
-    public record BatchResult(int total, int success, int fail) {}
+    // 파일 병렬 적재 worker 수 (1 = 기존 순차 처리)
+    // DB 커넥션 풀 크기보다 작게 설정할 것
+    @Value("${batch.in.parallel.workers:1}")
+    private int parallelWorkers;
+
+    // 파싱/쓰기 stage 분리 여부 및 stage 간 대기 chunk 수
+    @Value("${batch.in.pipeline.enabled:false}")
+    private boolean pipelineEnabled;
+
+    @Value("${batch.in.pipeline.queue-size:4}")
+    private int pipelineQueueSize;
+
+    // BATCH_OUT 파일 이동 시 준비 완료 marker 필수 여부
+    @Value("${batch.in.ready-marker.required:false}")
+    private boolean readyMarkerRequired;
+
+    // 따옴표 없는 CSV/TXT 를 자체 tokenizer 로 파싱 (따옴표 발견 시 commons-csv fallback)
+    @Value("${batch.in.fast-tokenizer.enabled:false}")
+    private boolean fastTokenizer;
+
+    // 따옴표 필드로 fallback 된 테이블 (이후 파일은 바로 commons-csv)
+    private final Set<String> quotedTables = ConcurrentHashMap.newKeySet();
+
+    // 처리 중인 파일 (동시 실행 job 간 중복 처리 방지)
+    private final Set<Path> inFlightFiles = ConcurrentHashMap.newKeySet();
+
+    // BATCH_OUT → BATCH_IN 이동 직렬화
+    private final ReentrantLock moveLock = new ReentrantLock();
+
+    // 다중 row VALUES 문장당 row 수 (1 = 단일 row 문장)
+    @Value("${batch.in.multi-row.values:1}")
+    private int multiRowValues;
 
-    public BatchInProcessor(DataSource dataSource) {
+    // 대용량 CSV/TXT 분할 병렬 적재 (구간 수, 적용 최소 파일 크기)
+    @Value("${batch.in.split.workers:1}")
+    private int splitWorkers;
+
+    @Value("${batch.in.split.min-bytes:536870912}")
+    private long splitMinBytes;
+
+    public record BatchResult(int total, int success, int fail, int skipped) {}
+
+    private enum FileOutcome { SUCCESS, FAIL, SKIPPED }
+
+    public record LoadResult(long rows, boolean hasRowError) {}
+
+    public BatchInProcessor(DataSource dataSource, BatchInBulkLoader bulkLoader, BatchInColumnBinder columnBinder,
+                            BatchInStagingManager stagingManager, BatchInPreCleaner preCleaner, BatchInFileManifest manifest,
+                            BatchInCheckpointStore checkpointStore, BatchInBatchSizer batchSizer, BatchInWriteMode writeMode,
+                            BatchInSessionProfile sessionProfile, BatchExecutionMode executionMode,
+                            BatchLeaseManager leaseManager) {
         this.dataSource = dataSource;
+        this.bulkLoader = bulkLoader;
+        this.columnBinder = columnBinder;
+        this.stagingManager = stagingManager;
+        this.preCleaner = preCleaner;
+        this.manifest = manifest;
+        this.checkpointStore = checkpointStore;
+        this.batchSizer = batchSizer;
+        this.writeMode = writeMode;
+        this.sessionProfile = sessionProfile;
+        this.executionMode = executionMode;
+        this.leaseManager = leaseManager;
     }
 
     // =================================================
@@ -64,6 +153,9 @@ public class BatchInProcessor {
     // =================================================
     private String resolveTableName(String fileName) {
 
+        // 압축 확장자 → 확장자 순서로 제거 (a_20250101.csv.gz → a_20250101)
+        fileName = BatchInCompressedInput.stripSuffix(fileName);
+
         // 확장자 제거
         String base = fileName.contains(".") ? fileName.substring(0, fileName.lastIndexOf(".")) : fileName;
 
@@ -93,205 +185,585 @@ public class BatchInProcessor {
     // 2) 단일 파일 처리
     // =================================================
     public void processFile(Path filePath) throws Exception {
+        processFile(filePath, new BatchInFileDigest(filePath, false));
+    }
+
+    private void processFile(Path filePath, BatchInFileDigest digest) throws Exception {
 
         String fileName = filePath.getFileName().toString();
-        String tableName = resolveTableName(fileName);
-
-        if (fileName.endsWith(".csv")) {
-            processCsv(filePath, tableName);
-        } else if (fileName.endsWith(".json")) {
-            processJson(filePath, tableName);
-        } else if (fileName.endsWith(".txt")) {
-            processTxt(filePath, tableName);
-        } else {
-            log.warn("[BatchIn] unsupported file skipped: {}", fileName);
+        String tableName = stagingManager.resolveTarget(resolveTableName(fileName));
+
+        boolean fast = fastTokenizer && !quotedTables.contains(BatchInStagingManager.logicalTable(tableName));
+
+        while (true) {
+            try {
+                dispatchFile(filePath, fileName, tableName, fast, digest);
+                return;
+            } catch (Exception e) {
+
+                // 적재분은 rollback 된 상태에서 아래 fallback 으로 파일 전체를 재처리
+
+                if (fast && BatchInDelimitedTokenizer.isQuoted(e)) {
+                    // 따옴표 필드가 있는 파일 → commons-csv (같은 테이블의 이후 파일은 처음부터 commons-csv)
+                    quotedTables.add(BatchInStagingManager.logicalTable(tableName));
+                    log.info("[BatchIn] quoted field detected, fallback to commons-csv: file={}", fileName);
+                    fast = false;
+                    continue;
+                }
+
+                if (BatchInWriteMode.isDuplicateKey(e) && writeMode.fallbackToReplace(tableName)) {
+                    // 추론 INSERT 중 중복 키 → REPLACE
+                    log.info("[BatchIn] duplicate key, reload with REPLACE: file={}", fileName);
+                    continue;
+                }
+
+                throw e;
+            }
         }
     }
 
-    // =================================================
-    // 3) JSON 처리
-    // =================================================
-    private void processJson(Path filePath, String tableName) throws Exception {
+    private void dispatchFile(Path filePath, String fileName, String tableName, boolean fast, BatchInFileDigest digest) throws Exception {
 
-        try (BufferedReader reader =
-                     Files.newBufferedReader(filePath, StandardCharsets.UTF_8)) {
+        // 압축 파일은 random access 가 불가하므로 checkpoint / 분할 적재 대상에서 제외
+        boolean compressed = BatchInCompressedInput.isCompressed(fileName);
+        String dataName = BatchInCompressedInput.stripSuffix(fileName);
 
-            Object data = mapper.readValue(reader, Object.class);
+        if (dataName.endsWith(".csv") || dataName.endsWith(".txt")) {
 
-            if (data instanceof List<?> list) {
-                for (Object o : list) {
-                    insertDynamic(tableName, (Map<String, Object>) o);
-                }
+            char delimiter = dataName.endsWith(".csv") ? ',' : '|';
+
+            if (compressed) {
+                processDelimited(filePath, tableName, delimiter, fast, digest);
+            } else if (checkpointStore.supports(tableName)) {
+                processCheckpointed(filePath, tableName, delimiter, digest);
+            } else if (shouldSplit(filePath)) {
+                processSplit(filePath, tableName, delimiter, fast);
             } else {
-                insertDynamic(tableName, (Map<String, Object>) data);
+                processDelimited(filePath, tableName, delimiter, fast, digest);
             }
+        } else if (dataName.endsWith(".json")) {
+            processJson(filePath, tableName, digest);
+        } else {
+            log.warn("[BatchIn] unsupported file skipped: {}", fileName);
         }
     }
 
     // =================================================
-    // 4) CSV 처리
+    // 3) JSON 처리 (streaming)
+    // - 전체 문서를 메모리에 올리지 않고 배열 원소를 하나씩 읽는다
     // =================================================
-    private void processCsv(Path filePath, String tableName) throws Exception {
+    private void processJson(Path filePath, String tableName, BatchInFileDigest digest) throws Exception {
 
         try (
-                BufferedReader reader =
-                        Files.newBufferedReader(filePath, StandardCharsets.UTF_8);
-                CSVParser parser =
-                        CSVFormat.DEFAULT
-                                .withFirstRecordAsHeader()
-                                .withIgnoreHeaderCase()
-                                .withTrim()
-                                .parse(reader);
+                BufferedReader reader = BatchInCompressedInput.openReader(filePath, digest);
+                JsonParser parser = mapper.createParser(reader);
                 Connection conn = dataSource.getConnection()
         ) {
-            batchInsert(parser, tableName, conn);
+            sessionProfile.withSession(conn, tableName, () -> jsonBatchInsert(parser, tableName, conn));
         }
     }
 
     // =================================================
-    // 5) TXT 처리 (| 구분자)
+    // 4) CSV(,) / TXT(|) 처리
+    // - fast = true 이면 BatchInDelimitedTokenizer, 아니면 commons-csv
     // =================================================
-    private void processTxt(Path filePath, String tableName) throws Exception {
+    private void processDelimited(Path filePath, String tableName, char delimiter, boolean fast, BatchInFileDigest digest) throws Exception {
+
+        if (fast) {
+            try (
+                    BatchInDelimitedTokenizer tokenizer =
+                            new BatchInDelimitedTokenizer(BatchInCompressedInput.openReader(filePath, digest), delimiter);
+                    Connection conn = dataSource.getConnection()
+            ) {
+                sessionProfile.withSession(conn, tableName, () -> batchInsert(tokenizer, tokenizer.readHeader(), tableName, conn));
+            }
+            return;
+        }
 
         try (
-                BufferedReader reader = Files.newBufferedReader(filePath, StandardCharsets.UTF_8);
-                CSVParser parser =
-                        CSVFormat.DEFAULT
-                                .withDelimiter('|')
-                                .withFirstRecordAsHeader()
-                                .withIgnoreHeaderCase()
-                                .withTrim()
-                                .parse(reader);
+                BufferedReader reader = BatchInCompressedInput.openReader(filePath, digest);
+                CSVParser parser = headerRecordFormat(delimiter).parse(reader);
                 Connection conn = dataSource.getConnection()
         ) {
-            batchInsert(parser, tableName, conn);
+            List<String> headers = parser.getHeaderNames().stream()
+                    .map(String::trim)
+                    .collect(Collectors.toList());
+
+            sessionProfile.withSession(conn, tableName, () -> batchInsert(BatchInRowSource.of(parser), headers, tableName, conn));
         }
     }
 
     // =================================================
     // 6) CSV/TXT 공통 batch insert
     // =================================================
-    private void batchInsert(CSVParser parser, String tableName, Connection conn) throws Exception {
+    private void batchInsert(BatchInRowSource source, List<String> headers, String tableName, Connection conn) throws Exception {
 
-        boolean hasRowError = false;
         conn.setAutoCommit(false);
 
-        List<String> headers = parser.getHeaderNames().stream()
-                .map(String::trim)
-                .collect(Collectors.toList());
+        LoadResult result;
 
-        String sql = "REPLACE INTO " + tableName +
-                " (" + String.join(", ", headers) + ") VALUES (" +
-                headers.stream().map(h -> "?").collect(Collectors.joining(", ")) + ")";
+        try {
+            result = loadRecords(source, headers, tableName, conn);
+        } catch (Exception e) {
+            conn.rollback();
+            throw e;
+        }
 
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+        // 여기서 정책 결정
+        if (result.hasRowError()) {
+            conn.rollback();   // ← DB 반영 안함
+            throw new RuntimeException( "[BatchIn] row error exists (column mismatch)");
+        }
+
+        conn.commit();          // ← row 에러 없을 때만 반영
 
-            int count = 0;
+        log.info( "[BatchIn] file insert completed: table={}, rows={}", tableName, result.rows());
+    }
 
-            for (CSVRecord record : parser) {
+    // 테이블별 적재 방식 선택 (LOAD DATA / JDBC batch)
+    private LoadResult loadRecords(BatchInRowSource source, List<String> headers, String tableName, Connection conn) throws Exception {
+
+        return bulkLoader.supports(tableName, conn)
+                ? bulkLoader.load(source, headers, tableName, conn)
+                : jdbcInsert(source, headers, tableName, conn);
+    }
 
-                if (record.size() != headers.size()) {
+    // =================================================
+    // 6-1) JDBC batch insert (기본 적재 방식)
+    // - batch 크기는 테이블별 adaptive 값 (BatchInBatchSizer)
+    // =================================================
+    private LoadResult jdbcInsert(BatchInRowSource source, List<String> headers, String tableName, Connection conn) throws Exception {
+
+        boolean hasRowError = false;
+
+        BatchInColumnBinder.ColumnSetter[] setters = columnBinder.compile(conn, tableName, headers);
+        BatchInBatchSizer.Tuning tuning = batchSizer.tuning(tableName);
+
+        if (pipelineEnabled) {
+            return pipelinedInsert(source, headers, tableName, setters, tuning, conn);
+        }
+
+        try (BatchInRowWriter writer = new BatchInRowWriter(conn, writeMode.resolve(tableName), tableName, headers, setters, tuning, multiRowValues)) {
+
+            String[] row = new String[headers.size()];
+            int size;
+
+            while ((size = source.next(row)) >= 0) {
+
+                if (size != headers.size()) {
                     log.error(
                             "[BatchIn] column mismatch: expected={}, actual={}, record={}",
                             headers.size(),
-                            record.size(),
-                            record
+                            size,
+                            source.describe()
                     );
                     hasRowError = true;
                     continue;
                 }
 
-                for (int i = 0; i < headers.size(); i++) {
-                    setPreparedValue(
-                            ps,
-                            i + 1,
-                            tableName,
-                            headers.get(i),
-                            record.get(i)
-                    );
-                }
+                writer.add(row);
+            }
+
+            writer.flush();
+            tuning.logSummary();
+
+            return new LoadResult(writer.rows(), hasRowError);
+        }
+    }
+
+    // =================================================
+    // 6-2) 파싱/쓰기 pipeline (batch.in.pipeline.enabled)
+    // - parser 스레드가 정제한 chunk 를 현재 스레드가 JDBC 로 기록
+    // - row 에러 / 파싱 에러 시 호출측에서 파일 전체 rollback
+    // =================================================
+    private LoadResult pipelinedInsert(BatchInRowSource source, List<String> headers, String tableName,
+                                       BatchInColumnBinder.ColumnSetter[] setters, BatchInBatchSizer.Tuning tuning,
+                                       Connection conn) throws Exception {
+
+        try (
+                BatchInRowWriter writer = new BatchInRowWriter(conn, writeMode.resolve(tableName), tableName, headers, setters, tuning, multiRowValues);
+                BatchInRecordPipeline pipeline =
+                        new BatchInRecordPipeline(source, headers.size(), BATCH_SIZE, pipelineQueueSize)
+        ) {
+            pipeline.start();
+
+            BatchInRecordPipeline.RowChunk chunk;
 
-                ps.addBatch();
+            while ((chunk = pipeline.take()) != null) {
 
-                if (++count % 1000 == 0) {
-                    ps.executeBatch();
+                for (int r = 0; r < chunk.size; r++) {
+                    writer.add(chunk.rows[r]);
                 }
+
+                pipeline.release(chunk);
             }
 
-            ps.executeBatch();
+            writer.flush();
+            tuning.logSummary();
+
+            return new LoadResult(writer.rows(), pipeline.hasRowError());
+        }
+    }
 
-            // 여기서 정책 결정
-            if (hasRowError) {
-                conn.rollback();   // ← DB 반영 안함
-                throw new RuntimeException( "[BatchIn] row error exists (column mismatch)");
+    // =================================================
+    // 6-3) 대용량 파일 분할 병렬 적재 (batch.in.split.*)
+    // - 레코드 경계 기준으로 분할한 구간을 구간별 커넥션으로 동시에 적재
+    // - 모든 구간이 성공한 뒤에만 일괄 commit, 하나라도 실패하면 전체 rollback
+    // - 구간 수만큼 커넥션을 끝까지 점유하므로 구간 커넥션마다 DB permit 1개
+    //   · 첫 구간은 파일(상위 작업) permit 으로 사용, 추가 구간은 남은 permit 만큼만 (대기하지 않음 → 교착 없음)
+    // =================================================
+    private boolean shouldSplit(Path filePath) throws Exception {
+        return splitWorkers > 1 && Files.size(filePath) >= splitMinBytes;
+    }
+
+    private void processSplit(Path filePath, String tableName, char delimiter, boolean fast) throws Exception {
+
+        // permit 을 기다리며 다른 permit 을 쥐고 있으면 병렬 파일 / job 끼리 교착되므로 즉시 얻을 수 있는 만큼만
+        int extraPermits = executionMode.tryAcquireDbPermits(splitWorkers - 1);
+
+        try (FileChannel ch = FileChannel.open(filePath, StandardOpenOption.READ)) {
+
+            BatchInFileSplitter.Plan plan = BatchInFileSplitter.plan(ch, 1 + extraPermits, delimiter);
+
+            List<String> headers = readHeaders(ch, plan.headerEnd(), delimiter);
+
+            List<BatchInFileSplitter.Split> splits = plan.splits();
+
+            log.info("[BatchIn] split ingest start: file={}, size={}, splits={}, requested={}",
+                    filePath.getFileName(), ch.size(), splits.size(), splitWorkers);
+
+            if (splits.isEmpty()) {
+                return;
             }
 
-            conn.commit();          // ← row 에러 없을 때만 반영
+            List<Connection> conns = Collections.synchronizedList(new ArrayList<>());
+
+            ExecutorService pool = executionMode.newExecutor("batch-in-split", splits.size());
 
-            log.info( "[BatchIn] file insert completed: table={}, rows={}", tableName, count);
+            try {
+                List<Future<LoadResult>> futures = new ArrayList<>();
+
+                for (BatchInFileSplitter.Split split : splits) {
+                    futures.add(pool.submit(() -> {
+
+                        Connection conn = dataSource.getConnection();
+                        conns.add(conn);
+                        conn.setAutoCommit(false);
+
+                        Reader reader = new InputStreamReader(BatchInFileSplitter.open(ch, split.start(), split.end()), StandardCharsets.UTF_8);
+
+                        if (fast) {
+                            try (BatchInDelimitedTokenizer tokenizer = new BatchInDelimitedTokenizer(reader, delimiter)) {
+                                return sessionProfile.withSession(conn, tableName, () -> loadRecords(tokenizer, headers, tableName, conn));
+                            }
+                        }
+
+                        try (
+                                reader;
+                                CSVParser parser = delimitedFormat(delimiter, headers).parse(reader)
+                        ) {
+                            return sessionProfile.withSession(conn, tableName, () -> loadRecords(BatchInRowSource.of(parser), headers, tableName, conn));
+                        }
+                    }));
+                }
+
+                long rows = 0;
+                boolean hasRowError = false;
+                Exception failure = null;
+
+                for (Future<LoadResult> future : futures) {
+                    try {
+                        LoadResult result = future.get();
+                        rows += result.rows();
+                        hasRowError |= result.hasRowError();
+                    } catch (ExecutionException e) {
+                        if (failure == null) {
+                            failure = e.getCause() instanceof Exception cause ? cause : e;
+                        }
+                    }
+                }
+
+                if (failure != null || hasRowError) {
+                    for (Connection conn : conns) {
+                        conn.rollback();
+                    }
+                    if (failure != null) {
+                        throw failure;
+                    }
+                    throw new RuntimeException("[BatchIn] row error exists (column mismatch)");
+                }
+
+                for (Connection conn : conns) {
+                    conn.commit();
+                }
+
+                log.info("[BatchIn] file insert completed: table={}, rows={}, splits={}", tableName, rows, splits.size());
+
+            } finally {
+                pool.shutdownNow();
+                for (Connection conn : conns) {
+                    try {
+                        conn.close();
+                    } catch (Exception e) {
+                        log.warn("[BatchIn] split connection close failed", e);
+                    }
+                }
+            }
+        } finally {
+            executionMode.releaseDbPermits(extraPermits);
         }
     }
 
-
     // =================================================
-    // 7) 컬럼 타입 판단 (테이블별 룰 포함)
+    // 6-4) checkpoint 적재 (batch.in.checkpoint.*)
+    // - N row 마다 데이터 + checkpoint(byte offset, row 수)를 같은 트랜잭션으로 commit
+    // - 같은 내용(hash)의 파일이 다시 들어오면 마지막 commit 위치부터 재개
+    // - 부분 반영이 허용되는(REPLACE / UPSERT 멱등) 테이블에만 사용
+    // - row 에러 시 마지막 checkpoint 이후분만 rollback 되고 파일은 ERROR 처리
     // =================================================
-    private void setPreparedValue(PreparedStatement ps, int idx, String tableName, String header, String raw ) throws Exception {
+    private void processCheckpointed(Path filePath, String tableName, char delimiter, BatchInFileDigest digest) throws Exception {
 
-        if (raw == null) {
-            ps.setObject(idx, null);
-            return;
-        }
+        String fileName = filePath.getFileName().toString();
+        String fileHash = digest.value();
+        BatchInCheckpoint checkpoint = checkpointStore.find(fileHash);
+
+        try (
+                FileChannel ch = FileChannel.open(filePath, StandardOpenOption.READ);
+                Connection conn = dataSource.getConnection()
+        ) {
+            sessionProfile.withSession(conn, tableName, () -> {
+                long headerEnd = BatchInFileSplitter.plan(ch, 1, delimiter).headerEnd();
+                List<String> headers = readHeaders(ch, headerEnd, delimiter);
 
-        String cleaned = raw.trim();
+                long startOffset = checkpoint != null ? checkpoint.getByteOffset() : headerEnd;
+                long rowNum = checkpoint != null ? checkpoint.getRowNum() : 0;
 
-        if ( cleaned.isEmpty() || cleaned.equalsIgnoreCase("none") || cleaned.equalsIgnoreCase("null") || cleaned.equalsIgnoreCase("nan") ) {
-            ps.setObject(idx, null);
-            return;
+                if (checkpoint != null) {
+                    log.info("[BatchIn] resume from checkpoint: file={}, offset={}, rows={}", fileName, startOffset, rowNum);
+                }
+
+                conn.setAutoCommit(false);
+
+                BatchInColumnBinder.ColumnSetter[] setters = columnBinder.compile(conn, tableName, headers);
+                BatchInBatchSizer.Tuning tuning = batchSizer.tuning(tableName);
+
+                try (
+                        Utf8PositionReader reader = new Utf8PositionReader(BatchInFileSplitter.open(ch, startOffset, ch.size()));
+                        CSVParser parser = delimitedFormat(delimiter, headers).parse(reader);
+                        BatchInRowWriter writer = new BatchInRowWriter(conn, writeMode.resolve(tableName), tableName, headers, setters, tuning, multiRowValues)
+                ) {
+                    String[] row = new String[headers.size()];
+                    int pending = 0;
+
+                    for (CSVRecord record : parser) {
+
+                        // 직전 chunk commit (다음 레코드 시작 위치 = checkpoint)
+                        if (pending >= checkpointStore.getIntervalRows()) {
+                            writer.flush();
+                            long offset = startOffset + reader.byteOffsetOf(record.getCharacterPosition());
+                            checkpointStore.save(conn, fileHash, tableName, filePath, offset, rowNum);
+                            conn.commit();
+                            pending = 0;
+                        }
+
+                        if (record.size() != headers.size()) {
+                            log.error(
+                                    "[BatchIn] column mismatch: expected={}, actual={}, record={}",
+                                    headers.size(),
+                                    record.size(),
+                                    record
+                            );
+                            throw new RuntimeException("[BatchIn] row error exists (column mismatch), committed rows=" + (rowNum - pending));
+                        }
+
+                        cleanRecord(record, row);
+                        writer.add(row);
+                        rowNum++;
+                        pending++;
+                    }
+
+                    writer.flush();
+                    checkpointStore.clear(conn, fileHash);
+                    conn.commit();
+
+                    tuning.logSummary();
+                    log.info("[BatchIn] file insert completed: table={}, rows={}", tableName, rowNum);
+
+                } catch (Exception e) {
+                    conn.rollback();
+                    clearCheckpoint(conn, fileHash, fileName);
+                    throw e;
+                }
+            });
         }
+    }
 
-        String col = header.toLowerCase();
-        String tbl = tableName.toLowerCase();
+    /**
+     * 실패한 파일의 checkpoint 삭제 (파일은 ERROR 로 이동, 재개 대상에 남기지 않음)
+     */
+    private void clearCheckpoint(Connection conn, String fileHash, String fileName) {
 
-        // kodex_etf_* 전용 base_date 처리
-        if (col.equals("base_date") && tbl.startsWith("kodex_etf")) {
-            ps.setString(idx, cleaned.replace(".", ""));
-            return;
+        try {
+            checkpointStore.clear(conn, fileHash);
+            conn.commit();
+        } catch (Exception e) {
+            log.warn("[BatchIn] checkpoint clear failed: file={}", fileName, e);
         }
+    }
 
-        // 코드 계열은 문자열 고정
-        if (col.equals("code") || col.equals("stock_code") || col.equals("etf_id") || col.equals("cik")) {
-            ps.setString(idx, cleaned);
-            return;
+    // =================================================
+    // 6-5) 분할/재개용 공통 (헤더 파싱, 포맷)
+    // =================================================
+    private List<String> readHeaders(FileChannel ch, long headerEnd, char delimiter) throws Exception {
+
+        try (
+                Reader reader = new InputStreamReader(BatchInFileSplitter.open(ch, 0, headerEnd), StandardCharsets.UTF_8);
+                CSVParser parser = headerRecordFormat(delimiter).parse(reader)
+        ) {
+            return parser.getHeaderNames().stream()
+                    .map(String::trim)
+                    .collect(Collectors.toList());
         }
+    }
 
-        try {
-            ps.setDouble(idx, Double.parseDouble(cleaned.replace(",", "")));
-        } catch (NumberFormatException e) {
-            ps.setString(idx, cleaned);
+    private CSVFormat delimitedFormat(char delimiter) {
+        return CSVFormat.DEFAULT.builder()
+                .setDelimiter(delimiter)
+                .setIgnoreHeaderCase(true)
+                .setTrim(true)
+                .build();
+    }
+
+    // 첫 레코드를 헤더로 사용
+    private CSVFormat headerRecordFormat(char delimiter) {
+        return delimitedFormat(delimiter).builder()
+                .setHeader()
+                .setSkipHeaderRecord(true)
+                .build();
+    }
+
+    // 헤더를 이미 읽은 구간 / 재개 위치 (첫 레코드부터 데이터)
+    private CSVFormat delimitedFormat(char delimiter, List<String> headers) {
+        return delimitedFormat(delimiter).builder()
+                .setHeader(headers.toArray(String[]::new))
+                .build();
+    }
+
+    // =================================================
+    // 7) 레코드 값 정제 (null 취급 문자열 → null)
+    // - 컬럼별 타입 바인딩은 BatchInColumnBinder setter 가 담당
+    // =================================================
+    private void cleanRecord(CSVRecord record, String[] row) {
+
+        for (int i = 0; i < row.length; i++) {
+            row[i] = BatchInValueCleaner.clean(record.get(i));
         }
     }
 
     // =================================================
-    // 8) JSON 단건 insert
+    // 8) JSON batch insert
+    // - 컬럼 구성(signature)별로 PreparedStatement 1개를 재사용
+    // - signature 가 바뀌면 직전 signature 의 대기 row 를 먼저 전송 (파일 순서 유지)
+    // - CSV와 동일하게 파일 단위 commit / rollback
     // =================================================
-    private void insertDynamic(String tableName, Map<String, Object> json) throws Exception {
+    private void jsonBatchInsert(JsonParser parser, String tableName, Connection conn) throws Exception {
 
-        List<String> columns = new ArrayList<>(json.keySet());
+        conn.setAutoCommit(false);
 
-        String sql = "REPLACE INTO " + tableName +
-                " (" + String.join(", ", columns) + ") VALUES (" +
-                columns.stream().map(c -> "?").collect(Collectors.joining(", ")) + ")";
+        Map<List<String>, JsonBatch> batches = new HashMap<>();
+        BatchInWriteMode.Mode mode = writeMode.resolve(tableName);
+        JsonBatch current = null;
+        int count = 0;
 
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+        try {
+            JsonToken token = parser.nextToken();
+
+            if (token == JsonToken.START_ARRAY) {
+                while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                    if (token != JsonToken.START_OBJECT) {
+                        throw new RuntimeException("[BatchIn] json array element is not an object: " + token);
+                    }
+                    current = addJsonRow(conn, mode, tableName, batches, current, mapper.readValue(parser, JSON_ROW_TYPE));
+                    count++;
+                }
+            } else if (token == JsonToken.START_OBJECT) {
+                current = addJsonRow(conn, mode, tableName, batches, current, mapper.readValue(parser, JSON_ROW_TYPE));
+                count++;
+            } else {
+                throw new RuntimeException("[BatchIn] unsupported json root: " + token);
+            }
 
-            int idx = 1;
-            for (String col : columns) {
-                ps.setObject(idx++, json.get(col));
+            if (current != null) {
+                current.flush();
             }
 
-            ps.executeUpdate();
+            conn.commit();
+
+            log.info("[BatchIn] file insert completed: table={}, rows={}, signatures={}",
+                    tableName, count, batches.size());
+
+        } catch (Exception e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            for (JsonBatch batch : batches.values()) {
+                batch.ps.close();
+            }
+        }
+    }
+
+    private JsonBatch addJsonRow(Connection conn, BatchInWriteMode.Mode mode, String tableName, Map<List<String>, JsonBatch> batches,
+                                 JsonBatch current, Map<String, Object> row) throws Exception {
+
+        List<String> columns = List.copyOf(row.keySet());
+
+        JsonBatch batch = batches.get(columns);
+
+        if (batch == null) {
+            String sql = BatchInWriteMode.statement(mode, tableName, columns,
+                    "(" + columns.stream().map(c -> "?").collect(Collectors.joining(", ")) + ")");
+
+            batch = new JsonBatch(conn.prepareStatement(sql));
+            batches.put(columns, batch);
+        }
+
+        // 다른 signature 의 대기 row 가 뒤 row 보다 늦게 반영되지 않도록 먼저 전송
+        if (current != null && current != batch) {
+            current.flush();
+        }
+
+        int idx = 1;
+        for (String col : columns) {
+            batch.ps.setObject(idx++, row.get(col));
+        }
+
+        batch.add();
+
+        return batch;
+    }
+
+    private static final class JsonBatch {
+
+        private final PreparedStatement ps;
+        private int pending;
+
+        private JsonBatch(PreparedStatement ps) {
+            this.ps = ps;
+        }
+
+        private void add() throws Exception {
+            ps.addBatch();
+            if (++pending >= BATCH_SIZE) {
+                ps.executeBatch();
+                pending = 0;
+            }
+        }
+
+        private void flush() throws Exception {
+            if (pending > 0) {
+                ps.executeBatch();
+                pending = 0;
+            }
         }
     }
 
@@ -303,65 +775,325 @@ public class BatchInProcessor {
         Path src = Paths.get(batchOutRoot, today);
         Path dest = Paths.get(batchInRoot, today);
 
+        // 동시 실행 job 간 직렬화 (virtual thread pinning 방지 위해 synchronized 대신 lock)
+        moveLock.lock();
         try {
             Files.createDirectories(dest);
 
+            // 이동 시작 시점의 폴더 marker 만 소비 (이동 후 새로 생긴 marker 는 다음 이동에서 사용)
+            Path folderMarker = src.resolve(READY_FOLDER_MARKER);
+            boolean folderReady = Files.exists(folderMarker);
+
             try (DirectoryStream<Path> stream = Files.newDirectoryStream(src)) {
                 for (Path file : stream) {
-                    if (Files.isRegularFile(file)) {
-                        Files.move(
-                                file,
-                                dest.resolve(file.getFileName()),
-                                StandardCopyOption.REPLACE_EXISTING
-                        );
+                    if (Files.isRegularFile(file) && !isReadyMarker(file) && isReady(file)) {
+                        try {
+                            Files.move(
+                                    file,
+                                    dest.resolve(file.getFileName()),
+                                    StandardCopyOption.REPLACE_EXISTING
+                            );
+                        } catch (NoSuchFileException e) {
+                            // 공유 폴더에서 다른 노드가 먼저 이동
+                            log.debug("[BatchIn] already moved by another node: {}", file.getFileName());
+                        }
+                        Files.deleteIfExists(file.resolveSibling(file.getFileName() + READY_SUFFIX));
                     }
                 }
             }
+
+            // 폴더 marker 가 가리키던 파일은 모두 이동 → marker 소비
+            if (folderReady && Files.deleteIfExists(folderMarker)) {
+                log.info("[BatchIn] folder ready marker consumed: {}", folderMarker);
+            }
         } catch (Exception e) {
             log.error("[BatchIn] folder move failed", e);
+        } finally {
+            moveLock.unlock();
         }
     }
 
+    // =================================================
+    // 9-1) 준비 완료 marker
+    // - <폴더>/_READY : 폴더 내 모든 파일 작성 완료
+    // - <파일명>.ready : 해당 파일 작성 완료
+    // - batch.in.ready-marker.required=true 이면 marker 없는 파일은 이동하지 않는다
+    // =================================================
+    public static final String READY_FOLDER_MARKER = "_READY";
+    public static final String READY_SUFFIX = ".ready";
+
+    public static boolean isReadyMarker(Path file) {
+        String name = file.getFileName().toString();
+        return name.equals(READY_FOLDER_MARKER) || name.endsWith(READY_SUFFIX);
+    }
+
+    private boolean isReady(Path file) {
+
+        if (!readyMarkerRequired) {
+            return true;
+        }
+
+        return Files.exists(file.resolveSibling(READY_FOLDER_MARKER))
+                || Files.exists(file.resolveSibling(file.getFileName() + READY_SUFFIX));
+    }
+
     public BatchResult executeBatch(String today, String pattern) throws Exception {
 
+        columnBinder.beginRun();
+
         // 1. BATCH_OUT → BATCH_IN (MOVE)
         moveTodayFolder(today);
 
-        List<Path> files = getFiles(today, pattern);
+        List<Path> files = claimFiles(getFiles(today, pattern), today);
+
+        try {
+            if (parallelWorkers <= 1 || files.size() <= 1) {
+                return executeSerial(files, today);
+            }
+
+            return executeParallel(files, today);
+        } finally {
+            releaseFiles(files, today);
+        }
+    }
+
+    // =================================================
+    // 9-2) 파일 점유
+    // - 동시 실행 job(DAG) 간 file_pattern 이 겹쳐도 한 파일은 한 job 만 처리
+    // - 다중 노드(batch.cluster.enabled)에서는 파일 lease 를 얻은 노드만 처리
+    //   (점유 후에도 파일이 남아 있는지 재확인 → 다른 노드가 방금 처리를 끝낸 파일 제외)
+    // =================================================
+    private List<Path> claimFiles(List<Path> candidates, String today) {
+
+        List<Path> files = new ArrayList<>();
+
+        for (Path file : candidates) {
+
+            if (!inFlightFiles.add(file)) {
+                log.info("[BatchIn] file in progress by another job, skipped: {}", file.getFileName());
+                continue;
+            }
+
+            String leaseKey = BatchLeaseManager.fileKey(today, file.getFileName().toString());
+
+            if (!leaseManager.tryAcquire(leaseKey)) {
+                inFlightFiles.remove(file);
+                continue;
+            }
+
+            if (!Files.isRegularFile(file)) {
+                leaseManager.release(leaseKey);
+                inFlightFiles.remove(file);
+                continue;
+            }
+
+            files.add(file);
+        }
+
+        return files;
+    }
+
+    private void releaseFiles(List<Path> files, String today) {
+
+        for (Path file : files) {
+            leaseManager.release(BatchLeaseManager.fileKey(today, file.getFileName().toString()));
+            inFlightFiles.remove(file);
+        }
+    }
+
+    // =================================================
+    // 10) 순차 처리 (기본 모드)
+    // =================================================
+    private BatchResult executeSerial(List<Path> files, String today) {
 
         int success = 0;
         int fail = 0;
+        int skipped = 0;
 
         for (Path batchInFile : files) {
+            switch (ingestWithPermit(batchInFile, today)) {
+                case SUCCESS -> success++;
+                case FAIL -> fail++;
+                case SKIPPED -> skipped++;
+            }
+        }
 
-            boolean ok = true;
+        return new BatchResult(files.size(), success, fail, skipped);
+    }
 
-            try {
-                // 2. DB 처리 (BATCH_IN 기준)
-                processFile(batchInFile);
+    /**
+     * 파일 1개 적재를 DB permit 안에서 실행 (순차 경로 / checkpoint 재개 공통)
+     */
+    private FileOutcome ingestWithPermit(Path batchInFile, String today) {
 
-                log.info("[BatchIn] NO_ERROR file={}", batchInFile.getFileName());
+        try {
+            return executionMode.withDbPermit(() -> ingestFile(batchInFile, today));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("[BatchIn] interrupted while waiting DB permit: file={}", batchInFile.getFileName());
+            return FileOutcome.FAIL;
+        } catch (Exception e) {
+            // ingestFile 은 예외를 결과로 변환하므로 도달하지 않음
+            log.error("[BatchIn] FILE_ERROR file={}", batchInFile.getFileName(), e);
+            return FileOutcome.FAIL;
+        }
+    }
 
-            } catch (Exception e) {
+    // =================================================
+    // 11) 병렬 처리 (batch.in.parallel.workers > 1)
+    // - 테이블 단위로 그룹핑하여 같은 테이블은 한 worker에서 순차 처리
+    // - 서로 다른 테이블은 worker 수만큼 동시 처리
+    // =================================================
+    private BatchResult executeParallel(List<Path> files, String today) throws Exception {
+
+        Map<String, List<Path>> filesByTable = new LinkedHashMap<>();
+        for (Path file : files) {
+            filesByTable
+                    .computeIfAbsent(resolveTableName(file.getFileName().toString()), k -> new ArrayList<>())
+                    .add(file);
+        }
+
+        int workers = Math.min(parallelWorkers, filesByTable.size());
+
+        log.info("[BatchIn] parallel ingest start: files={}, tables={}, workers={}, virtual={}",
+                files.size(), filesByTable.size(), workers, executionMode.isVirtual());
+
+        AtomicInteger success = new AtomicInteger();
+        AtomicInteger fail = new AtomicInteger();
+        AtomicInteger skipped = new AtomicInteger();
 
-                ok = false;
+        // virtual 모드: 테이블마다 virtual thread, 동시 적재 수는 DB permit 으로 제한
+        ExecutorService pool = executionMode.newExecutor("batch-in-worker", workers);
 
-                log.error( "[BatchIn] FILE_ERROR file={}", batchInFile.getFileName(), e);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+
+            for (List<Path> tableFiles : filesByTable.values()) {
+                futures.add(pool.submit(() -> executionMode.withDbPermit(() -> {
+                    for (Path batchInFile : tableFiles) {
+                        switch (ingestFile(batchInFile, today)) {
+                            case SUCCESS -> success.incrementAndGet();
+                            case FAIL -> fail.incrementAndGet();
+                            case SKIPPED -> skipped.incrementAndGet();
+                        }
+                    }
+                    return null;
+                })));
             }
 
-            // 3. 결과에 따라 BATCH_IN → ARCHIVE / ERROR (MOVE)
-            moveFileByResult(batchInFile, today, ok);
+            for (Future<?> future : futures) {
+                future.get();
+            }
 
-            if (ok) {
-                success++;
-            } else {
-                fail++;
+        } catch (InterruptedException e) {
+            pool.shutdownNow();
+            Thread.currentThread().interrupt();
+            throw e;
+        } finally {
+            pool.shutdown();
+        }
+
+        return new BatchResult(files.size(), success.get(), fail.get(), skipped.get());
+    }
+
+    // =================================================
+    // 12) 단일 파일 적재 + 결과 폴더 이동
+    // - manifest 상 동일 내용이 이미 적재된 파일은 적재 없이 ARCHIVE
+    // - pre-clean(truncate/staging) 된 테이블은 항상 다시 적재
+    // =================================================
+    private FileOutcome ingestFile(Path batchInFile, String today) {
+
+        String tableName = resolveTableName(batchInFile.getFileName().toString());
+        boolean useManifest = manifest.isEnabled() && !preCleaner.isPreCleanedToday(tableName);
+
+        // manifest 비교 / 기록, checkpoint 가 같은 hash 를 공유 (적재 stream 에서 함께 계산)
+        BatchInFileDigest digest = new BatchInFileDigest(batchInFile, useManifest);
+
+        if (useManifest && isUnchanged(tableName, batchInFile, digest)) {
+
+            log.info("[BatchIn] UNCHANGED_SKIP file={}", batchInFile.getFileName());
+
+            moveFileByResult(batchInFile, today, true);
+
+            return FileOutcome.SKIPPED;
+        }
+
+        boolean ok = true;
+
+        try {
+            // 2. DB 처리 (BATCH_IN 기준)
+            processFile(batchInFile, digest);
+
+            log.info("[BatchIn] NO_ERROR file={}", batchInFile.getFileName());
+
+        } catch (Exception e) {
+
+            ok = false;
+
+            log.error( "[BatchIn] FILE_ERROR file={}", batchInFile.getFileName(), e);
+        }
+
+        stagingManager.onFileResult(tableName, ok);
+
+        if (ok && useManifest) {
+            manifest.record(tableName, batchInFile, digest);
+        }
+
+        // 3. 결과에 따라 BATCH_IN → ARCHIVE / ERROR (MOVE)
+        moveFileByResult(batchInFile, today, ok);
+
+        return ok ? FileOutcome.SUCCESS : FileOutcome.FAIL;
+    }
+
+    // =================================================
+    // 13) 기동 시 미완료 checkpoint 파일 재개
+    // - checkpoint 에 저장된 경로의 파일 (적재 일자 폴더와 무관, 경로가 없는 이전 행은 오늘 BATCH_IN 폴더)
+    // - 파일이 남아있지 않은 checkpoint 는 삭제 (단일 노드)
+    // =================================================
+    public BatchResult resumeCheckpoints(String today) {
+
+        columnBinder.beginRun();
+
+        List<Path> files = new ArrayList<>();
+
+        for (BatchInCheckpoint checkpoint : checkpointStore.findOpen()) {
+
+            Path file = checkpoint.getFilePath() != null
+                    ? Paths.get(checkpoint.getFilePath())
+                    : Paths.get(batchInRoot, today, checkpoint.getFileName());
+
+            if (Files.isRegularFile(file)) {
+                files.add(file);
+            } else if (!leaseManager.isEnabled()) {
+                // 다중 노드에서는 다른 노드 로컬 경로일 수 있으므로 남겨둔다
+                checkpointStore.discard(checkpoint);
             }
         }
 
-        return new BatchResult(files.size(), success, fail);
+        if (files.isEmpty()) {
+            return new BatchResult(0, 0, 0, 0);
+        }
+
+        log.info("[BatchIn] resume checkpointed files: {}", files.size());
+
+        List<Path> claimed = claimFiles(files, today);
+
+        try {
+            return executeSerial(claimed, today);
+        } finally {
+            releaseFiles(claimed, today);
+        }
     }
 
+    private boolean isUnchanged(String tableName, Path batchInFile, BatchInFileDigest digest) {
+
+        try {
+            return manifest.isUnchanged(tableName, batchInFile, digest);
+        } catch (Exception e) {
+            log.warn("[BatchIn] manifest check failed, ingest anyway: file={}", batchInFile.getFileName(), e);
+            return false;
+        }
+    }
 
     private void moveFileByResult(Path src, String today, boolean success) {
 
@@ -388,7 +1120,4 @@ public class BatchInProcessor {
             log.error("[BatchIn] file move failed", e);
         }
     }
-
-
-
 }
@@ -0,0 +1,157 @@
+package com.stock.batch.executor;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.InterruptedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * CSV/TXT 파싱 stage ↔ JDBC write stage 사이의 bounded hand-off
+ * - parser 스레드가 레코드를 정제하여 재사용 row buffer(chunk)에 채운다
+ * - writer(호출 스레드)는 가득 찬 chunk 를 받아 바인딩/executeBatch 후 반환한다
+ * - chunk 풀 크기가 곧 backpressure (writer 가 느리면 parser 가 대기)
+ */
+@Slf4j
+class BatchInRecordPipeline implements AutoCloseable {
+
+    /**
+     * 정제된 row 묶음 (null = DB NULL)
+     */
+    static final class RowChunk {
+
+        final String[][] rows;
+        int size;
+
+        private RowChunk(int capacity, int width) {
+            this.rows = new String[capacity][width];
+        }
+    }
+
+    private static final RowChunk END = new RowChunk(0, 0);
+
+    private final BatchInRowSource source;
+    private final int width;
+    private final BlockingQueue<RowChunk> free;
+    private final BlockingQueue<RowChunk> full;
+    private final Thread parserThread;
+
+    private volatile boolean cancelled;
+    private volatile boolean hasRowError;
+    private volatile Throwable error;
+
+    BatchInRecordPipeline(BatchInRowSource source, int width, int chunkSize, int queueSize) {
+
+        this.source = source;
+        this.width = width;
+
+        // 채우는 중 1 + 쓰는 중 1 + 대기열 queueSize
+        int poolSize = queueSize + 2;
+
+        this.free = new ArrayBlockingQueue<>(poolSize);
+        this.full = new ArrayBlockingQueue<>(poolSize + 1);
+
+        for (int i = 0; i < poolSize; i++) {
+            free.add(new RowChunk(chunkSize, width));
+        }
+
+        this.parserThread = new Thread(this::parse, "batch-in-parser-" + Thread.currentThread().getName());
+        this.parserThread.setDaemon(true);
+    }
+
+    void start() {
+        parserThread.start();
+    }
+
+    /**
+     * 다음 chunk (모두 소진되면 null, 파싱 오류는 예외로 전달)
+     */
+    RowChunk take() throws InterruptedException {
+
+        RowChunk chunk = full.take();
+
+        if (chunk == END) {
+            if (error != null) {
+                throw new RuntimeException("[BatchIn] parse stage failed", error);
+            }
+            return null;
+        }
+
+        return chunk;
+    }
+
+    void release(RowChunk chunk) {
+        chunk.size = 0;
+        free.offer(chunk);
+    }
+
+    boolean hasRowError() {
+        return hasRowError;
+    }
+
+    private void parse() {
+
+        try {
+            RowChunk chunk = free.take();
+
+            while (!cancelled) {
+
+                // 정제 값을 chunk 의 다음 row 에 바로 채운다
+                int size = source.next(chunk.rows[chunk.size]);
+
+                if (size < 0) {
+                    break;
+                }
+
+                if (size != width) {
+                    log.error(
+                            "[BatchIn] column mismatch: expected={}, actual={}, record={}",
+                            width,
+                            size,
+                            source.describe()
+                    );
+                    hasRowError = true;
+                    continue;
+                }
+
+                if (++chunk.size == chunk.rows.length) {
+                    full.put(chunk);
+                    chunk = free.take();
+                }
+            }
+
+            if (chunk.size > 0) {
+                full.put(chunk);
+            }
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            error = e;
+        } catch (Throwable t) {
+            error = t;
+        } finally {
+            full.offer(END);
+        }
+    }
+
+    /**
+     * parser 스레드 정지 후 종료 대기
+     * - 대기 중 호출 스레드가 interrupt 되면 interrupt 상태를 유지한 채 InterruptedIOException 으로 전달
+     *   (parser 스레드는 cancelled + interrupt 로 이미 종료 중)
+     */
+    @Override
+    public void close() throws InterruptedIOException {
+
+        cancelled = true;
+        parserThread.interrupt();
+
+        try {
+            parserThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            InterruptedIOException ex = new InterruptedIOException("[BatchIn] interrupted while stopping parse stage");
+            ex.initCause(e);
+            throw ex;
+        }
+    }
+}
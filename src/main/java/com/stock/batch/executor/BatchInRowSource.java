@@ -0,0 +1,59 @@
+package com.stock.batch.executor;
+
+import com.stock.batch.util.BatchInValueCleaner;
+import org.apache.commons.csv.CSVRecord;
+
+import java.io.IOException;
+import java.util.Iterator;
+
+/**
+ * CSV/TXT 레코드 공급원 (commons-csv / BatchInDelimitedTokenizer 공통)
+ * - 호출측이 넘긴 row 배열에 정제된 값(null = DB NULL)을 채워 레코드당 배열 할당을 없앤다
+ */
+interface BatchInRowSource {
+
+    /**
+     * 다음 레코드를 row 에 채운다
+     *
+     * @return 레코드의 필드 수 (-1 = 끝). row.length 와 다르면 row 내용은 사용하지 않는다
+     */
+    int next(String[] row) throws IOException;
+
+    /**
+     * 직전 레코드 설명 (column mismatch 로그용)
+     */
+    String describe();
+
+    static BatchInRowSource of(Iterable<CSVRecord> records) {
+
+        Iterator<CSVRecord> it = records.iterator();
+
+        return new BatchInRowSource() {
+
+            private CSVRecord last;
+
+            @Override
+            public int next(String[] row) {
+
+                if (!it.hasNext()) {
+                    return -1;
+                }
+
+                last = it.next();
+
+                if (last.size() == row.length) {
+                    for (int i = 0; i < row.length; i++) {
+                        row[i] = BatchInValueCleaner.clean(last.get(i));
+                    }
+                }
+
+                return last.size();
+            }
+
+            @Override
+            public String describe() {
+                return String.valueOf(last);
+            }
+        };
+    }
+}
@@ -0,0 +1,210 @@
+package com.stock.batch.executor;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 정제된 row 를 JDBC batch 로 기록
+ * - batch 크기는 BatchInBatchSizer 의 테이블별 튜닝 값을 따른다
+ * - 쓰기 방식(REPLACE / INSERT / UPSERT)은 BatchInWriteMode 결정값을 따른다
+ * - rowsPerStatement > 1 이면 ... VALUES (...),(...) 다중 row 문장으로 묶는다
+ *   (남은 row 는 단일 row 문장으로 처리)
+ * - SQL 템플릿은 (mode, table, columns, rows) 단위로 캐시 (LRU, 최대 SQL_CACHE_SIZE 건)
+ * - commit / rollback 은 호출측 책임
+ */
+final class BatchInRowWriter implements AutoCloseable {
+
+    // JDBC prepared statement placeholder 상한
+    private static final int MAX_PLACEHOLDERS = 65535;
+
+    private static final int SQL_CACHE_SIZE = 256;
+
+    private static final ReentrantLock SQL_CACHE_LOCK = new ReentrantLock();
+
+    private static final Map<String, String> SQL_CACHE = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+            return size() > SQL_CACHE_SIZE;
+        }
+    };
+
+    private final BatchInColumnBinder.ColumnSetter[] setters;
+    private final BatchInBatchSizer.Tuning tuning;
+    private final int width;
+    private final int rowsPerStatement;
+
+    private final PreparedStatement single;
+    private final PreparedStatement multi;
+
+    // 다중 row 문장용 대기 row
+    private final String[][] buffer;
+    private int buffered;
+
+    // executeBatch 대기 row 수 / 바이트
+    private int pendingRows;
+    private long pendingBytes;
+
+    private long rows;
+
+    BatchInRowWriter(Connection conn, BatchInWriteMode.Mode mode, String tableName, List<String> headers,
+                     BatchInColumnBinder.ColumnSetter[] setters, BatchInBatchSizer.Tuning tuning,
+                     int rowsPerStatement) throws SQLException {
+
+        this.setters = setters;
+        this.tuning = tuning;
+        this.width = headers.size();
+        this.rowsPerStatement = Math.max(1, Math.min(rowsPerStatement, MAX_PLACEHOLDERS / Math.max(1, width)));
+
+        this.single = conn.prepareStatement(sql(mode, tableName, headers, 1));
+
+        if (this.rowsPerStatement > 1) {
+            this.multi = conn.prepareStatement(sql(mode, tableName, headers, this.rowsPerStatement));
+            this.buffer = new String[this.rowsPerStatement][width];
+        } else {
+            this.multi = null;
+            this.buffer = null;
+        }
+    }
+
+    static String sql(BatchInWriteMode.Mode mode, String tableName, List<String> headers, int rowCount) {
+
+        String key = mode + "|" + tableName + '|' + String.join(",", headers) + '|' + rowCount;
+
+        SQL_CACHE_LOCK.lock();
+        try {
+            return SQL_CACHE.computeIfAbsent(key, k -> {
+
+                String row = "(" + String.join(", ", Collections.nCopies(headers.size(), "?")) + ")";
+
+                return BatchInWriteMode.statement(mode, tableName, headers, String.join(", ", Collections.nCopies(rowCount, row)));
+            });
+        } finally {
+            SQL_CACHE_LOCK.unlock();
+        }
+    }
+
+    static int cachedStatements() {
+        SQL_CACHE_LOCK.lock();
+        try {
+            return SQL_CACHE.size();
+        } finally {
+            SQL_CACHE_LOCK.unlock();
+        }
+    }
+
+    /**
+     * 정제된 row 1건 추가 (null = DB NULL)
+     * - 다중 row 모드에서는 값을 내부 버퍼로 복사하므로 호출측 배열 재사용 가능
+     */
+    void add(String[] cleanedRow) throws SQLException {
+
+        pendingBytes += rowBytes(cleanedRow);
+        rows++;
+
+        if (multi == null) {
+            bind(single, 0, cleanedRow);
+            single.addBatch();
+        } else {
+            System.arraycopy(cleanedRow, 0, buffer[buffered++], 0, width);
+
+            if (buffered == rowsPerStatement) {
+                for (int r = 0; r < buffered; r++) {
+                    bind(multi, r * width, buffer[r]);
+                }
+                multi.addBatch();
+                buffered = 0;
+            }
+        }
+
+        if (++pendingRows - buffered >= tuning.batchRows()) {
+            executePending();
+        }
+    }
+
+    /**
+     * 대기 중인 row 모두 전송 (commit 직전 호출)
+     */
+    void flush() throws SQLException {
+
+        executePending();
+
+        // 다중 row 문장을 채우지 못한 나머지는 단일 row 문장으로 전송
+        if (buffered > 0) {
+            for (int r = 0; r < buffered; r++) {
+                bind(single, 0, buffer[r]);
+                single.addBatch();
+            }
+            single.executeBatch();
+            buffered = 0;
+            pendingRows = 0;
+        }
+    }
+
+    long rows() {
+        return rows;
+    }
+
+    private void executePending() throws SQLException {
+
+        // 다중 row 버퍼에 남은 row 는 아직 전송 대상이 아님
+        int sentRows = pendingRows - buffered;
+
+        if (sentRows == 0) {
+            return;
+        }
+
+        long start = System.nanoTime();
+
+        if (multi == null) {
+            single.executeBatch();
+        } else {
+            multi.executeBatch();
+        }
+
+        tuning.observe(sentRows, pendingBytes, System.nanoTime() - start);
+
+        pendingRows = buffered;
+        pendingBytes = 0;
+    }
+
+    private void bind(PreparedStatement ps, int base, String[] cleanedRow) throws SQLException {
+
+        for (int i = 0; i < width; i++) {
+            if (cleanedRow[i] == null) {
+                ps.setObject(base + i + 1, null);
+            } else {
+                setters[i].set(ps, base + i + 1, cleanedRow[i]);
+            }
+        }
+    }
+
+    private long rowBytes(String[] cleanedRow) {
+
+        long bytes = width;
+
+        for (String v : cleanedRow) {
+            if (v != null) {
+                bytes += v.length();
+            }
+        }
+
+        return bytes;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        try {
+            single.close();
+        } finally {
+            if (multi != null) {
+                multi.close();
+            }
+        }
+    }
+}
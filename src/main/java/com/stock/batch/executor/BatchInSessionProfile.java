@@ -0,0 +1,116 @@
+package com.stock.batch.executor;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.Callable;
+
+/**
+ * 대량 적재 세션 설정 (batch.in.bulk-session.enabled)
+ * - 오늘 pre-clean(truncate / staging) 된 테이블을 적재하는 커넥션에만 foreign_key_checks=0 적용
+ * - unique_checks 는 건드리지 않는다
+ *   (끄면 보조 UNIQUE 중복이 검사되지 않아 추론 INSERT 의 1062 → REPLACE fallback 이 동작하지 않음)
+ * - 적용 전 세션 값을 보관했다가 작업 종료 시 항상 복원 (커넥션 풀 반환 전)
+ * - 보조 인덱스 지연 재생성은 BatchInStagingManager(batch.in.staging.defer-indexes) 담당
+ */
+@Slf4j
+@Component
+public class BatchInSessionProfile {
+
+    private final BatchInPreCleaner preCleaner;
+
+    @Value("${batch.in.bulk-session.enabled:false}")
+    private boolean enabled;
+
+    public BatchInSessionProfile(BatchInPreCleaner preCleaner) {
+        this.preCleaner = preCleaner;
+    }
+
+    @FunctionalInterface
+    public interface SessionWork {
+        void run() throws Exception;
+    }
+
+    /**
+     * 대량 적재 세션 설정 아래에서 적재 작업 실행 (대상 테이블이 아니면 그대로 실행)
+     */
+    public <T> T withSession(Connection conn, String tableName, Callable<T> work) throws Exception {
+
+        Session session = apply(conn, tableName);
+        try {
+            return work.call();
+        } finally {
+            session.restore();
+        }
+    }
+
+    public void withSession(Connection conn, String tableName, SessionWork work) throws Exception {
+        withSession(conn, tableName, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * 적재 커넥션에 대량 적재 세션 설정 적용 (대상이 아니면 아무것도 하지 않는 Session 반환)
+     */
+    private Session apply(Connection conn, String tableName) throws SQLException {
+
+        if (!enabled || !preCleaner.isPreCleanedToday(BatchInStagingManager.logicalTable(tableName))) {
+            return Session.NONE;
+        }
+
+        try (Statement stmt = conn.createStatement()) {
+
+            int foreignKeyChecks;
+
+            try (ResultSet rs = stmt.executeQuery("SELECT @@SESSION.foreign_key_checks")) {
+                rs.next();
+                foreignKeyChecks = rs.getInt(1);
+            }
+
+            stmt.execute("SET SESSION foreign_key_checks = 0");
+
+            log.debug("[BatchIn] bulk session applied: table={}", tableName);
+
+            return new Session(conn, foreignKeyChecks);
+        }
+    }
+
+    private static final class Session {
+
+        private static final Session NONE = new Session(null, 1);
+
+        private final Connection conn;
+        private final int foreignKeyChecks;
+
+        private Session(Connection conn, int foreignKeyChecks) {
+            this.conn = conn;
+            this.foreignKeyChecks = foreignKeyChecks;
+        }
+
+        private void restore() {
+
+            if (conn == null) {
+                return;
+            }
+
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("SET SESSION foreign_key_checks = " + foreignKeyChecks);
+            } catch (SQLException e) {
+                // 복원 실패한 세션이 풀로 돌아가지 않도록 물리 커넥션 폐기
+                log.error("[BatchIn] bulk session restore failed, abort connection", e);
+                try {
+                    conn.abort(Runnable::run);
+                } catch (SQLException ex) {
+                    log.error("[BatchIn] connection abort failed", ex);
+                }
+            }
+        }
+    }
+}
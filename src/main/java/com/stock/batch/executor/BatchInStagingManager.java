@@ -0,0 +1,494 @@
+package com.stock.batch.executor;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 그룹 단위 staging 테이블 적재 (batch.in.staging.enabled)
+ * - pre-clean 시 TRUNCATE 대신 <table>__staging 을 CREATE TABLE ... LIKE 로 생성
+ * - 그룹 테이블 적재는 staging 으로 향하고, 조회는 기존 테이블을 계속 본다
+ * - 그룹의 모든 테이블이 1개 이상 파일 적재에 성공하고 실패 파일이 없으면
+ *   RENAME TABLE 한 문장으로 일괄 교체 (atomic swap)
+ * - 그룹 내 파일이 하나라도 실패하면 staging 폐기, 기존 테이블은 그대로 유지
+ * - batch.in.staging.defer-indexes=true 이면 staging 생성 직후 보조(non-unique) 인덱스를 제거하고
+ *   swap 직전 ALTER TABLE 한 문장으로 일괄 재생성 (MyISAM/Aria 는 DISABLE / ENABLE KEYS)
+ * - staging 을 쓰지 않는 TRUNCATE 재적재도 같은 설정으로 TRUNCATE 직후 보조 인덱스를 제거하고,
+ *   해당 테이블 적재가 끝난 뒤 실행 중인 job 이 없는 시점에 재생성 (날짜 변경 시 미적재여도 재생성)
+ * - 날짜가 바뀌었거나 publish-timeout-minutes 를 넘긴 미완료 그룹은 폐기 (형제 job 미적재로 영구 대기 방지)
+ * - 그룹 / 지연 인덱스 상태는 이 JVM 메모리에만 있으므로 batch.cluster.enabled 와 함께 사용할 수 없다 (기동 실패)
+ */
+@Slf4j
+@Component
+public class BatchInStagingManager {
+
+    public static final String STAGING_SUFFIX = "__staging";
+    private static final String OLD_SUFFIX = "__old";
+
+    private final DataSource dataSource;
+    private final BatchExecutionMode executionMode;
+
+    @Value("${batch.in.staging.enabled:false}")
+    private boolean enabled;
+
+    @Value("${batch.in.staging.defer-indexes:false}")
+    private boolean deferIndexes;
+
+    // 미완료 그룹 폐기 기준 (그룹 시작 후 경과 분, 0 이면 날짜 변경 시에만 폐기)
+    @Value("${batch.in.staging.publish-timeout-minutes:360}")
+    private long publishTimeoutMinutes;
+
+    @Value("${batch.cluster.enabled:false}")
+    private boolean clusterEnabled;
+
+    private static final Pattern SECONDARY_KEY = Pattern.compile("^\\s*(?:FULLTEXT |SPATIAL )?KEY `([^`]+)`.*?,?$");
+
+    // 진행 중 그룹 (groupName → 그룹)
+    private final Map<String, StagingGroup> groups = new ConcurrentHashMap<>();
+
+    // 진행 중 테이블 (table → 그룹)
+    private final Map<String, StagingGroup> groupByTable = new ConcurrentHashMap<>();
+
+    // TRUNCATE 재적재 중 보조 인덱스를 제거한 원본 테이블 (table → ALTER TABLE 절)
+    private final Map<String, String> liveDeferred = new ConcurrentHashMap<>();
+
+    // liveDeferred 중 적재 결과가 기록된 테이블
+    private final Set<String> liveLoaded = ConcurrentHashMap.newKeySet();
+
+    // 지연 시작 시각 (날짜 변경 판단)
+    private LocalDateTime liveDeferredAt;
+
+    // 실행 중 job 수 (enterJob / afterJob)
+    private int runningJobs;
+
+    // 그룹 생성 / swap 직렬화 (DDL 실행 구간이므로 virtual thread pinning 없는 lock 사용)
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private static final class StagingGroup {
+
+        private final String name;
+        private final List<String> tables;
+        private final Set<String> loaded = ConcurrentHashMap.newKeySet();
+        private final LocalDateTime startedAt;
+        private volatile boolean failed;
+
+        // 지연 재생성 대상 (table → ALTER TABLE 절)
+        private final Map<String, String> deferred = new ConcurrentHashMap<>();
+
+        private StagingGroup(String name, List<String> tables, LocalDateTime startedAt) {
+            this.name = name;
+            this.tables = tables;
+            this.startedAt = startedAt;
+        }
+    }
+
+    public BatchInStagingManager(DataSource dataSource, BatchExecutionMode executionMode) {
+        this.dataSource = dataSource;
+        this.executionMode = executionMode;
+    }
+
+    @PostConstruct
+    public void init() {
+
+        // 다른 노드가 같은 그룹 형제 job 을 실행하면 staging 이 아닌 원본 테이블에 적재되고 swap 시 유실된다
+        if (enabled && clusterEnabled) {
+            throw new IllegalStateException(
+                    "[BatchInStaging] batch.in.staging.enabled=true is not supported with batch.cluster.enabled=true"
+                            + " (staging groups are tracked in this JVM only)");
+        }
+
+        // 다른 노드가 적재한 테이블은 이 노드가 재생성 시점을 알 수 없다
+        if (deferIndexes && clusterEnabled) {
+            throw new IllegalStateException(
+                    "[BatchInStaging] batch.in.staging.defer-indexes=true is not supported with batch.cluster.enabled=true"
+                            + " (deferred indexes are tracked in this JVM only)");
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * staging 테이블명 → 원본 테이블명
+     */
+    public static String logicalTable(String tableName) {
+        return tableName.endsWith(STAGING_SUFFIX)
+                ? tableName.substring(0, tableName.length() - STAGING_SUFFIX.length())
+                : tableName;
+    }
+
+    /**
+     * 그룹 staging 시작 (대표 job pre-clean 시점)
+     */
+    public void begin(String groupName, String... tables) {
+
+        lock.lock();
+        try {
+            beginGroup(groupName, tables);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void beginGroup(String groupName, String... tables) {
+
+        StagingGroup previous = groups.remove(groupName);
+        if (previous != null) {
+            log.warn("[BatchInStaging] unpublished staging discarded: group={}, loaded={}", groupName, previous.loaded);
+            previous.tables.forEach(groupByTable::remove);
+        }
+
+        StagingGroup group = new StagingGroup(groupName, List.of(tables), LocalDateTime.now());
+
+        execute(conn -> {
+            try (Statement stmt = conn.createStatement()) {
+                for (String table : tables) {
+                    log.info("[BatchInStaging] CREATE {} LIKE {}", table + STAGING_SUFFIX, table);
+                    stmt.execute("DROP TABLE IF EXISTS " + table + STAGING_SUFFIX + ", " + table + OLD_SUFFIX);
+                    stmt.execute("CREATE TABLE " + table + STAGING_SUFFIX + " LIKE " + table);
+
+                    if (deferIndexes) {
+                        String rebuild = deferSecondaryIndexes(stmt, table, table + STAGING_SUFFIX);
+                        if (rebuild != null) {
+                            group.deferred.put(table, rebuild);
+                        }
+                    }
+                }
+            }
+        }, "begin failed: group=" + groupName);
+
+        groups.put(groupName, group);
+        for (String table : tables) {
+            groupByTable.put(table, group);
+        }
+    }
+
+    /**
+     * TRUNCATE 직후 원본 테이블 보조 인덱스 제거 (defer-indexes 사용 시)
+     * - 이미 제거된 테이블(당일 재실행)은 처음 보관한 재생성 절을 유지
+     */
+    public void deferLiveIndexes(String... tables) {
+
+        if (!deferIndexes) {
+            return;
+        }
+
+        lock.lock();
+        try {
+            execute(conn -> {
+                try (Statement stmt = conn.createStatement()) {
+                    for (String table : tables) {
+                        liveLoaded.remove(table);
+                        if (liveDeferred.containsKey(table)) {
+                            continue;
+                        }
+                        String rebuild = deferSecondaryIndexes(stmt, table, table);
+                        if (rebuild != null) {
+                            liveDeferred.put(table, rebuild);
+                        }
+                    }
+                }
+            }, "defer indexes failed: tables=" + List.of(tables));
+
+            if (liveDeferredAt == null && !liveDeferred.isEmpty()) {
+                liveDeferredAt = LocalDateTime.now();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 적재 대상 테이블 (staging 진행 중이면 staging 테이블)
+     */
+    public String resolveTarget(String tableName) {
+        return groupByTable.containsKey(tableName) ? tableName + STAGING_SUFFIX : tableName;
+    }
+
+    /**
+     * 파일 단위 적재 결과 기록
+     */
+    public void onFileResult(String tableName, boolean success) {
+
+        // 성공 / 실패 모두 재생성 대상 (실패해도 인덱스 없는 테이블을 남기지 않는다)
+        if (liveDeferred.containsKey(tableName)) {
+            liveLoaded.add(tableName);
+        }
+
+        StagingGroup group = groupByTable.get(tableName);
+
+        if (group == null) {
+            return;
+        }
+
+        if (success) {
+            group.loaded.add(tableName);
+        } else {
+            group.failed = true;
+        }
+    }
+
+    /**
+     * job 시작 (afterJob 과 쌍으로 호출)
+     */
+    public void enterJob() {
+
+        lock.lock();
+        try {
+            runningJobs++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * job 종료 후 그룹 상태 정리
+     * - 실패 그룹: staging 폐기
+     * - 모든 테이블 적재 완료 그룹: swap 후 교체 전 테이블 삭제
+     * - 그 외: 다음 job(형제 job) 대기
+     * - 동시 실행 중인 job 이 남아 있으면 판단을 마지막 job 종료 시점으로 미룬다
+     *   (적재 중인 staging 을 먼저 swap 하지 않도록)
+     */
+    public void afterJob() {
+
+        lock.lock();
+        try {
+            settleGroups();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 날짜가 바뀌었거나 제한 시간을 넘긴 미완료 그룹 폐기 (자정 유지보수)
+     * - 실행 중인 job 이 있으면 마지막 job 종료 시점(afterJob)으로 미룬다
+     */
+    public void abortExpired() {
+        abortExpired(LocalDateTime.now());
+    }
+
+    void abortExpired(LocalDateTime now) {
+
+        lock.lock();
+        try {
+            if (runningJobs > 0) {
+                return;
+            }
+
+            for (StagingGroup group : new ArrayList<>(groups.values())) {
+                if (isExpired(group, now)) {
+                    log.warn("[BatchInStaging] expired: group={}, startedAt={}, loaded={}/{}",
+                            group.name, group.startedAt, group.loaded.size(), group.tables.size());
+                    abort(group);
+                }
+            }
+
+            // 날짜가 바뀌면 적재되지 않은 테이블도 인덱스 복구
+            if (liveDeferredAt != null && !liveDeferredAt.toLocalDate().equals(now.toLocalDate())) {
+                rebuildLiveIndexes(Set.copyOf(liveDeferred.keySet()));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean isExpired(StagingGroup group, LocalDateTime now) {
+
+        if (!group.startedAt.toLocalDate().equals(now.toLocalDate())) {
+            return true;
+        }
+
+        return publishTimeoutMinutes > 0 && !group.startedAt.plusMinutes(publishTimeoutMinutes).isAfter(now);
+    }
+
+    private void settleGroups() {
+
+        runningJobs = Math.max(0, runningJobs - 1);
+
+        if (runningJobs > 0) {
+            if (!groups.isEmpty()) {
+                log.info("[BatchInStaging] deferred until running jobs finish: running={}", runningJobs);
+            }
+            return;
+        }
+
+        for (StagingGroup group : new ArrayList<>(groups.values())) {
+
+            if (group.failed) {
+                abort(group);
+            } else if (group.loaded.containsAll(group.tables)) {
+                publish(group);
+            } else if (isExpired(group, LocalDateTime.now())) {
+                log.warn("[BatchInStaging] expired: group={}, startedAt={}, loaded={}/{}",
+                        group.name, group.startedAt, group.loaded.size(), group.tables.size());
+                abort(group);
+            } else {
+                log.info("[BatchInStaging] waiting: group={}, loaded={}/{}", group.name, group.loaded.size(), group.tables.size());
+            }
+        }
+
+        if (!liveLoaded.isEmpty()) {
+            rebuildLiveIndexes(Set.copyOf(liveLoaded));
+        }
+    }
+
+    private void rebuildLiveIndexes(Set<String> tables) {
+
+        try {
+            execute(conn -> {
+                try (Statement stmt = conn.createStatement()) {
+                    for (String table : tables) {
+                        String rebuild = liveDeferred.get(table);
+                        if (rebuild == null) {
+                            continue;
+                        }
+                        long start = System.currentTimeMillis();
+                        stmt.execute("ALTER TABLE " + table + " " + rebuild);
+                        liveDeferred.remove(table);
+                        log.info("[BatchInStaging] indexes rebuilt: table={}, elapsedMs={}", table, System.currentTimeMillis() - start);
+                    }
+                }
+            }, "index rebuild failed: tables=" + tables);
+        } finally {
+            liveLoaded.removeAll(tables);
+            if (liveDeferred.isEmpty()) {
+                liveDeferredAt = null;
+            }
+        }
+    }
+
+    private void publish(StagingGroup group) {
+
+        List<String> renames = new ArrayList<>();
+        for (String table : group.tables) {
+            renames.add(table + " TO " + table + OLD_SUFFIX);
+            renames.add(table + STAGING_SUFFIX + " TO " + table);
+        }
+
+        try {
+            execute(conn -> {
+                try (Statement stmt = conn.createStatement()) {
+
+                    // 보조 인덱스 일괄 재생성 (적재 완료 후 1회)
+                    for (Map.Entry<String, String> entry : group.deferred.entrySet()) {
+                        long start = System.currentTimeMillis();
+                        stmt.execute("ALTER TABLE " + entry.getKey() + STAGING_SUFFIX + " " + entry.getValue());
+                        log.info("[BatchInStaging] indexes rebuilt: table={}, elapsedMs={}", entry.getKey(), System.currentTimeMillis() - start);
+                    }
+
+                    stmt.execute("RENAME TABLE " + String.join(", ", renames));
+                    for (String table : group.tables) {
+                        stmt.execute("DROP TABLE IF EXISTS " + table + OLD_SUFFIX);
+                    }
+                }
+            }, "publish failed: group=" + group.name);
+
+            log.info("[BatchInStaging] PUBLISHED group={}, tables={}", group.name, group.tables);
+
+        } finally {
+            release(group);
+        }
+    }
+
+    private void abort(StagingGroup group) {
+
+        try {
+            execute(conn -> {
+                try (Statement stmt = conn.createStatement()) {
+                    for (String table : group.tables) {
+                        stmt.execute("DROP TABLE IF EXISTS " + table + STAGING_SUFFIX);
+                    }
+                }
+            }, "abort failed: group=" + group.name);
+
+            log.warn("[BatchInStaging] ABORTED group={} (live tables kept)", group.name);
+
+        } finally {
+            release(group);
+        }
+    }
+
+    /**
+     * target 테이블의 보조 인덱스 제거 후 재생성 절 반환 (제거할 인덱스가 없으면 null)
+     * - 원본 SHOW CREATE TABLE 의 KEY / FULLTEXT KEY / SPATIAL KEY 정의를 그대로 재사용
+     * - PRIMARY / UNIQUE 는 유지
+     */
+    private String deferSecondaryIndexes(Statement stmt, String table, String target) throws Exception {
+
+        String ddl;
+        try (ResultSet rs = stmt.executeQuery("SHOW CREATE TABLE " + table)) {
+            rs.next();
+            ddl = rs.getString(2);
+        }
+
+        if (ddl.contains("ENGINE=MyISAM") || ddl.contains("ENGINE=Aria")) {
+            stmt.execute("ALTER TABLE " + target + " DISABLE KEYS");
+            return "ENABLE KEYS";
+        }
+
+        List<String> drops = new ArrayList<>();
+        List<String> adds = new ArrayList<>();
+
+        for (String line : ddl.split("\n")) {
+            Matcher m = SECONDARY_KEY.matcher(line);
+            if (m.matches()) {
+                String definition = line.trim();
+                if (definition.endsWith(",")) {
+                    definition = definition.substring(0, definition.length() - 1);
+                }
+                drops.add("DROP INDEX `" + m.group(1) + "`");
+                adds.add("ADD " + definition);
+            }
+        }
+
+        if (drops.isEmpty()) {
+            return null;
+        }
+
+        stmt.execute("ALTER TABLE " + target + " " + String.join(", ", drops));
+
+        log.info("[BatchInStaging] secondary indexes deferred: table={}, indexes={}", target, drops.size());
+
+        return String.join(", ", adds);
+    }
+
+    private void release(StagingGroup group) {
+        groups.remove(group.name);
+        group.tables.forEach(groupByTable::remove);
+    }
+
+    @FunctionalInterface
+    private interface ConnectionWork {
+        void run(Connection conn) throws Exception;
+    }
+
+    private void execute(ConnectionWork work, String message) {
+
+        try {
+            executionMode.withDbPermit(() -> {
+                try (Connection conn = dataSource.getConnection()) {
+                    work.run(conn);
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            throw new RuntimeException("[BatchInStaging] " + message, e);
+        }
+    }
+}
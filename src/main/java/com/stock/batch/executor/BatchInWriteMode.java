@@ -0,0 +1,121 @@
+package com.stock.batch.executor;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * 테이블별 쓰기 방식 (REPLACE / INSERT / ON DUPLICATE KEY UPDATE)
+ * - batch.in.write.insert-tables / upsert-tables 에 등록된 테이블은 해당 방식 고정
+ * - batch.in.write.infer=true 이면 오늘 pre-clean(truncate / staging) 된 테이블은 INSERT 로 추론
+ *   (추론 INSERT 중 중복 키가 나오면 해당 파일은 rollback 후 REPLACE 로 재적재, 당일 해당 테이블은 REPLACE 유지)
+ * - 그 외는 기존과 같은 REPLACE
+ */
+@Slf4j
+@Component
+public class BatchInWriteMode {
+
+    public enum Mode { REPLACE, INSERT, UPSERT }
+
+    // MariaDB ER_DUP_ENTRY
+    private static final int DUPLICATE_KEY = 1062;
+
+    private final BatchInPreCleaner preCleaner;
+
+    @Value("${batch.in.write.insert-tables:}")
+    private Set<String> insertTables;
+
+    @Value("${batch.in.write.upsert-tables:}")
+    private Set<String> upsertTables;
+
+    @Value("${batch.in.write.infer:false}")
+    private boolean infer;
+
+    // 추론 INSERT 에서 중복 키로 REPLACE 전환된 테이블 (당일 유지)
+    private final Map<String, LocalDate> replaceFallback = new ConcurrentHashMap<>();
+
+    public BatchInWriteMode(BatchInPreCleaner preCleaner) {
+        this.preCleaner = preCleaner;
+    }
+
+    public Mode resolve(String tableName) {
+
+        String table = BatchInStagingManager.logicalTable(tableName);
+
+        if (insertTables.contains(table)) {
+            return Mode.INSERT;
+        }
+
+        if (upsertTables.contains(table)) {
+            return Mode.UPSERT;
+        }
+
+        return isInferredInsert(table) ? Mode.INSERT : Mode.REPLACE;
+    }
+
+    /**
+     * 추론 INSERT 테이블을 당일 REPLACE 로 전환
+     *
+     * @return 전환 여부 (명시 설정 / 이미 REPLACE 인 테이블은 false → 호출측에서 그대로 실패 처리)
+     */
+    public boolean fallbackToReplace(String tableName) {
+
+        String table = BatchInStagingManager.logicalTable(tableName);
+
+        if (insertTables.contains(table) || upsertTables.contains(table) || !isInferredInsert(table)) {
+            return false;
+        }
+
+        replaceFallback.put(table, LocalDate.now());
+        log.warn("[BatchIn] duplicate key on inferred INSERT, switch to REPLACE for today: table={}", table);
+
+        return true;
+    }
+
+    private boolean isInferredInsert(String table) {
+        return infer
+                && preCleaner.isPreCleanedToday(table)
+                && !LocalDate.now().equals(replaceFallback.get(table));
+    }
+
+    /**
+     * 쓰기 SQL (values = "(?, ?), (?, ?)" 형태의 VALUES 절)
+     */
+    public static String statement(Mode mode, String tableName, List<String> columns, String values) {
+
+        String insert = " (" + String.join(", ", columns) + ") VALUES " + values;
+
+        return switch (mode) {
+            case REPLACE -> "REPLACE INTO " + tableName + insert;
+            case INSERT -> "INSERT INTO " + tableName + insert;
+            case UPSERT -> "INSERT INTO " + tableName + insert + " ON DUPLICATE KEY UPDATE " +
+                    columns.stream().map(c -> c + " = VALUES(" + c + ")").collect(Collectors.joining(", "));
+        };
+    }
+
+    /**
+     * 예외 원인 체인에 중복 키 오류 포함 여부 (BatchUpdateException 등 감싼 경우 포함)
+     */
+    public static boolean isDuplicateKey(Throwable e) {
+
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof SQLException sql && sql.getErrorCode() == DUPLICATE_KEY) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    static SQLException duplicateKey(String message) {
+        return new SQLException(message, "23000", DUPLICATE_KEY);
+    }
+}
@@ -28,8 +28,30 @@ public class PythonBatchJob {
     @Value("${app.env}")
     private String appEnv;
 
+    private final BatchExecutionMode executionMode;
+
+    public PythonBatchJob(BatchExecutionMode executionMode) {
+        this.executionMode = executionMode;
+    }
+
+    /**
+     * Python 스크립트 실행 (batch.python.slots 만큼만 동시 실행, 초과 호출은 slot 대기)
+     */
     public PythonJobResult runPythonScript(String scriptPath) {
 
+        try {
+            return executionMode.withPythonSlot(() -> execute(scriptPath));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new PythonJobResult("FAIL", 0, 0, "INTERRUPTED", null);
+        } catch (Exception e) {
+            log.error("Python batch failed", e);
+            return new PythonJobResult("FAIL", 0, 0, e.getMessage(), null);
+        }
+    }
+
+    private PythonJobResult execute(String scriptPath) {
+
         try {
             log.info("Python batch start: {}", scriptPath);
 
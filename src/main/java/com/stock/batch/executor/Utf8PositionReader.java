@@ -0,0 +1,141 @@
+package com.stock.batch.executor;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+
+/**
+ * 문자 위치 → 바이트 위치 추적이 가능한 UTF-8 Reader
+ * - CSVRecord.getCharacterPosition() 을 파일 바이트 offset 으로 바꾸기 위해 사용
+ * - 최근 WINDOW 문자만큼의 (문자 → 바이트) 매핑을 ring buffer 로 유지
+ *   (CSVParser 의 read-ahead 버퍼보다 충분히 크게 잡는다)
+ */
+final class Utf8PositionReader extends Reader {
+
+    private static final int WINDOW = 1 << 16;
+    private static final int MASK = WINDOW - 1;
+
+    private final InputStream in;
+    private final byte[] buf = new byte[64 * 1024];
+    private final long[] byteAt = new long[WINDOW];
+
+    private int bufPos;
+    private int bufLen;
+
+    // 지금까지 읽은 바이트 / 문자 수
+    private long bytePos;
+    private long charPos;
+
+    // surrogate pair 두 번째 문자 대기분
+    private int pendingLow = -1;
+
+    Utf8PositionReader(InputStream in) {
+        this.in = in;
+    }
+
+    /**
+     * charPosition 번째 문자가 시작되는 바이트 offset (스트림 시작 기준)
+     */
+    long byteOffsetOf(long charPosition) {
+
+        if (charPosition == charPos) {
+            return bytePos;
+        }
+
+        if (charPosition > charPos || charPos - charPosition > WINDOW) {
+            throw new IllegalStateException("character position out of window: " + charPosition);
+        }
+
+        return byteAt[(int) (charPosition & MASK)];
+    }
+
+    @Override
+    public int read(char[] cbuf, int off, int len) throws IOException {
+
+        int n = 0;
+
+        while (n < len) {
+
+            if (pendingLow >= 0) {
+                byteAt[(int) (charPos & MASK)] = bytePos;
+                cbuf[off + n++] = (char) pendingLow;
+                charPos++;
+                pendingLow = -1;
+                continue;
+            }
+
+            int b0 = nextByte(n > 0);
+            if (b0 < 0) {
+                break;
+            }
+
+            long start = bytePos - 1;
+            int cp;
+
+            if (b0 < 0x80) {
+                cp = b0;
+            } else if ((b0 & 0xE0) == 0xC0) {
+                cp = ((b0 & 0x1F) << 6) | cont();
+            } else if ((b0 & 0xF0) == 0xE0) {
+                cp = ((b0 & 0x0F) << 12) | (cont() << 6) | cont();
+            } else if ((b0 & 0xF8) == 0xF0) {
+                cp = ((b0 & 0x07) << 18) | (cont() << 12) | (cont() << 6) | cont();
+            } else {
+                cp = 0xFFFD;
+            }
+
+            byteAt[(int) (charPos & MASK)] = start;
+            charPos++;
+
+            if (cp >= 0x10000) {
+                cbuf[off + n++] = Character.highSurrogate(cp);
+                pendingLow = Character.lowSurrogate(cp);
+            } else {
+                cbuf[off + n++] = (char) cp;
+            }
+        }
+
+        return n == 0 && len > 0 ? -1 : n;
+    }
+
+    /**
+     * @param nonBlocking 이미 읽은 문자가 있으면 버퍼가 빌 때 추가로 대기하지 않는다
+     */
+    private int nextByte(boolean nonBlocking) throws IOException {
+
+        if (bufPos >= bufLen) {
+            if (nonBlocking) {
+                return -1;
+            }
+            bufLen = in.read(buf, 0, buf.length);
+            bufPos = 0;
+            if (bufLen <= 0) {
+                bufLen = 0;
+                return -1;
+            }
+        }
+
+        bytePos++;
+        return buf[bufPos++] & 0xff;
+    }
+
+    private int cont() throws IOException {
+
+        if (bufPos >= bufLen) {
+            bufLen = in.read(buf, 0, buf.length);
+            bufPos = 0;
+            if (bufLen <= 0) {
+                bufLen = 0;
+                return 0;
+            }
+        }
+
+        bytePos++;
+        return buf[bufPos++] & 0x3F;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
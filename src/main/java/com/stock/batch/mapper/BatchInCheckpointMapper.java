@@ -0,0 +1,25 @@
+package com.stock.batch.mapper;
+
+import com.stock.batch.domain.BatchInCheckpoint;
+import org.apache.ibatis.annotations.Mapper;
+
+import java.util.List;
+
+@Mapper
+public interface BatchInCheckpointMapper {
+
+    /**
+     * 파일 내용(hash) 기준 진행 중 checkpoint 조회
+     */
+    BatchInCheckpoint selectByHash(String fileHash);
+
+    /**
+     * 완료되지 않은 checkpoint 전체 (기동 시 재개 대상)
+     */
+    List<BatchInCheckpoint> selectOpenCheckpoints();
+
+    /**
+     * 재개할 수 없는 checkpoint 삭제 (파일 없음)
+     */
+    int deleteByHash(String fileHash);
+}
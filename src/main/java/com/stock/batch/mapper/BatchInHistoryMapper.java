@@ -2,6 +2,9 @@ package com.stock.batch.mapper;
 
 import com.stock.batch.domain.BatchInHistory;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
 
 @Mapper
 public interface BatchInHistoryMapper {
@@ -9,4 +12,9 @@ public interface BatchInHistoryMapper {
      * BatchIn 실행 이력 저장
      */
     int insertBatchInHistory(BatchInHistory history);
+
+    /**
+     * 오늘 성공 이력이 있는 job_name (선행 job 충족 여부 확인용)
+     */
+    List<String> selectSucceededJobNamesToday(@Param("jobNames") List<String> jobNames);
 }
@@ -0,0 +1,19 @@
+package com.stock.batch.mapper;
+
+import com.stock.batch.domain.BatchInManifest;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+@Mapper
+public interface BatchInManifestMapper {
+
+    /**
+     * 테이블에 가장 최근 적재(commit)된 파일 (없으면 null)
+     */
+    BatchInManifest selectLatest(@Param("tableName") String tableName);
+
+    /**
+     * 적재 완료 파일 기록 (동일 내용이면 파일명/시각만 갱신)
+     */
+    int upsertManifest(BatchInManifest manifest);
+}
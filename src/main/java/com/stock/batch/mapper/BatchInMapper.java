@@ -21,6 +21,25 @@ public interface BatchInMapper {
             @Param("nowMin")     String nowMin
     );
 
+    /**
+     * 오늘 스케줄 기준 실행 가능한 BatchIn 조회 (시각 조건 제외, 파일 도착 트리거용)
+     */
+    List<BatchIn> selectDueTodayBatchIn(
+            @Param("todayMonth") String todayMonth,
+            @Param("todayDay")   String todayDay,
+            @Param("todayWeek")  String todayWeek
+    );
+
+    /**
+     * 활성 BatchIn 정의 전체 (스케줄 인덱스 적재용)
+     */
+    List<BatchIn> selectActiveBatchIn();
+
+    /**
+     * 스케줄 인덱스가 실행 시점에 도달한 job 재확인 (활성 + 오늘 미실행)
+     */
+    List<BatchIn> selectBatchInForDispatch(@Param("jobIds") List<Integer> jobIds);
+
     int resetAllActGb();
 
     int updateExecutionStatus(BatchIn job);
@@ -0,0 +1,39 @@
+package com.stock.batch.mapper;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+@Mapper
+public interface BatchLeaseMapper {
+
+    /**
+     * lease 점유 시도 (없으면 생성, 만료되었거나 본인 소유면 갱신, 타 노드 유효 lease 는 그대로)
+     * - 점유 성공 여부는 selectOwner 로 확인
+     */
+    int upsertLease(@Param("leaseKey") String leaseKey,
+                    @Param("ownerNode") String ownerNode,
+                    @Param("ttlSeconds") int ttlSeconds);
+
+    String selectOwner(@Param("leaseKey") String leaseKey);
+
+    /**
+     * 노드가 보유한 lease 만료 시각 연장 (heartbeat)
+     */
+    int extendLeases(@Param("ownerNode") String ownerNode,
+                     @Param("ttlSeconds") int ttlSeconds);
+
+    int deleteLease(@Param("leaseKey") String leaseKey,
+                    @Param("ownerNode") String ownerNode);
+
+    /**
+     * 만료된 lease key (prefix 일치)
+     */
+    List<String> selectExpiredLeaseKeys(@Param("prefix") String prefix);
+
+    /**
+     * 만료 후 하루 이상 지난 lease 정리
+     */
+    int deleteStaleLeases();
+}
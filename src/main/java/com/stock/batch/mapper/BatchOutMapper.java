@@ -21,6 +21,22 @@ public interface BatchOutMapper {
     );
 
     int updateExecutionStatus(BatchOut job);
+
+    /**
+     * 활성 BatchOut 정의 전체 (스케줄 인덱스 적재용)
+     */
+    List<BatchOut> selectActiveBatchOut();
+
+    /**
+     * 스케줄 인덱스가 실행 시점에 도달한 job 재확인 (활성 + 오늘 미실행)
+     */
+    List<BatchOut> selectBatchOutForDispatch(@Param("jobIds") List<Integer> jobIds);
+
+    /**
+     * 단건 조회 (queue worker 이력 기록용)
+     */
+    BatchOut selectBatchOutById(@Param("jobId") int jobId);
+
     int resetAllActGb();
 
     int resetActGbByLastExecBeforeToday();
@@ -2,10 +2,18 @@ package com.stock.batch.mapper;
 
 import com.stock.batch.domain.StockJobInfo;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
 
 @Mapper
 public interface StockJobInfoMapper {
 
     StockJobInfo selectByJobCode(String jobCode);
 
+    /**
+     * queue 점유 시 job_code 별 실행 비중 조회
+     */
+    List<StockJobInfo> selectByJobCodes(@Param("jobCodes") List<String> jobCodes);
+
 }
@@ -2,10 +2,18 @@ package com.stock.batch.mapper;
 
 import com.stock.batch.domain.StockJobQueue;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
 
 @Mapper
 public interface StockJobQueueMapper {
 
+    /**
+     * 대기 작업 등록
+     * - 같은 batch_out_id, exec_date 의 진행 중(W / R) 요청이 있으면 DuplicateKeyException
+     *   (실패 / 완료된 요청은 충돌하지 않으므로 같은 날 재요청 가능)
+     */
     int insertWaiting(StockJobQueue waiting);
 
     StockJobQueue selectOneWaitingForUpdate();
@@ -13,4 +21,29 @@ public interface StockJobQueueMapper {
     int updateStatusRunning(Long waitId);
 
     int deleteById(Long waitId);
+
+    /**
+     * 대기(W) 작업 최대 limit 건 잠금 조회 (다른 worker 가 잠근 행은 건너뜀)
+     */
+    List<StockJobQueue> selectWaitingForUpdate(@Param("limit") int limit);
+
+    /**
+     * 점유 작업 → R (claimed_by = owner)
+     */
+    int updateStatusRunningByIds(@Param("waitIds") List<Long> waitIds, @Param("owner") String owner);
+
+    /**
+     * 실행 종료 상태 기록 (S / F)
+     */
+    int updateStatusFinished(@Param("waitId") Long waitId, @Param("status") String status);
+
+    /**
+     * owner 가 점유한 실행 중(R) 작업 중 started_at 이 staleMinutes 분 이전인 작업 상태 변경 (W = 재대기, F = 실패 처리)
+     */
+    int recoverRunning(@Param("staleMinutes") int staleMinutes, @Param("status") String status, @Param("owner") String owner);
+
+    /**
+     * 대기 시간에 따라 우선순위 상향 (base_priority - 경과분 / agingMinutes, 최소 1)
+     */
+    int agePriorities(@Param("agingMinutes") int agingMinutes);
 }
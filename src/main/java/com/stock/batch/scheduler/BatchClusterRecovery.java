@@ -0,0 +1,57 @@
+package com.stock.batch.scheduler;
+
+import com.stock.batch.cluster.BatchLeaseManager;
+import com.stock.batch.service.BatchInService;
+import com.stock.batch.service.BatchOutService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * 다중 노드 작업 회수 (batch.cluster.enabled)
+ * - 점유 노드가 종료되어 만료된 오늘자 job lease 를 찾아 이 노드에서 다시 실행 요청
+ *   (실행 시 lease 재점유 + 실행 여부 재확인을 거치므로 여러 노드가 동시에 회수해도 1회만 실행)
+ * - 다른 노드의 선행 job 완료를 기다리며 보류된 BatchIn job 재확인
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BatchClusterRecovery {
+
+    private final BatchLeaseManager leaseManager;
+    private final BatchInService batchInService;
+    private final BatchOutService batchOutService;
+    private final BatchJobDispatcher dispatcher;
+
+    @Scheduled(fixedDelayString = "${batch.cluster.recovery-ms:60000}",
+            initialDelayString = "${batch.cluster.recovery-ms:60000}")
+    public void recover() {
+
+        if (!leaseManager.isEnabled()) {
+            return;
+        }
+
+        String today = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
+
+        List<Integer> inIds = leaseManager.expiredJobIds(BatchLeaseManager.BATCH_IN, today);
+        List<Integer> outIds = leaseManager.expiredJobIds(BatchLeaseManager.BATCH_OUT, today);
+
+        if (!inIds.isEmpty() || !outIds.isEmpty()) {
+            log.warn("[Cluster] expired job leases reclaimed: batchIn={}, batchOut={}", inIds, outIds);
+        }
+
+        if (!outIds.isEmpty()) {
+            dispatcher.submitBatchOut(() -> batchOutService.executeJobsById(outIds));
+        }
+        if (!inIds.isEmpty()) {
+            dispatcher.submitBatchIn(() -> batchInService.executeJobsById(inIds));
+        }
+
+        dispatcher.submitBatchIn(batchInService::retryDeferredJobs);
+    }
+}
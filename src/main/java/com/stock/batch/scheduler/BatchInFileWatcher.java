@@ -0,0 +1,235 @@
+package com.stock.batch.scheduler;
+
+import com.stock.batch.executor.BatchInProcessor;
+import com.stock.batch.service.BatchInService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BATCH_OUT/{yyyyMMdd} 폴더 감시 (파일 도착 이벤트 기반 BatchIn 실행)
+ * - 준비 완료 marker(_READY, {파일명}.ready) 생성 시 file_pattern 이 맞는 BatchIn job 을 즉시 실행
+ * - 작성 중인 파일은 marker 가 없으므로 트리거되지 않는다
+ * - {파일명}.ready 트리거는 도착 파일만 적재 (job 은 계속 대기 → 같은 패턴의 이후 파일도 적재)
+ * - marker 는 적재 시 폴더 이동 단계에서 소비(삭제)된다 (BatchInProcessor.moveTodayFolder)
+ * - 시각 기반 BatchInScheduler.tick 은 그대로 유지 (이벤트 유실 시 fallback)
+ */
+@Slf4j
+@Component
+public class BatchInFileWatcher {
+
+    private final BatchInService batchInService;
+
+    @Value("${batch.path.out}")
+    private String BATCH_OUT;
+
+    @Value("${batch.in.watch.enabled:false}")
+    private boolean enabled;
+
+    // 연속으로 도착하는 marker 를 한 번에 처리하기 위한 대기 시간
+    @Value("${batch.in.watch.debounce-ms:2000}")
+    private long debounceMs;
+
+    private WatchService watchService;
+    private Thread watcherThread;
+
+    // 현재 감시 중인 날짜 폴더
+    private String watchingDay;
+    private WatchKey watchingKey;
+
+    public BatchInFileWatcher(BatchInService batchInService) {
+        this.batchInService = batchInService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() throws IOException {
+
+        if (!enabled) {
+            return;
+        }
+
+        Path root = Paths.get(BATCH_OUT);
+        Files.createDirectories(root);
+
+        watchService = FileSystems.getDefault().newWatchService();
+        root.register(watchService, StandardWatchEventKinds.ENTRY_CREATE);
+
+        watcherThread = new Thread(this::watchLoop, "batch-in-watcher");
+        watcherThread.setDaemon(true);
+        watcherThread.start();
+
+        log.info("[BatchIn] file watcher started: {}", root);
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+
+    private void watchLoop() {
+
+        while (true) {
+            try {
+                // 날짜 변경 / 폴더 생성 누락 대비 주기적으로 오늘 폴더 등록 확인
+                registerToday();
+
+                WatchKey key = watchService.poll(30, TimeUnit.SECONDS);
+                if (key == null) {
+                    continue;
+                }
+
+                boolean triggered = false;
+
+                // debounce: 대기 시간 동안 들어온 이벤트를 모두 모아서 처리
+                long deadline = System.currentTimeMillis() + debounceMs;
+
+                while (key != null) {
+                    triggered |= drain(key);
+
+                    long remain = deadline - System.currentTimeMillis();
+                    key = remain > 0 ? watchService.poll(remain, TimeUnit.MILLISECONDS) : watchService.poll();
+                }
+
+                if (triggered) {
+                    dispatch();
+                }
+
+            } catch (ClosedWatchServiceException | InterruptedException e) {
+                log.info("[BatchIn] file watcher stopped");
+                return;
+            } catch (Exception e) {
+                // 감시 실패 시에도 tick fallback 으로 처리되므로 루프 유지
+                log.error("[BatchIn] file watcher error", e);
+            }
+        }
+    }
+
+    /**
+     * @return marker 관련 이벤트 포함 여부
+     */
+    private boolean drain(WatchKey key) throws IOException {
+
+        boolean triggered = false;
+        Path dir = (Path) key.watchable();
+
+        for (WatchEvent<?> event : key.pollEvents()) {
+
+            // 이벤트 유실 → 현재 marker 기준으로 재확인
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                triggered = true;
+                continue;
+            }
+
+            Path name = (Path) event.context();
+
+            if (dir.equals(Paths.get(BATCH_OUT))) {
+                // 오늘 날짜 폴더 생성 시 즉시 감시 등록 (이미 들어온 marker 확인 위해 trigger)
+                if (name.toString().equals(today())) {
+                    registerToday();
+                    triggered = true;
+                }
+            } else if (BatchInProcessor.isReadyMarker(name)) {
+                triggered = true;
+            }
+        }
+
+        key.reset();
+        return triggered;
+    }
+
+    private void registerToday() throws IOException {
+
+        String today = today();
+
+        if (today.equals(watchingDay)) {
+            return;
+        }
+
+        Path folder = Paths.get(BATCH_OUT, today);
+
+        if (Files.isDirectory(folder)) {
+
+            // 전일 폴더 감시 해제
+            if (watchingKey != null) {
+                watchingKey.cancel();
+            }
+
+            watchingKey = folder.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            watchingDay = today;
+            log.info("[BatchIn] file watcher registered: {}", folder);
+        }
+    }
+
+    /**
+     * 오늘 폴더의 준비 완료 파일명을 모아 BatchIn job 실행
+     */
+    private void dispatch() throws IOException {
+
+        Path folder = Paths.get(BATCH_OUT, today());
+
+        if (!Files.isDirectory(folder)) {
+            return;
+        }
+
+        boolean folderReady = Files.exists(folder.resolve(BatchInProcessor.READY_FOLDER_MARKER));
+        List<String> readyFiles = readyFiles(folder, folderReady);
+
+        if (readyFiles.isEmpty()) {
+            return;
+        }
+
+        log.info("[BatchIn] ready files detected: {}, folderReady={}", readyFiles, folderReady);
+        batchInService.executeTriggeredJobs(readyFiles, folderReady);
+    }
+
+    private List<String> readyFiles(Path folder, boolean folderReady) throws IOException {
+
+        Set<String> names = new LinkedHashSet<>();
+
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(folder)) {
+            for (Path file : stream) {
+
+                if (!Files.isRegularFile(file) || BatchInProcessor.isReadyMarker(file)) {
+                    continue;
+                }
+
+                String name = file.getFileName().toString();
+
+                if (folderReady || Files.exists(folder.resolve(name + BatchInProcessor.READY_SUFFIX))) {
+                    names.add(name);
+                }
+            }
+        }
+
+        return new ArrayList<>(names);
+    }
+
+    private String today() {
+        return LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
+    }
+}
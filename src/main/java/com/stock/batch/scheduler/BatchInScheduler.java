@@ -1,35 +1,72 @@
 package com.stock.batch.scheduler;
 
+import com.stock.batch.executor.BatchInStagingManager;
 import com.stock.batch.service.BatchInService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class BatchInScheduler {
 
     private final BatchInService batchInService;
+    private final BatchScheduleIndex scheduleIndex;
+    private final BatchJobDispatcher dispatcher;
+    private final BatchInStagingManager stagingManager;
+
+    private final MinuteScanWindow scanWindow = new MinuteScanWindow();
+
+    // 기동 직후 첫 tick 에서 보정할 과거 분 수
+    @Value("${batch.schedule.catch-up-minutes:0}")
+    private int startupCatchUpMinutes;
+
+    // tick 지연 시 보정할 최대 분 수
+    @Value("${batch.schedule.max-catch-up-minutes:180}")
+    private int maxCatchUpMinutes;
 
     /**
-     * 매 1분마다 실행
-     * 현재 시간(job_hour, job_min)과 스케줄 조건(D/W/M/Y)이 맞는
-     * BatchIn 작업(act_gb='N', is_active=1)을 조회하여 실행
+     * 매 분 0초 실행 (벽시계 분 경계 정렬)
+     * 마지막 스캔 이후 현재까지의 모든 분에 대해 시간(job_hour, job_min)과 스케줄 조건(D/W/M/Y)이 맞는
+     * BatchIn 작업(act_gb='N', is_active=1)을 조회하여 실행 요청
+     * - tick 이 늦어져 건너뛴 분도 1회씩 보정
+     * - 실행은 BatchJobDispatcher 로 넘기므로 느린 job 이 다음 감지를 지연시키지 않는다
      */
-    @Scheduled(fixedDelay = 60000)
+    @Scheduled(cron = "0 * * * * *")
     public void tick() {
+
+        // 스케줄 인덱스 사용 시 실행 시각 판단은 BatchScheduleIndex 가 담당
+        if (scheduleIndex.isEnabled()) {
+            return;
+        }
+
         log.info("BatchInScheduler tick");
-        batchInService.executeDueJobs();
+
+        for (LocalDateTime minute : scanWindow.advance(LocalDateTime.now(), startupCatchUpMinutes, maxCatchUpMinutes)) {
+
+            List<Integer> jobIds = batchInService.findDueJobIds(minute);
+
+            if (!jobIds.isEmpty()) {
+                dispatcher.submitBatchIn(() -> batchInService.executeJobsById(jobIds));
+            }
+        }
     }
 
     /**
      * 매일 자정 BatchIn 실행 상태 초기화
      * 다음 날 배치가 다시 실행될 수 있도록 act_gb 값을 'N'으로 리셋
+     * - 유지보수 풀에서 실행 (실행 중인 job / tick 과 격리)
+     * - 전날 시작해 publish 되지 못한 staging 그룹도 함께 폐기
      */
     @Scheduled(cron = "0 0 0 * * *")
     public void midnightReset() {
-        batchInService.resetActGb();
+        dispatcher.submitMaintenance(batchInService::resetActGb);
+        dispatcher.submitMaintenance(stagingManager::abortExpired);
     }
 }
@@ -0,0 +1,106 @@
+package com.stock.batch.scheduler;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 실행 시각 감지(tick / 스케줄 인덱스)와 job 실행 분리 + 용도별 실행 풀 격리 (bulkhead)
+ * - batch-in-exec-N  : BatchIn job 실행 (파일 적재)
+ * - batch-out-exec-N : BatchOut job 실행 (stock_job_queue 적재)
+ * - batch-maint-N    : 자정 act_gb 리셋 등 유지보수 작업
+ * - 감지 스레드는 실행 대상만 넘기고 바로 다음 감지로 돌아간다 (느린 적재가 queue 적재 / 리셋을 지연시키지 않음)
+ * - 각 풀은 대기열 상한을 가지며, 가득 차면 제출한 스레드가 직접 실행 (job 유실 없이 감지 측에 back-pressure)
+ * - 풀 상태는 MeterRegistry(batch.dispatch.*, executor 태그) 로 노출
+ */
+@Slf4j
+@Component
+public class BatchJobDispatcher {
+
+    private final ThreadPoolExecutor batchInExecutor;
+    private final ThreadPoolExecutor batchOutExecutor;
+    private final ThreadPoolExecutor maintenanceExecutor;
+
+    public BatchJobDispatcher(MeterRegistry meterRegistry,
+                              @Value("${batch.dispatch.in.threads:1}") int inThreads,
+                              @Value("${batch.dispatch.in.queue-capacity:100}") int inQueueCapacity,
+                              @Value("${batch.dispatch.out.threads:1}") int outThreads,
+                              @Value("${batch.dispatch.out.queue-capacity:100}") int outQueueCapacity,
+                              @Value("${batch.dispatch.maintenance.queue-capacity:10}") int maintenanceQueueCapacity) {
+
+        this.batchInExecutor = newExecutor(meterRegistry, "batch-in-exec", inThreads, inQueueCapacity);
+        this.batchOutExecutor = newExecutor(meterRegistry, "batch-out-exec", outThreads, outQueueCapacity);
+        this.maintenanceExecutor = newExecutor(meterRegistry, "batch-maint", 1, maintenanceQueueCapacity);
+    }
+
+    public void submitBatchIn(Runnable task) {
+        batchInExecutor.execute(guard("BatchIn", task));
+    }
+
+    public void submitBatchOut(Runnable task) {
+        batchOutExecutor.execute(guard("BatchOut", task));
+    }
+
+    public void submitMaintenance(Runnable task) {
+        maintenanceExecutor.execute(guard("Maintenance", task));
+    }
+
+    private Runnable guard(String name, Runnable task) {
+        return () -> {
+            try {
+                task.run();
+            } catch (Exception e) {
+                log.error("[{}] dispatched job failed", name, e);
+            }
+        };
+    }
+
+    private static ThreadPoolExecutor newExecutor(MeterRegistry registry, String name, int threads, int queueCapacity) {
+
+        int size = Math.max(1, threads);
+        Counter rejected = Counter.builder("batch.dispatch.rejected").tag("executor", name).register(registry);
+        AtomicInteger threadSeq = new AtomicInteger();
+
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                size, size, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(Math.max(1, queueCapacity)),
+                r -> {
+                    Thread t = new Thread(r, name + "-" + threadSeq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                // 포화 시 제출 스레드가 직접 실행 (실행 대상 유실 방지)
+                (task, pool) -> {
+                    rejected.increment();
+                    log.warn("[Dispatch] {} saturated: active={}, queued={} → run on caller {}",
+                            name, pool.getActiveCount(), pool.getQueue().size(), Thread.currentThread().getName());
+                    if (!pool.isShutdown()) {
+                        task.run();
+                    }
+                });
+
+        Gauge.builder("batch.dispatch.active", executor, ThreadPoolExecutor::getActiveCount).tag("executor", name).register(registry);
+        Gauge.builder("batch.dispatch.queued", executor, e -> e.getQueue().size()).tag("executor", name).register(registry);
+        Gauge.builder("batch.dispatch.pool.max", executor, ThreadPoolExecutor::getMaximumPoolSize).tag("executor", name).register(registry);
+        FunctionCounter.builder("batch.dispatch.completed", executor, ThreadPoolExecutor::getCompletedTaskCount).tag("executor", name).register(registry);
+
+        return executor;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        batchInExecutor.shutdown();
+        batchOutExecutor.shutdown();
+        maintenanceExecutor.shutdown();
+    }
+}
@@ -0,0 +1,313 @@
+package com.stock.batch.scheduler;
+
+import com.stock.batch.domain.BatchIn;
+import com.stock.batch.domain.BatchOut;
+import com.stock.batch.domain.SchedulableJob;
+import com.stock.batch.mapper.BatchInMapper;
+import com.stock.batch.mapper.BatchOutMapper;
+import com.stock.batch.service.BatchInService;
+import com.stock.batch.service.BatchOutService;
+import com.stock.batch.util.BatchScheduleCalculator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * batch_in / batch_out 스케줄 인덱스 (batch.schedule.index.enabled)
+ * - 활성 정의를 메모리에 올려 다음 실행 시각(BatchScheduleCalculator.nextFireTime) 순 priority queue 로 관리
+ * - 전용 스레드가 가장 이른 실행 시각까지 대기 후 해당 job 만 실행 (매분 DB 스캔 없음)
+ * - 정의 변경은 주기적으로 전체 정의를 읽어 스케줄 값이 바뀐 job 만 재계산 (batch.schedule.index.refresh-ms)
+ * - 사용 시 BatchInScheduler / BatchOutScheduler 의 매분 tick 은 동작하지 않는다
+ * - 스케줄 값이 잘못된 정의는 job 단위로 로그 후 제외 (나머지 job 인덱스에는 영향 없음)
+ */
+@Slf4j
+@Component
+public class BatchScheduleIndex {
+
+    private enum JobType { IN, OUT }
+
+    private record JobKey(JobType type, int jobId) {}
+
+    private static final class Entry {
+
+        private final JobKey key;
+        private final SchedulableJob job;
+        private final String signature;
+        private LocalDateTime fireAt;
+
+        private Entry(JobKey key, SchedulableJob job, String signature, LocalDateTime fireAt) {
+            this.key = key;
+            this.job = job;
+            this.signature = signature;
+            this.fireAt = fireAt;
+        }
+    }
+
+    private final BatchInMapper batchInMapper;
+    private final BatchOutMapper batchOutMapper;
+    private final BatchInService batchInService;
+    private final BatchOutService batchOutService;
+    private final BatchJobDispatcher dispatcher;
+
+    @Value("${batch.schedule.index.enabled:false}")
+    private boolean enabled;
+
+    // 기동 시 이 시간(분) 이전부터의 실행 시각을 보정 대상으로 포함
+    @Value("${batch.schedule.catch-up-minutes:0}")
+    private int startupCatchUpMinutes;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+
+    private final PriorityQueue<Entry> queue = new PriorityQueue<>(Comparator.comparing(e -> e.fireAt));
+    private final Map<JobKey, Entry> entries = new HashMap<>();
+
+    private Thread dispatcherThread;
+    private volatile boolean running;
+
+    public BatchScheduleIndex(BatchInMapper batchInMapper, BatchOutMapper batchOutMapper,
+                              BatchInService batchInService, BatchOutService batchOutService,
+                              BatchJobDispatcher dispatcher) {
+        this.batchInMapper = batchInMapper;
+        this.batchOutMapper = batchOutMapper;
+        this.batchInService = batchInService;
+        this.batchOutService = batchOutService;
+        this.dispatcher = dispatcher;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+
+        if (!enabled) {
+            return;
+        }
+
+        // 기동 전 놓친 실행 시각 보정 (이미 오늘 실행된 job 은 실행 시점 재확인에서 제외)
+        reload(LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES).minusMinutes(startupCatchUpMinutes).minusNanos(1));
+
+        running = true;
+        dispatcherThread = new Thread(this::dispatchLoop, "batch-schedule-index");
+        dispatcherThread.setDaemon(true);
+        dispatcherThread.start();
+
+        log.info("[Schedule] index started: jobs={}", entries.size());
+    }
+
+    @PreDestroy
+    public void stop() {
+
+        running = false;
+
+        if (dispatcherThread != null) {
+            dispatcherThread.interrupt();
+        }
+    }
+
+    // ===============================
+    // 정의 재적재 (변경분만 재계산)
+    // ===============================
+    @Scheduled(fixedDelayString = "${batch.schedule.index.refresh-ms:300000}",
+            initialDelayString = "${batch.schedule.index.refresh-ms:300000}")
+    public void refresh() {
+
+        if (!enabled) {
+            return;
+        }
+
+        reload(LocalDateTime.now());
+    }
+
+    /**
+     * @param base 새로 등록 / 변경된 job 의 다음 실행 시각 계산 기준 (base 초과 첫 시각)
+     */
+    private void reload(LocalDateTime base) {
+
+        List<Entry> loaded = new ArrayList<>();
+
+        for (BatchIn job : batchInMapper.selectActiveBatchIn()) {
+            loaded.add(newEntry(new JobKey(JobType.IN, job.getJobId()), job));
+        }
+        for (BatchOut job : batchOutMapper.selectActiveBatchOut()) {
+            loaded.add(newEntry(new JobKey(JobType.OUT, job.getJobId()), job));
+        }
+
+        int added = 0;
+        int removed = 0;
+
+        lock.lock();
+        try {
+            Set<JobKey> seen = new HashSet<>();
+
+            for (Entry entry : loaded) {
+
+                seen.add(entry.key);
+                Entry current = entries.get(entry.key);
+
+                if (current != null && current.signature.equals(entry.signature)) {
+                    continue;
+                }
+
+                if (current != null) {
+                    queue.remove(current);
+                }
+
+                // 잘못된 정의는 해당 job 만 제외
+                entry.fireAt = fireTime(entry, base);
+                entries.put(entry.key, entry);
+
+                if (entry.fireAt != null) {
+                    queue.add(entry);
+                } else {
+                    log.warn("[Schedule] no next fire time, ignored: {}, scheduleGb={}", entry.key, entry.job.getScheduleGb());
+                }
+                added++;
+            }
+
+            for (JobKey key : new ArrayList<>(entries.keySet())) {
+                if (!seen.contains(key)) {
+                    queue.remove(entries.remove(key));
+                    removed++;
+                }
+            }
+
+            changed.signalAll();
+
+        } finally {
+            lock.unlock();
+        }
+
+        if (added > 0 || removed > 0) {
+            log.info("[Schedule] index refreshed: total={}, changed={}, removed={}", entries.size(), added, removed);
+        }
+    }
+
+    private static LocalDateTime fireTime(Entry entry, LocalDateTime base) {
+
+        try {
+            return BatchScheduleCalculator.nextFireTime(entry.job, base);
+        } catch (RuntimeException e) {
+            log.warn("[Schedule] invalid schedule, ignored: {}", entry.key, e);
+            return null;
+        }
+    }
+
+    private Entry newEntry(JobKey key, SchedulableJob job) {
+
+        String signature = String.join("|",
+                Objects.toString(job.getScheduleGb(), ""),
+                Objects.toString(job.getJobMonth(), ""),
+                Objects.toString(job.getJobDay(), ""),
+                Objects.toString(job.getJobWeek(), ""),
+                Objects.toString(job.getJobHour(), ""),
+                Objects.toString(job.getJobMin(), ""));
+
+        return new Entry(key, job, signature, null);
+    }
+
+    // ===============================
+    // 실행 시각 대기 → 실행
+    // ===============================
+    private void dispatchLoop() {
+
+        while (running) {
+            try {
+                List<Entry> due = awaitDue();
+                dispatch(due);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("[Schedule] dispatch failed", e);
+            }
+        }
+    }
+
+    /**
+     * 가장 이른 실행 시각까지 대기 후 도달한 job 을 꺼내고 다음 실행 시각으로 재등록
+     * - 실행 시각은 절대 시각(분 경계)이므로 대기 지연이 누적되지 않는다
+     * - 실행은 BatchJobDispatcher 로 넘겨 감지 스레드는 바로 다음 대기로 돌아간다
+     */
+    private List<Entry> awaitDue() throws InterruptedException {
+
+        lock.lock();
+        try {
+            while (true) {
+
+                Entry head = queue.peek();
+                LocalDateTime now = LocalDateTime.now();
+
+                if (head == null) {
+                    changed.await();
+                    continue;
+                }
+
+                if (head.fireAt.isAfter(now)) {
+                    // 정의 변경(refresh) 시 signal 로 깨어나 다시 계산
+                    changed.await(Duration.between(now, head.fireAt).toMillis() + 1, TimeUnit.MILLISECONDS);
+                    continue;
+                }
+
+                List<Entry> due = new ArrayList<>();
+
+                while (!queue.isEmpty() && !queue.peek().fireAt.isAfter(now)) {
+
+                    Entry entry = queue.poll();
+                    due.add(entry);
+
+                    // 지연으로 여러 실행 시각을 지나쳤어도 1회만 실행, 다음은 현재 이후 시각
+                    entry.fireAt = fireTime(entry, now);
+                    if (entry.fireAt != null) {
+                        queue.add(entry);
+                    }
+                }
+
+                return due;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void dispatch(List<Entry> due) {
+
+        List<Integer> inIds = new ArrayList<>();
+        List<Integer> outIds = new ArrayList<>();
+
+        for (Entry entry : due) {
+            (entry.key.type() == JobType.IN ? inIds : outIds).add(entry.key.jobId());
+        }
+
+        log.info("[Schedule] due jobs: batchIn={}, batchOut={}", inIds, outIds);
+
+        if (!outIds.isEmpty()) {
+            dispatcher.submitBatchOut(() -> batchOutService.executeJobsById(outIds));
+        }
+        if (!inIds.isEmpty()) {
+            dispatcher.submitBatchIn(() -> batchInService.executeJobsById(inIds));
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.stock.batch.scheduler;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+/**
+ * @Scheduled 감지 스레드 풀 (기본 단일 스레드 TaskScheduler 대체)
+ * - BatchIn / BatchOut tick, 자정 리셋, 스케줄 인덱스 refresh 가 서로를 지연시키지 않도록 풀로 실행
+ * - 실제 job 실행은 BatchJobDispatcher 의 용도별 풀에서 수행
+ */
+@Slf4j
+@Configuration
+public class BatchSchedulingConfig implements SchedulingConfigurer {
+
+    @Value("${batch.scheduler.pool-size:4}")
+    private int poolSize;
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar registrar) {
+
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(Math.max(1, poolSize));
+        scheduler.setThreadNamePrefix("batch-sched-");
+        scheduler.setErrorHandler(t -> log.error("[Schedule] scheduled task failed", t));
+        scheduler.setWaitForTasksToCompleteOnShutdown(false);
+        scheduler.initialize();
+
+        registrar.setTaskScheduler(scheduler);
+    }
+}
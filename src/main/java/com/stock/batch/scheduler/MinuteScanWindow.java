@@ -0,0 +1,49 @@
+package com.stock.batch.scheduler;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 분 단위 스캔 구간 추적
+ * - 마지막으로 스캔한 분 다음부터 현재 분까지를 모두 돌려주어 tick 지연 / 누락 분을 보정한다
+ * - 최초 호출은 startupCatchUp 분 전부터, 보정 구간은 최대 maxCatchUp 분
+ * - 보정 구간은 현재 분의 날짜 0시 이전으로 넘어가지 않는다
+ *   (자정 act_gb 초기화 후 전날 분을 스캔하면 전날 job 이 오늘 실행으로 처리되므로)
+ */
+final class MinuteScanWindow {
+
+    private LocalDateTime lastScanned;
+
+    synchronized List<LocalDateTime> advance(LocalDateTime now, int startupCatchUp, int maxCatchUp) {
+
+        LocalDateTime current = now.truncatedTo(ChronoUnit.MINUTES);
+
+        LocalDateTime from = lastScanned == null
+                ? current.minusMinutes(startupCatchUp)
+                : lastScanned.plusMinutes(1);
+
+        if (from.isBefore(current.minusMinutes(maxCatchUp))) {
+            from = current.minusMinutes(maxCatchUp);
+        }
+
+        LocalDateTime startOfDay = current.toLocalDate().atStartOfDay();
+
+        if (from.isBefore(startOfDay)) {
+            from = startOfDay;
+        }
+
+        List<LocalDateTime> minutes = new ArrayList<>();
+
+        for (LocalDateTime t = from; !t.isAfter(current); t = t.plusMinutes(1)) {
+            minutes.add(t);
+        }
+
+        if (lastScanned == null || current.isAfter(lastScanned)) {
+            lastScanned = current;
+        }
+
+        return minutes;
+    }
+}
@@ -0,0 +1,128 @@
+package com.stock.batch.scheduler;
+
+import com.stock.batch.service.StockJobQueuedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetSocketAddress;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * stock_job_queue 등록 알림 전달
+ * - 같은 프로세스: StockJobQueuedEvent 수신 즉시 StockJobQueueWorker 를 깨움
+ * - 다른 프로세스: batch.queue.notify.peers(host:port) 로 UDP datagram 전송,
+ *   batch.queue.notify.port 로 수신한 알림도 worker 를 깨움
+ * - 알림은 유실될 수 있으며 DB 행이 기준 (worker 의 poll 이 안전망)
+ */
+@Slf4j
+@Component
+public class StockJobQueueNotifier {
+
+    private final StockJobQueueWorker worker;
+
+    // 수신 포트 (0 = 수신 안 함)
+    @Value("${batch.queue.notify.port:0}")
+    private int port;
+
+    // 알림을 보낼 다른 노드 (host:port 콤마 구분)
+    @Value("${batch.queue.notify.peers:}")
+    private String peers;
+
+    private final List<InetSocketAddress> peerAddresses = new ArrayList<>();
+
+    private DatagramSocket receiver;
+    private DatagramSocket sender;
+
+    public StockJobQueueNotifier(StockJobQueueWorker worker) {
+        this.worker = worker;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() throws SocketException {
+
+        for (String peer : peers.split(",")) {
+            String address = peer.trim();
+            if (!address.isEmpty()) {
+                int idx = address.lastIndexOf(':');
+                peerAddresses.add(new InetSocketAddress(address.substring(0, idx), Integer.parseInt(address.substring(idx + 1))));
+            }
+        }
+
+        if (!peerAddresses.isEmpty()) {
+            sender = new DatagramSocket();
+        }
+
+        if (port > 0) {
+            receiver = new DatagramSocket(port);
+
+            Thread thread = new Thread(this::receiveLoop, "stock-job-queue-notify");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        if (port > 0 || sender != null) {
+            log.info("[Queue] notifier started: port={}, peers={}", port, peerAddresses);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+
+        if (receiver != null) {
+            receiver.close();
+        }
+        if (sender != null) {
+            sender.close();
+        }
+    }
+
+    @EventListener
+    public void onQueued(StockJobQueuedEvent event) {
+
+        worker.wakeUp();
+
+        if (sender == null) {
+            return;
+        }
+
+        byte[] payload = event.jobCode() == null ? new byte[0] : event.jobCode().getBytes(StandardCharsets.UTF_8);
+
+        for (InetSocketAddress peer : peerAddresses) {
+            try {
+                sender.send(new DatagramPacket(payload, payload.length, peer));
+            } catch (Exception e) {
+                // 알림 실패 시 상대 노드는 poll 로 처리
+                log.debug("[Queue] notify failed: peer={}", peer, e);
+            }
+        }
+    }
+
+    private void receiveLoop() {
+
+        byte[] buf = new byte[512];
+
+        while (!receiver.isClosed()) {
+            try {
+                DatagramPacket packet = new DatagramPacket(buf, buf.length);
+                receiver.receive(packet);
+
+                log.debug("[Queue] notified: jobCode={}", new String(packet.getData(), 0, packet.getLength(), StandardCharsets.UTF_8));
+                worker.wakeUp();
+
+            } catch (Exception e) {
+                if (!receiver.isClosed()) {
+                    log.warn("[Queue] notify receive failed", e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package com.stock.batch.scheduler;
+
+import com.stock.batch.domain.StockJobQueue;
+import com.stock.batch.executor.BatchExecutionMode;
+import com.stock.batch.service.StockJobQueueService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * stock_job_queue Java worker pool (batch.queue.worker.enabled)
+ * - 빈 worker 수만큼 대기 작업을 한 번에 점유 (FOR UPDATE SKIP LOCKED LIMIT n)
+ * - job_code 별 동시 실행 상한 (batch.queue.worker.per-job-code) 초과 작업은 점유하지 않고 W 로 남긴다
+ * - 점유 순서는 priority 등급 → job_code fair share → 요청 순 (StockJobQueueService)
+ * - 점유할 작업이 없으면 poll-ms 대기, 작업 종료 시 즉시 다음 점유
+ * - 외부 Python runner 와 같은 queue 를 소비하므로 둘 중 하나만 사용
+ * - 실행 중 예외는 F + batch_out_h 이력으로 종료
+ * - 점유한 작업에 claimed_by = owner-id 기록 (재기동 후에도 같은 값이어야 하므로 pid 미포함)
+ * - 중단된 실행(R) 복구는 이 worker(owner-id)가 점유한 작업만 대상
+ *   (외부 Python runner / 다른 노드가 실행 중인 R 은 건드리지 않는다)
+ *   · 기동 시 : 이전 프로세스가 남긴 R → W 재대기
+ *   · 주기적 : started_at 이 stale-minutes 를 넘긴 R → F (종료 기록 없이 끝난 실행)
+ */
+@Slf4j
+@Component
+public class StockJobQueueWorker {
+
+    private final StockJobQueueService queueService;
+    private final BatchExecutionMode executionMode;
+
+    @Value("${batch.queue.worker.enabled:false}")
+    private boolean enabled;
+
+    // 점유 worker 식별자 (노드마다 달라야 함, 비어 있으면 batch.cluster.node-id → host 이름)
+    @Value("${batch.queue.worker.owner-id:${batch.cluster.node-id:}}")
+    private String ownerId;
+
+    @Value("${batch.queue.worker.threads:2}")
+    private int threads;
+
+    @Value("${batch.queue.worker.per-job-code:1}")
+    private int perJobCodeLimit;
+
+    // 한 번에 잠그고 살펴볼 대기 작업 수 (상한 초과 job_code 가 앞에 몰려 있어도 뒤 작업 점유)
+    @Value("${batch.queue.worker.scan-rows:50}")
+    private int scanRows;
+
+    @Value("${batch.queue.worker.poll-ms:5000}")
+    private long pollMs;
+
+    // 이 시간(분)을 넘겨 R 로 남은 작업은 중단된 것으로 보고 F 처리 (가장 긴 스크립트 실행 시간보다 크게)
+    @Value("${batch.queue.worker.stale-minutes:180}")
+    private int staleMinutes;
+
+    // 이 시간(분)을 기다릴 때마다 priority 1 등급씩 상향
+    @Value("${batch.queue.aging-minutes:10}")
+    private int agingMinutes;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition wakeUp = lock.newCondition();
+
+    // await 진입 전 도착한 wakeUp 유실 방지
+    private boolean signalled;
+
+    // job_code → 실행 중 작업 수
+    private final Map<String, Integer> runningByCode = new ConcurrentHashMap<>();
+
+    private Semaphore slots;
+    private ExecutorService pool;
+    private Thread pollerThread;
+    private volatile boolean running;
+
+    public StockJobQueueWorker(StockJobQueueService queueService, BatchExecutionMode executionMode) {
+        this.queueService = queueService;
+        this.executionMode = executionMode;
+    }
+
+    @PostConstruct
+    public void init() {
+
+        if (ownerId == null || ownerId.isBlank()) {
+            ownerId = hostName();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+
+        if (!enabled) {
+            return;
+        }
+
+        // 이 worker 가 점유했던 작업만 재대기 (다른 노드 / 외부 runner 실행분 제외)
+        try {
+            queueService.recoverRunning(0, "W", ownerId);
+        } catch (Exception e) {
+            log.error("[Queue] startup recovery failed", e);
+        }
+
+        slots = new Semaphore(Math.max(1, threads));
+        pool = executionMode.newExecutor("stock-job-worker", Math.max(1, threads));
+
+        running = true;
+        pollerThread = new Thread(this::pollLoop, "stock-job-queue-poller");
+        pollerThread.setDaemon(true);
+        pollerThread.start();
+
+        log.info("[Queue] worker started: owner={}, threads={}, perJobCode={}", ownerId, threads, perJobCodeLimit);
+    }
+
+    @PreDestroy
+    public void stop() {
+
+        running = false;
+
+        if (pollerThread != null) {
+            pollerThread.interrupt();
+        }
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * 대기 작업 aging (후순위 등급 작업이 계속 밀리지 않도록)
+     */
+    @Scheduled(fixedDelayString = "${batch.queue.aging-interval-ms:60000}")
+    public void age() {
+
+        if (!enabled) {
+            return;
+        }
+
+        try {
+            queueService.age(agingMinutes);
+        } catch (Exception e) {
+            log.warn("[Queue] aging failed", e);
+        }
+    }
+
+    /**
+     * 오래된 실행 중(R) 작업 실패 처리
+     */
+    @Scheduled(fixedDelayString = "${batch.queue.aging-interval-ms:60000}")
+    public void recoverStale() {
+
+        if (!enabled) {
+            return;
+        }
+
+        try {
+            queueService.recoverRunning(staleMinutes, "F", ownerId);
+        } catch (Exception e) {
+            log.warn("[Queue] stale recovery failed", e);
+        }
+    }
+
+    /**
+     * 대기 중인 poller 를 즉시 깨움 (작업 종료 / 신규 등록 시)
+     */
+    public void wakeUp() {
+
+        lock.lock();
+        try {
+            signalled = true;
+            wakeUp.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void pollLoop() {
+
+        while (running) {
+            try {
+                int free = slots.availablePermits();
+                List<StockJobQueue> claimed = free > 0 ? claim(free) : List.of();
+
+                for (StockJobQueue item : claimed) {
+                    slots.acquire();
+                    pool.execute(() -> execute(item));
+                }
+
+                if (claimed.isEmpty()) {
+                    await();
+                }
+
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("[Queue] poll failed", e);
+                sleepQuietly();
+            }
+        }
+    }
+
+    private List<StockJobQueue> claim(int free) throws Exception {
+
+        List<String> reserved = new ArrayList<>();
+
+        try {
+            return executionMode.withDbPermit(() -> queueService.claim(free, scanRows, ownerId, item -> {
+                if (reserve(item.getJobCode())) {
+                    reserved.add(item.getJobCode());
+                    return true;
+                }
+                return false;
+            }));
+        } catch (Exception e) {
+            // rollback 된 점유의 슬롯 예약 취소
+            reserved.forEach(this::releaseCode);
+            throw e;
+        }
+    }
+
+    private void execute(StockJobQueue item) {
+
+        long start = System.currentTimeMillis();
+
+        try {
+            queueService.run(item);
+        } catch (Exception e) {
+            log.error("[Queue] job failed: waitId={}, jobCode={}", item.getWaitId(), item.getJobCode(), e);
+            try {
+                queueService.fail(item, start, e);
+            } catch (Exception ex) {
+                // 기록 실패 시 R 로 남고 stale 복구에서 F 처리
+                log.error("[Queue] failure record failed: waitId={}", item.getWaitId(), ex);
+            }
+        } finally {
+            releaseCode(item.getJobCode());
+            slots.release();
+            wakeUp();
+        }
+    }
+
+    private boolean reserve(String jobCode) {
+
+        boolean[] reserved = {false};
+
+        runningByCode.compute(String.valueOf(jobCode), (code, count) -> {
+            int current = count == null ? 0 : count;
+            if (current >= perJobCodeLimit) {
+                return count;
+            }
+            reserved[0] = true;
+            return current + 1;
+        });
+
+        return reserved[0];
+    }
+
+    private void releaseCode(String jobCode) {
+        runningByCode.computeIfPresent(String.valueOf(jobCode), (code, count) -> count <= 1 ? null : count - 1);
+    }
+
+    private void await() throws InterruptedException {
+
+        lock.lock();
+        try {
+            if (!signalled) {
+                wakeUp.await(pollMs, TimeUnit.MILLISECONDS);
+            }
+            signalled = false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static String hostName() {
+
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            return "unknown";
+        }
+    }
+
+    private void sleepQuietly() {
+        try {
+            Thread.sleep(pollMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
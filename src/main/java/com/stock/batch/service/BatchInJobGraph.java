@@ -0,0 +1,184 @@
+package com.stock.batch.service;
+
+import com.stock.batch.domain.BatchIn;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * batch_in.depends_on 기반 job 실행 그래프
+ * - 같은 실행 묶음 안의 선행 job 이 모두 성공한 job 부터 workers 개까지 동시 실행
+ * - 선행 job 실패 시 후행 job 은 실행하지 않고 onSkip 으로 넘긴다 (전이 포함)
+ * - 순환 참조로 시작할 수 없는 job 도 onSkip 으로 넘긴다
+ * - 동시 실행 수는 workers 로 제한 (virtual thread 실행기에서도 동일)
+ * - 같은 배타 그룹(pre-clean 그룹 등) job 은 한 번에 하나씩, 준비된 순서(job_id 순)대로 실행
+ * - workers=1 이면 job_id 순 순차 실행 (기존 동작과 동일)
+ */
+@Slf4j
+final class BatchInJobGraph {
+
+    interface JobRunner {
+        /**
+         * @return 성공 여부
+         */
+        boolean run(BatchIn job);
+    }
+
+    interface SkipHandler {
+        void skip(BatchIn job, String reason);
+    }
+
+    private BatchInJobGraph() {
+    }
+
+    /**
+     * depends_on (콤마 구분 job_name) 파싱
+     */
+    static List<String> dependsOn(BatchIn job) {
+
+        if (job.getDependsOn() == null || job.getDependsOn().isBlank()) {
+            return List.of();
+        }
+
+        return Arrays.stream(job.getDependsOn().split(","))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty() && !name.equals(job.getJobName()))
+                .distinct()
+                .toList();
+    }
+
+    /**
+     * @param jobs           실행 대상 (job_id 순)
+     * @param pool           실행기 (호출측이 shutdown)
+     * @param exclusiveGroup job → 배타 그룹 (null 이면 제한 없음)
+     */
+    static void run(List<BatchIn> jobs, int workers, ExecutorService pool, JobRunner runner, SkipHandler onSkip,
+                    Function<BatchIn, String> exclusiveGroup) throws InterruptedException {
+
+        if (jobs.isEmpty()) {
+            return;
+        }
+
+        Map<String, BatchIn> byName = new LinkedHashMap<>();
+        for (BatchIn job : jobs) {
+            byName.put(job.getJobName(), job);
+        }
+
+        // 묶음 내부 간선만 사용 (외부 선행 job 은 호출측에서 확인)
+        Map<String, Integer> waiting = new HashMap<>();
+        Map<String, List<String>> dependents = new HashMap<>();
+
+        for (BatchIn job : jobs) {
+            int count = 0;
+            for (String prerequisite : dependsOn(job)) {
+                if (byName.containsKey(prerequisite)) {
+                    dependents.computeIfAbsent(prerequisite, k -> new ArrayList<>()).add(job.getJobName());
+                    count++;
+                }
+            }
+            waiting.put(job.getJobName(), count);
+        }
+
+        Deque<BatchIn> ready = new ArrayDeque<>();
+        for (BatchIn job : jobs) {
+            if (waiting.get(job.getJobName()) == 0) {
+                ready.add(job);
+            }
+        }
+
+        int limit = Math.max(1, workers);
+
+        CompletionService<Boolean> completion = new ExecutorCompletionService<>(pool);
+        Map<Future<Boolean>, BatchIn> running = new HashMap<>();
+        Set<String> done = new LinkedHashSet<>();
+        Set<String> busyGroups = new HashSet<>();
+
+        try {
+            while (done.size() < jobs.size()) {
+
+                Iterator<BatchIn> candidates = ready.iterator();
+                while (candidates.hasNext() && running.size() < limit) {
+                    BatchIn job = candidates.next();
+                    String group = exclusiveGroup.apply(job);
+                    if (group != null && !busyGroups.add(group)) {
+                        continue;
+                    }
+                    candidates.remove();
+                    running.put(completion.submit(() -> runner.run(job)), job);
+                }
+
+                if (running.isEmpty() && ready.isEmpty()) {
+                    // 남은 job 은 서로를 기다리는 순환 참조
+                    for (BatchIn job : jobs) {
+                        if (done.add(job.getJobName())) {
+                            log.warn("[BatchIn] dependency cycle: jobName={}, dependsOn={}", job.getJobName(), job.getDependsOn());
+                            onSkip.skip(job, "DEPENDENCY_CYCLE");
+                        }
+                    }
+                    break;
+                }
+
+                Future<Boolean> future = completion.take();
+                BatchIn finished = running.remove(future);
+                done.add(finished.getJobName());
+
+                String group = exclusiveGroup.apply(finished);
+                if (group != null) {
+                    busyGroups.remove(group);
+                }
+
+                if (succeeded(future, finished)) {
+                    for (String name : dependents.getOrDefault(finished.getJobName(), List.of())) {
+                        if (waiting.merge(name, -1, Integer::sum) == 0 && !done.contains(name)) {
+                            ready.add(byName.get(name));
+                        }
+                    }
+                } else {
+                    skipDependents(finished.getJobName(), finished.getJobName(), byName, dependents, done, onSkip);
+                }
+            }
+        } catch (InterruptedException e) {
+            running.keySet().forEach(future -> future.cancel(true));
+            throw e;
+        }
+    }
+
+    private static boolean succeeded(Future<Boolean> future, BatchIn job) throws InterruptedException {
+
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            log.error("[BatchIn] job execution error: jobName={}", job.getJobName(), e.getCause());
+            return false;
+        }
+    }
+
+    private static void skipDependents(String failed, String root, Map<String, BatchIn> byName,
+                                       Map<String, List<String>> dependents, Set<String> done, SkipHandler onSkip) {
+
+        for (String name : dependents.getOrDefault(failed, List.of())) {
+            if (done.add(name)) {
+                log.warn("[BatchIn] prerequisite failed, skipped: jobName={}, prerequisite={}", name, root);
+                onSkip.skip(byName.get(name), "DEPENDENCY_FAILED(" + root + ")");
+                skipDependents(name, root, byName, dependents, done, onSkip);
+            }
+        }
+    }
+}
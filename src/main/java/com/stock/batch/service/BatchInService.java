@@ -1,14 +1,18 @@
 package com.stock.batch.service;
 
+import com.stock.batch.cluster.BatchLeaseManager;
 import com.stock.batch.domain.BatchIn;
 import com.stock.batch.domain.BatchInHistory;
+import com.stock.batch.executor.BatchExecutionMode;
 import com.stock.batch.executor.BatchInJobExecutor;
+import com.stock.batch.executor.BatchInPreCleaner;
 import com.stock.batch.executor.BatchInProcessor;
 import com.stock.batch.mapper.BatchInHistoryMapper;
 import com.stock.batch.mapper.BatchInMapper;
 import com.stock.batch.util.BatchScheduleCalculator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.nio.file.Path;
@@ -17,7 +21,14 @@ import java.sql.Timestamp;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
 
 @Slf4j
 @Service
@@ -28,47 +39,350 @@ public class BatchInService {
     private final BatchInHistoryMapper historyMapper;
 //    private final BatchInProcessor processor;
     private final BatchInJobExecutor batchInJobExecutor;
+    private final BatchExecutionMode executionMode;
+    private final BatchLeaseManager leaseManager;
+
+    // depends_on 그래프 동시 실행 job 수 (1 = 순차)
+    @Value("${batch.in.dag.workers:1}")
+    private int dagWorkers;
+
+    // 묶음 밖 선행 job 이 오늘 아직 성공하지 않아 보류된 job (jobId → job)
+    private final Map<Integer, BatchIn> deferredJobs = new ConcurrentHashMap<>();
+
+    // 파일 단위 트리거로 오늘 먼저 적재된 파일 (jobId → 파일명)
+    private final Map<Integer, Set<String>> triggeredFiles = new ConcurrentHashMap<>();
 
     // ===============================
     // 실행 대상 스캔 (BatchOut과 동일 패턴)
+    // - at(분) 기준 실행 대상 job id 만 조회, 실행은 executeJobsById 에서
     // ===============================
-    public void executeDueJobs() {
+    public List<Integer> findDueJobIds(LocalDateTime at) {
 
-        LocalDateTime now = LocalDateTime.now();
-        log.info("[BatchIn] scan start at {}", now);
+        log.info("[BatchIn] scan at {}", at);
+
+        List<BatchIn> jobs =
+                batchInMapper.selectExecutableBatchIn(
+                        format(at.getMonthValue()),
+                        format(at.getDayOfMonth()),
+                        at.getDayOfWeek().name().substring(0, 3),
+                        format(at.getHour()),
+                        format(at.getMinute())
+                );
+
+        log.info("[BatchIn] 실행 대상 BatchIn = {}", jobs.size());
 
+        return jobs.stream().map(BatchIn::getJobId).toList();
+    }
+
+    // ===============================
+    // 파일 도착 트리거 실행 (BatchInFileWatcher)
+    // - 준비 완료된 파일명과 file_pattern 이 맞는 오늘자 job 을 즉시 실행
+    // - 폴더 marker(_READY) : 폴더 전체 작성 완료 → 실행된 job 은 act_gb='Y' (시각 기반 스캔에서 제외)
+    // - 파일 marker({파일명}.ready) : 도착한 파일만 적재, act_gb 는 그대로 두어
+    //   같은 file_pattern 의 이후 파일도 트리거 / 시각 기반 스캔으로 적재된다
+    // ===============================
+    public synchronized void executeTriggeredJobs(List<String> readyFileNames, boolean folderReady) {
+
+        LocalDateTime now = LocalDateTime.now();
         String today = now.format(DateTimeFormatter.ofPattern("yyyyMMdd"));
 
         List<BatchIn> jobs =
-                batchInMapper.selectExecutableBatchIn(
+                batchInMapper.selectDueTodayBatchIn(
                         format(now.getMonthValue()),
                         format(now.getDayOfMonth()),
-                        now.getDayOfWeek().name().substring(0, 3),
-                        format(now.getHour()),
-                        format(now.getMinute())
+                        now.getDayOfWeek().name().substring(0, 3)
                 );
 
-        log.info("[BatchIn] 실행 대상 BatchIn = {}", jobs.size());
+        List<BatchIn> matched = new ArrayList<>();
+        Map<Integer, List<String>> matchedFiles = new HashMap<>();
+
+        for (BatchIn job : jobs) {
+
+            List<String> names = readyFileNames.stream()
+                    .filter(name -> name.startsWith(job.getFilePattern()))
+                    .toList();
+
+            if (!names.isEmpty()) {
+                log.info("[BatchIn] 파일 도착 트리거 실행: jobId={}, jobName={}, files={}, folderReady={}",
+                        job.getJobId(), job.getJobName(), names.size(), folderReady);
+                matched.add(job);
+                matchedFiles.put(job.getJobId(), names);
+            }
+        }
+
+        if (folderReady) {
+            runJobs(matched, today);
+            return;
+        }
+
+        runFileTriggeredJobs(matched, matchedFiles, today);
+    }
+
+    /**
+     * 파일 단위 트리거 실행
+     * - 도착 파일만 적재하고 act_gb / 다음 실행일은 갱신하지 않는다
+     * - 선행 job 이 오늘 성공하지 않은 job 은 보류하지 않고 건너뜀 (시각 기반 실행에서 처리)
+     * - pre-clean 그룹 job 은 실행할 때마다 그룹 테이블을 비우므로 파일 단위로 실행하지 않음
+     * - 적재한 파일은 triggeredFiles 에 기록 → 시각 기반 실행 시 남은 파일이 없어도 NO_FILES 로 보지 않음
+     */
+    private void runFileTriggeredJobs(List<BatchIn> jobs, Map<Integer, List<String>> matchedFiles, String today) {
+
+        List<BatchIn> claimed = claim(jobs, today);
+
+        try {
+            List<String> prerequisites = claimed.stream()
+                    .flatMap(job -> BatchInJobGraph.dependsOn(job).stream())
+                    .distinct()
+                    .toList();
+
+            Set<String> succeeded = prerequisites.isEmpty()
+                    ? Set.of()
+                    : new HashSet<>(historyMapper.selectSucceededJobNamesToday(prerequisites));
+
+            for (BatchIn job : claimed) {
+
+                if (BatchInPreCleaner.groupOf(job.getJobName()) != null) {
+                    log.info("[BatchIn] pre-clean 그룹 job 은 파일 트리거 생략: jobName={}", job.getJobName());
+                    continue;
+                }
 
-        if (jobs.isEmpty()) {
-            log.debug("[BatchIn] 실행 대상 없음");
+                String missing = BatchInJobGraph.dependsOn(job).stream()
+                        .filter(name -> !succeeded.contains(name))
+                        .findFirst()
+                        .orElse(null);
+
+                if (missing != null) {
+                    log.info("[BatchIn] 선행 job 미완료로 파일 트리거 생략: jobName={}, prerequisite={}", job.getJobName(), missing);
+                    continue;
+                }
+
+                if (executeJob(job, today, false)) {
+                    triggeredFiles.computeIfAbsent(job.getJobId(), k -> ConcurrentHashMap.newKeySet())
+                            .addAll(matchedFiles.getOrDefault(job.getJobId(), List.of()));
+                }
+            }
+        } finally {
+            claimed.forEach(job -> leaseManager.release(jobLease(job, today)));
+        }
+    }
+
+    // ===============================
+    // 실행 시점에 도달한 job 실행 (tick / 스케줄 인덱스 공통)
+    // - 실행 직전 재확인 (오늘 이미 실행된 job 제외 → 감지 후 대기 중 다른 경로로 실행된 경우 포함)
+    // ===============================
+    public synchronized void executeJobsById(List<Integer> jobIds) {
+
+        String today = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
+
+        runJobs(batchInMapper.selectBatchInForDispatch(jobIds), today);
+    }
+
+    // ===============================
+    // 보류 job 재확인 (다른 노드에서 선행 job 이 성공한 경우 등)
+    // ===============================
+    public synchronized void retryDeferredJobs() {
+
+        if (deferredJobs.isEmpty()) {
             return;
         }
 
+        String today = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
+        List<Integer> jobIds = new ArrayList<>(deferredJobs.keySet());
+
+        jobIds.forEach(deferredJobs::remove);
+
+        runJobs(batchInMapper.selectBatchInForDispatch(jobIds), today);
+    }
+
+    // ===============================
+    // depends_on 그래프 실행
+    // - 선행 job 이 성공한 job 부터 batch.in.dag.workers 개까지 동시 실행
+    // - 같은 pre-clean 그룹(KODEX / TIGER / NPS) job 은 동시에 실행하지 않음 (TRUNCATE / staging 생성 경합 방지)
+    // - 묶음 밖 선행 job 이 오늘 성공 이력이 없으면 보류 → 해당 선행 job 성공 시 이어서 실행
+    // ===============================
+    private void runJobs(List<BatchIn> jobs, String today) {
+
+        List<BatchIn> batch = jobs;
+        ExecutorService pool = executionMode.newExecutor("batch-in-job", dagWorkers);
+
+        try {
+            while (!batch.isEmpty()) {
+
+                List<BatchIn> claimed = claim(batch, today);
+                Set<String> succeeded = ConcurrentHashMap.newKeySet();
+
+                try {
+                    List<BatchIn> runnable = withSatisfiedPrerequisites(claimed);
+
+                    BatchInJobGraph.run(runnable, dagWorkers, pool, job -> {
+                        log.info("실행 시작: jobId={}, jobName={}", job.getJobId(), job.getJobName());
+                        boolean success = executeJob(job, today, true);
+                        if (success) {
+                            succeeded.add(job.getJobName());
+                        }
+                        return success;
+                    }, this::skipJob, job -> BatchInPreCleaner.groupOf(job.getJobName()));
+
+                } finally {
+                    // 실행 완료 상태는 batch_in 에 남으므로 lease 는 바로 반납 (보류 job 도 재시도 시 다시 점유)
+                    claimed.forEach(job -> leaseManager.release(jobLease(job, today)));
+                }
+
+                batch = releaseDeferred(succeeded);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("[BatchIn] job graph interrupted");
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * 다중 노드 점유 (batch.cluster.enabled)
+     * - lease 를 얻은 job 만 이 노드에서 실행, 점유 후 실행 여부 재확인 (다른 노드가 방금 끝낸 job 제외)
+     */
+    private List<BatchIn> claim(List<BatchIn> jobs, String today) {
+
+        if (!leaseManager.isEnabled() || jobs.isEmpty()) {
+            return jobs;
+        }
+
+        List<Integer> claimedIds = new ArrayList<>();
+
         for (BatchIn job : jobs) {
-            log.info("실행 시작: jobId={}, jobName={}", job.getJobId(), job.getJobName());
-            executeJob(job, today);
+            if (leaseManager.tryAcquire(jobLease(job, today))) {
+                claimedIds.add(job.getJobId());
+            }
+        }
+
+        if (claimedIds.isEmpty()) {
+            return List.of();
+        }
+
+        List<BatchIn> claimed = batchInMapper.selectBatchInForDispatch(claimedIds);
+
+        Set<Integer> verified = new HashSet<>();
+        claimed.forEach(job -> verified.add(job.getJobId()));
+
+        for (Integer jobId : claimedIds) {
+            if (!verified.contains(jobId)) {
+                leaseManager.release(BatchLeaseManager.jobKey(BatchLeaseManager.BATCH_IN, jobId, today));
+            }
+        }
+
+        return claimed;
+    }
+
+    private String jobLease(BatchIn job, String today) {
+        return BatchLeaseManager.jobKey(BatchLeaseManager.BATCH_IN, job.getJobId(), today);
+    }
+
+    /**
+     * 묶음 밖 선행 job 이 모두 오늘 성공한 job 만 반환, 나머지는 보류
+     * - 보류된 job 을 선행으로 가지는 묶음 내 job 도 함께 보류
+     */
+    private List<BatchIn> withSatisfiedPrerequisites(List<BatchIn> batch) {
+
+        Set<String> external = new HashSet<>();
+        Set<String> names = new HashSet<>();
+        batch.forEach(job -> names.add(job.getJobName()));
+
+        for (BatchIn job : batch) {
+            for (String prerequisite : BatchInJobGraph.dependsOn(job)) {
+                if (!names.contains(prerequisite)) {
+                    external.add(prerequisite);
+                }
+            }
+        }
+
+        if (external.isEmpty()) {
+            return batch;
+        }
+
+        Set<String> succeeded = new HashSet<>(historyMapper.selectSucceededJobNamesToday(new ArrayList<>(external)));
+
+        List<BatchIn> runnable = new ArrayList<>(batch);
+        boolean changed = true;
+
+        while (changed) {
+            changed = false;
+
+            for (BatchIn job : new ArrayList<>(runnable)) {
+
+                String missing = BatchInJobGraph.dependsOn(job).stream()
+                        .filter(name -> !names.contains(name) && !succeeded.contains(name))
+                        .findFirst()
+                        .orElse(null);
+
+                if (missing != null) {
+                    runnable.remove(job);
+                    names.remove(job.getJobName());
+                    changed = true;
+                    if (deferredJobs.put(job.getJobId(), job) == null) {
+                        log.info("[BatchIn] 선행 job 대기로 보류: jobName={}, prerequisite={}", job.getJobName(), missing);
+                    }
+                }
+            }
+        }
+
+        return runnable;
+    }
+
+    /**
+     * 방금 성공한 job 을 선행으로 가지는 보류 job 재조회 (그 사이 다른 경로로 실행된 job 제외)
+     */
+    private List<BatchIn> releaseDeferred(Set<String> succeeded) {
+
+        List<Integer> released = new ArrayList<>();
+
+        for (BatchIn job : deferredJobs.values()) {
+            if (BatchInJobGraph.dependsOn(job).stream().anyMatch(succeeded::contains)) {
+                released.add(job.getJobId());
+            }
         }
+
+        if (released.isEmpty()) {
+            return List.of();
+        }
+
+        released.forEach(deferredJobs::remove);
+
+        return batchInMapper.selectBatchInForDispatch(released);
+    }
+
+    /**
+     * 선행 job 실패 / 순환 참조로 실행하지 않은 job → FAIL 이력 후 오늘 실행 완료 처리
+     */
+    private void skipJob(BatchIn job, String reason) {
+
+        long now = System.currentTimeMillis();
+
+        historyMapper.insertBatchInHistory(BatchInHistory.builder()
+                .jobId(job.getJobId())
+                .jobName(job.getJobName())
+                .jobInfo(job.getJobInfo())
+                .execStartTime(new Timestamp(now))
+                .execEndTime(new Timestamp(now))
+                .execStatus("FAIL")
+                .execMessage(reason)
+                .execDate(Date.valueOf(LocalDate.now()))
+                .durationMs(0L)
+                .build());
+
+        markExecuted(job);
     }
 
     // ===============================
     // 단일 Job 실행
+    // - complete = false : 파일 단위 트리거 실행 (이력만 남기고 act_gb / 다음 실행일 갱신 안 함)
     // ===============================
-    private void executeJob(BatchIn job, String today) {
+    private boolean executeJob(BatchIn job, String today, boolean complete) {
 
         long start = System.currentTimeMillis();
         String status = "SUCCESS";
         String execMessage = "NO_ERROR";
+        boolean partialFail = false;
 
         try {
 //            BatchInProcessor.BatchResult result = processor.executeBatch(today, job.getFilePattern());
@@ -80,16 +394,34 @@ public class BatchInService {
                             job.getFilePattern()
                     );
 
+            if (!complete) {
+                if (result.total() == 0) {
+                    // 다른 job / 노드가 먼저 적재 → 이력 없이 종료
+                    return false;
+                }
+                execMessage = "FILE_TRIGGER(" + result.success() + "/" + result.total() + ")";
+                if (result.fail() > 0) {
+                    status = "FAIL";
+                }
+
             // 이동 전용 Job은 파일 수로 판단하지 않는다
-            if (job.getJobName().startsWith("FOLDER_MOVE")) {
+            } else if (job.getJobName().startsWith("FOLDER_MOVE")) {
                 execMessage = "MOVE_SUCCESS";
 
             } else {
-                if (result.total() == 0) {
+                int triggered = triggeredFiles.getOrDefault(job.getJobId(), Set.of()).size();
+
+                if (result.total() == 0 && triggered > 0) {
+                    // 오늘 파일 단위 트리거로 이미 모두 적재
+                    execMessage = "FILE_TRIGGERED(" + triggered + ")";
+                } else if (result.total() == 0) {
                     status = "FAIL";
                     execMessage = "NO_FILES";
                 } else if (result.fail() > 0) {
                     execMessage = "PARTIAL_FAIL(" + result.fail() + ")";
+                    partialFail = true;
+                } else if (result.skipped() > 0) {
+                    execMessage = "UNCHANGED_SKIP(" + result.skipped() + ")";
                 }
             }
 
@@ -115,6 +447,16 @@ public class BatchInService {
 
         historyMapper.insertBatchInHistory(history);
 
+        if (complete) {
+            markExecuted(job);
+        }
+
+        // 일부 파일 실패는 이력상 SUCCESS 로 남기되 후행 job 실행 판단에서는 실패로 본다
+        return "SUCCESS".equals(status) && !partialFail;
+    }
+
+    private void markExecuted(BatchIn job) {
+
         job.setActGb("Y");
         job.setLastExecInfo(LocalDate.now().toString());
         job.setNextExecInfo(
@@ -132,6 +474,15 @@ public class BatchInService {
     // act_gb 리셋 (BatchOut과 대칭)
     // ===============================
     public void resetActGb() {
+
+        if (!deferredJobs.isEmpty()) {
+            log.warn("[BatchIn] 선행 job 미완료로 실행되지 않은 job: {}",
+                    deferredJobs.values().stream().map(BatchIn::getJobName).toList());
+            deferredJobs.clear();
+        }
+
+        triggeredFiles.clear();
+
         batchInMapper.resetAllActGb();
     }
 
@@ -143,7 +494,20 @@ public class BatchInService {
 
         int cnt = batchInMapper.resetActGbByLastExecBeforeToday();
 
-        log.info("[BatchOut] startup act_gb reset done (count={})", cnt);
+        log.info("[BatchIn] startup act_gb reset done (count={})", cnt);
+
+        // 비정상 종료로 중단된 checkpoint 적재 재개
+        try {
+            String today = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
+            BatchInProcessor.BatchResult result = batchInJobExecutor.resume(today);
+
+            if (result.total() > 0) {
+                log.info("[BatchIn] checkpoint resume done: total={}, success={}, fail={}",
+                        result.total(), result.success(), result.fail());
+            }
+        } catch (Exception e) {
+            log.error("[BatchIn] checkpoint resume failed", e);
+        }
     }
 
 }
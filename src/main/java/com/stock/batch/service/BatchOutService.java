@@ -1,5 +1,6 @@
 package com.stock.batch.service;
 
+import com.stock.batch.cluster.BatchLeaseManager;
 import com.stock.batch.domain.BatchOut;
 import com.stock.batch.domain.StockJobQueue;
 import com.stock.batch.mapper.BatchOutMapper;
@@ -7,10 +8,13 @@ import com.stock.batch.mapper.StockJobQueueMapper;
 import com.stock.batch.util.BatchScheduleCalculator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.List;
 
 @Slf4j
@@ -20,40 +24,68 @@ public class BatchOutService {
 
     private final BatchOutMapper batchOutMapper;
     private final StockJobQueueMapper stockJobWaitingMapper;
+    private final BatchLeaseManager leaseManager;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
-     * 스케줄에 따라 실행 대상 BatchOut 조회
-     * → 실행 요청(stock_job_waiting) 생성
+     * 스케줄에 따라 at(분) 기준 실행 대상 BatchOut id 조회
+     * → 실행 요청 생성은 executeJobsById
      */
-    public void executeDueJobs() {
+    public List<Integer> findDueJobIds(LocalDateTime at) {
 
-        LocalDateTime now = LocalDateTime.now();
-        log.info("[BatchOut] scan start at {}", now);
+        log.info("[BatchOut] scan at {}", at);
 
         List<BatchOut> jobs =
                 batchOutMapper.selectExecutableBatchOut(
-                        format(now.getMonthValue()),
-                        format(now.getDayOfMonth()),
-                        now.getDayOfWeek().name().substring(0, 3),
-                        format(now.getHour()),
-                        format(now.getMinute())
+                        format(at.getMonthValue()),
+                        format(at.getDayOfMonth()),
+                        at.getDayOfWeek().name().substring(0, 3),
+                        format(at.getHour()),
+                        format(at.getMinute())
                 );
 
         log.info("[BatchOut] 실행 대상 BatchOut = {}", jobs.size());
 
-        if (jobs.isEmpty()) {
-            log.debug("[BatchOut] 실행 대상 없음");
-            return;
-        }
+        return jobs.stream().map(BatchOut::getJobId).toList();
+    }
 
-        for (BatchOut job : jobs) {
-            log.info(
-                    "[BatchOut] 실행 요청 생성: jobId={}, jobName={}, jobCode={}",
-                    job.getJobId(),
-                    job.getJobName(),
-                    job.getShellFileDir()
-            );
-            createExecutionRequest(job);
+    /**
+     * 실행 시점에 도달한 job 실행 요청 생성 (tick / 스케줄 인덱스 / 만료 lease 회수 공통)
+     * (오늘 이미 요청된 job 은 조회 단계에서 제외)
+     * - 다중 노드(batch.cluster.enabled)에서는 job lease 를 얻은 노드만 요청 생성
+     */
+    public void executeJobsById(List<Integer> jobIds) {
+
+        String today = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
+
+        for (BatchOut job : batchOutMapper.selectBatchOutForDispatch(jobIds)) {
+
+            String leaseKey = BatchLeaseManager.jobKey(BatchLeaseManager.BATCH_OUT, job.getJobId(), today);
+
+            if (!leaseManager.tryAcquire(leaseKey)) {
+                continue;
+            }
+
+            try {
+                // 점유 후 재확인 (다른 노드가 방금 요청을 생성한 경우 제외)
+                if (leaseManager.isEnabled() && batchOutMapper.selectBatchOutForDispatch(List.of(job.getJobId())).isEmpty()) {
+                    continue;
+                }
+
+                log.info(
+                        "[BatchOut] 실행 요청 생성: jobId={}, jobName={}, jobCode={}",
+                        job.getJobId(),
+                        job.getJobName(),
+                        job.getShellFileDir()
+                );
+                createExecutionRequest(job);
+
+            } catch (Exception e) {
+                // act_gb 미갱신 → 다음 스캔에서 다시 요청 (나머지 job 은 계속 처리)
+                log.error("[BatchOut] 실행 요청 생성 실패: jobId={}, jobCode={}", job.getJobId(), job.getShellFileDir(), e);
+            } finally {
+                leaseManager.release(leaseKey);
+            }
         }
     }
 
@@ -66,20 +98,37 @@ public class BatchOutService {
         // BatchOut 실행 요청을 Queue(stock_job_queue)에 등록
         // 실제 배치 실행은 별도의 Worker에서 처리
         // status = W (Waiting)
+        // exec_date = 멱등 key (진행 중(W / R) 요청의 batch_out_id, exec_date)
+        // → 재기동 / 다중 노드의 중복 요청은 1건만 등록, 실패 / 완료 후 같은 날 재요청은 새로 등록
         StockJobQueue waiting = StockJobQueue.builder()
                 .jobCode(job.getShellFileDir())   // ex) KospiUpdate
                 .status("W")
                 .batchOutId(job.getJobId())
+                .execDate(LocalDate.now())
                 .build();
 
         // StockJobQueue 객체를 DB에 INSERT하여 배치 실행 요청 등록
-        stockJobWaitingMapper.insertWaiting(waiting);
+        // 중복 키 외의 오류(NOT NULL / FK 등)는 그대로 전파 → act_gb 갱신 없이 실패 처리
+        try {
+            stockJobWaitingMapper.insertWaiting(waiting);
 
-        log.info(
-                "[BatchOut] stock_job_waiting INSERT 완료: jobId={}, jobCode={}",
-                job.getJobId(),
-                job.getShellFileDir()
-        );
+            log.info(
+                    "[BatchOut] stock_job_waiting INSERT 완료: jobId={}, jobCode={}",
+                    job.getJobId(),
+                    job.getShellFileDir()
+            );
+
+            // 대기 중인 queue 소비자 즉시 깨움 (poll 주기 대기 없이 시작)
+            eventPublisher.publishEvent(new StockJobQueuedEvent(waiting.getJobCode(), job.getJobId()));
+
+        } catch (DuplicateKeyException e) {
+            // 오늘자 요청이 아직 대기 / 실행 중 → 새로 등록하지 않고 실행 상태만 갱신
+            log.info(
+                    "[BatchOut] 오늘자 실행 요청 진행 중 (중복 등록 생략): jobId={}, jobCode={}",
+                    job.getJobId(),
+                    job.getShellFileDir()
+            );
+        }
 
         // BatchOut 실행 상태 갱신 (Java Batch의 책임)
         // BatchOut 실행 상태 갱신
@@ -0,0 +1,254 @@
+package com.stock.batch.service;
+
+import com.stock.batch.domain.BatchOut;
+import com.stock.batch.domain.BatchOutHistory;
+import com.stock.batch.domain.PythonJobResult;
+import com.stock.batch.domain.StockJobInfo;
+import com.stock.batch.domain.StockJobQueue;
+import com.stock.batch.executor.BatchExecutionMode;
+import com.stock.batch.executor.PythonBatchJob;
+import com.stock.batch.mapper.BatchOutHistoryMapper;
+import com.stock.batch.mapper.BatchOutMapper;
+import com.stock.batch.mapper.StockJobInfoMapper;
+import com.stock.batch.mapper.StockJobQueueMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * stock_job_queue 소비 (StockJobQueueWorker)
+ * - 대기(W) 작업을 FOR UPDATE SKIP LOCKED 로 여러 건 한 번에 점유 → R
+ * - 점유 순서: priority 등급이 낮은(급한) 작업 우선, 같은 등급 안에서는 job_code 별
+ *   share_weight 대비 실행 횟수가 적은 job_code 우선 (weighted fair share), 같으면 요청 순
+ * - 오래 기다린 작업은 aging 으로 priority 가 올라가 후순위 등급도 굶지 않는다
+ * - job_code → stock_job_info.handler_name 스크립트를 PythonBatchJob 으로 실행
+ * - 종료 상태(S / F) 기록 + batch_out_h 이력 저장 (실행 중 예외도 F + 이력)
+ * - 중단된 실행(R)은 기동 시 재대기, 오래된 R 은 주기적으로 F 처리 (recoverRunning, 자기 worker 점유분만)
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StockJobQueueService {
+
+    private static final int DEFAULT_PRIORITY = 5;
+
+    private final StockJobQueueMapper queueMapper;
+    private final StockJobInfoMapper jobInfoMapper;
+    private final BatchOutMapper batchOutMapper;
+    private final BatchOutHistoryMapper historyMapper;
+    private final PythonBatchJob pythonBatchJob;
+    private final BatchExecutionMode executionMode;
+
+    // job_code → 최근 실행 횟수 / share_weight (aging 주기마다 절반으로 감쇠)
+    private final Map<String, Double> served = new ConcurrentHashMap<>();
+
+    /**
+     * 대기 작업 점유
+     * - scanRows 건을 잠그고 accept 를 통과한 작업만 최대 limit 건 R 로 변경
+     * - 나머지는 commit 시 잠금만 풀리고 W 로 남는다
+     *
+     * @param owner  점유 worker (claimed_by)
+     * @param accept job_code 별 동시 실행 상한 확인 (통과 시 호출측이 실행 슬롯 예약)
+     */
+    @Transactional
+    public List<StockJobQueue> claim(int limit, int scanRows, String owner, Predicate<StockJobQueue> accept) {
+
+        List<StockJobQueue> candidates = new ArrayList<>(queueMapper.selectWaitingForUpdate(Math.max(limit, scanRows)));
+        List<StockJobQueue> claimed = new ArrayList<>();
+
+        if (candidates.isEmpty()) {
+            return claimed;
+        }
+
+        Map<String, Integer> weights = shareWeights(candidates);
+
+        while (claimed.size() < limit && !candidates.isEmpty()) {
+
+            StockJobQueue next = nextFair(candidates, weights);
+            candidates.remove(next);
+
+            if (accept.test(next)) {
+                claimed.add(next);
+                served.merge(String.valueOf(next.getJobCode()), 1.0 / weights.getOrDefault(next.getJobCode(), 1), Double::sum);
+            } else {
+                // job_code 상한 도달 → 같은 job_code 는 이번 점유에서 제외
+                candidates.removeIf(item -> Objects.equals(item.getJobCode(), next.getJobCode()));
+            }
+        }
+
+        if (!claimed.isEmpty()) {
+            queueMapper.updateStatusRunningByIds(claimed.stream().map(StockJobQueue::getWaitId).toList(), owner);
+        }
+
+        return claimed;
+    }
+
+    /**
+     * 가장 급한 priority 등급 안에서 가중 실행 횟수가 가장 적은 job_code 의 가장 오래된 작업
+     * (candidates 는 priority, requested_at 순)
+     */
+    private StockJobQueue nextFair(List<StockJobQueue> candidates, Map<String, Integer> weights) {
+
+        int topPriority = priorityOf(candidates.get(0));
+
+        StockJobQueue best = null;
+        double bestServed = Double.MAX_VALUE;
+
+        for (StockJobQueue item : candidates) {
+
+            if (priorityOf(item) != topPriority) {
+                break;
+            }
+
+            double itemServed = served.getOrDefault(String.valueOf(item.getJobCode()), 0.0);
+
+            if (itemServed < bestServed) {
+                best = item;
+                bestServed = itemServed;
+            }
+        }
+
+        return best;
+    }
+
+    private int priorityOf(StockJobQueue item) {
+        return item.getPriority() == null ? DEFAULT_PRIORITY : item.getPriority();
+    }
+
+    private Map<String, Integer> shareWeights(List<StockJobQueue> candidates) {
+
+        List<String> codes = candidates.stream()
+                .map(StockJobQueue::getJobCode)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+
+        Map<String, Integer> weights = new HashMap<>();
+
+        if (!codes.isEmpty()) {
+            for (StockJobInfo info : jobInfoMapper.selectByJobCodes(codes)) {
+                weights.put(info.getJobCode(), info.getShareWeight() == null ? 1 : Math.max(1, info.getShareWeight()));
+            }
+        }
+
+        return weights;
+    }
+
+    /**
+     * 대기 작업 aging + fair share 실행 횟수 감쇠
+     */
+    public void age(int agingMinutes) {
+
+        int aged = queueMapper.agePriorities(Math.max(1, agingMinutes));
+
+        served.replaceAll((code, count) -> count / 2);
+        served.values().removeIf(count -> count < 0.01);
+
+        if (aged > 0) {
+            log.info("[Queue] priority aged: rows={}", aged);
+        }
+    }
+
+    /**
+     * 점유한 작업 1건 실행 → 종료 상태 / 이력 기록
+     * - 조회 / 기록 구간만 DB permit 사용 (Python 실행 중에는 Python slot 만 점유)
+     */
+    public void run(StockJobQueue item) throws Exception {
+
+        long start = System.currentTimeMillis();
+
+        StockJobInfo info = executionMode.withDbPermit(() -> jobInfoMapper.selectByJobCode(item.getJobCode()));
+
+        PythonJobResult result;
+
+        if (info == null || info.getHandlerName() == null || info.getHandlerName().isBlank()) {
+            log.warn("[Queue] handler not found: waitId={}, jobCode={}", item.getWaitId(), item.getJobCode());
+            result = new PythonJobResult("FAIL", 0, 0, "UNKNOWN_JOB_CODE", null);
+        } else {
+            log.info("[Queue] run: waitId={}, jobCode={}, handler={}", item.getWaitId(), item.getJobCode(), info.getHandlerName());
+            result = pythonBatchJob.runPythonScript(info.getHandlerName());
+        }
+
+        long end = System.currentTimeMillis();
+        PythonJobResult finished = result;
+
+        executionMode.withDbPermit(() -> {
+            finish(item, finished, start, end);
+            return null;
+        });
+    }
+
+    /**
+     * 실행 중 예외로 끝난 작업 → F + 실패 이력 (R 로 남지 않도록)
+     */
+    public void fail(StockJobQueue item, long start, Exception e) throws Exception {
+
+        String message = "SYSTEM_ERROR: " + (e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        long end = System.currentTimeMillis();
+
+        executionMode.withDbPermit(() -> {
+            finish(item, new PythonJobResult("FAIL", 0, 0, message, null), start, end);
+            return null;
+        });
+    }
+
+    /**
+     * 중단된 실행(R) 정리
+     *
+     * @param staleMinutes started_at 경과 분 (0 = 전체)
+     * @param status       W(재대기) / F(실패)
+     * @param owner        점유 worker (이 worker 가 점유한 작업만 대상)
+     */
+    public int recoverRunning(int staleMinutes, String status, String owner) {
+
+        int recovered = queueMapper.recoverRunning(Math.max(0, staleMinutes), status, owner);
+
+        if (recovered > 0) {
+            log.warn("[Queue] interrupted jobs recovered: rows={}, staleMinutes={}, status={}, owner={}", recovered, staleMinutes, status, owner);
+        }
+
+        return recovered;
+    }
+
+    private void finish(StockJobQueue item, PythonJobResult result, long start, long end) {
+
+        boolean success = "SUCCESS".equals(result.getStatus());
+
+        queueMapper.updateStatusFinished(item.getWaitId(), success ? "S" : "F");
+
+        // batch_out_id 없는 작업(외부 등록)은 job_code 로 이력 기록
+        BatchOut job = item.getBatchOutId() != null ? batchOutMapper.selectBatchOutById(item.getBatchOutId()) : null;
+
+        String execMessage = success
+                ? "ROWS=" + result.getRowCount() + ", CODES=" + result.getCodeCount()
+                        + (result.getResultId() != null ? ", RESULT_ID=" + result.getResultId() : "")
+                : result.getErrorMsg();
+
+        historyMapper.insertBatchOutHistory(BatchOutHistory.builder()
+                .jobId(item.getBatchOutId())
+                .jobName(job != null ? job.getJobName() : item.getJobCode())
+                .jobInfo(job != null ? job.getJobInfo() : null)
+                .execStartTime(new Timestamp(start))
+                .execEndTime(new Timestamp(end))
+                .execStatus(success ? "SUCCESS" : "FAIL")
+                .execMessage(execMessage)
+                .execDate(Date.valueOf(LocalDate.now()))
+                .durationMs(end - start)
+                .build());
+
+        log.info("[Queue] done: waitId={}, jobCode={}, status={}, durationMs={}",
+                item.getWaitId(), item.getJobCode(), success ? "S" : "F", end - start);
+    }
+}
@@ -0,0 +1,7 @@
+package com.stock.batch.service;
+
+/**
+ * stock_job_queue 대기 작업 등록 알림 (DB 행이 기준, 이벤트는 대기 중인 소비자를 깨우는 용도)
+ */
+public record StockJobQueuedEvent(String jobCode, int batchOutId) {
+}
@@ -0,0 +1,145 @@
+package com.stock.batch.util;
+
+/**
+ * BatchIn 적재 값 정제 규칙
+ * - JDBC 바인딩(BatchInColumnBinder)과 LOAD DATA 텍스트 변환이 같은 규칙을 쓰도록 한 곳에 모아둔다
+ */
+public class BatchInValueCleaner {
+
+    /**
+     * trim 후 null 취급 문자열(공백, none, null, nan)이면 null 반환
+     */
+    public static String clean(String raw) {
+
+        if (raw == null) {
+            return null;
+        }
+
+        String cleaned = raw.trim();
+
+        if (cleaned.isEmpty() || cleaned.equalsIgnoreCase("none") || cleaned.equalsIgnoreCase("null") || cleaned.equalsIgnoreCase("nan")) {
+            return null;
+        }
+
+        return cleaned;
+    }
+
+    /**
+     * kodex_etf_* 전용 base_date (yyyy.MM.dd → yyyyMMdd)
+     */
+    public static boolean isDottedBaseDate(String tableName, String header) {
+        return header.equalsIgnoreCase("base_date") && tableName.toLowerCase().startsWith("kodex_etf");
+    }
+
+    /**
+     * 코드 계열은 문자열 고정
+     */
+    public static boolean isCodeColumn(String header) {
+        String col = header.toLowerCase();
+        return col.equals("code") || col.equals("stock_code") || col.equals("etf_id") || col.equals("cik");
+    }
+
+    /**
+     * 컬럼 룰을 적용한 텍스트 값 (LOAD DATA 용)
+     * - 숫자로 해석되는 값은 천단위 콤마 제거
+     */
+    public static String toText(String tableName, String header, String raw) {
+
+        String cleaned = clean(raw);
+
+        if (cleaned == null) {
+            return null;
+        }
+
+        if (isDottedBaseDate(tableName, header)) {
+            return cleaned.replace(".", "");
+        }
+
+        if (isCodeColumn(header)) {
+            return cleaned;
+        }
+
+        return isNumeric(cleaned) ? stripComma(cleaned) : cleaned;
+    }
+
+    /**
+     * 숫자 형식 여부 (부호, 천단위 콤마, 소수점, 지수 허용)
+     * - 예외 없이 판별하기 위한 scanner
+     */
+    public static boolean isNumeric(String v) {
+
+        int i = 0;
+        int len = v.length();
+        boolean digits = false;
+
+        if (i < len && (v.charAt(i) == '+' || v.charAt(i) == '-')) {
+            i++;
+        }
+
+        while (i < len && (isDigit(v.charAt(i)) || (digits && v.charAt(i) == ','))) {
+            digits = true;
+            i++;
+        }
+
+        if (i < len && v.charAt(i) == '.') {
+            i++;
+            while (i < len && isDigit(v.charAt(i))) {
+                digits = true;
+                i++;
+            }
+        }
+
+        if (!digits) {
+            return false;
+        }
+
+        if (i < len && (v.charAt(i) == 'e' || v.charAt(i) == 'E')) {
+            i++;
+            if (i < len && (v.charAt(i) == '+' || v.charAt(i) == '-')) {
+                i++;
+            }
+            int expStart = i;
+            while (i < len && isDigit(v.charAt(i))) {
+                i++;
+            }
+            if (i == expStart) {
+                return false;
+            }
+        }
+
+        return i == len;
+    }
+
+    /**
+     * long 범위 정수 형식 여부 (부호, 천단위 콤마 허용)
+     */
+    public static boolean isInteger(String v) {
+
+        int i = 0;
+        int len = v.length();
+        int digits = 0;
+
+        if (i < len && (v.charAt(i) == '+' || v.charAt(i) == '-')) {
+            i++;
+        }
+
+        for (; i < len; i++) {
+            char c = v.charAt(i);
+            if (isDigit(c)) {
+                digits++;
+            } else if (c != ',' || digits == 0) {
+                return false;
+            }
+        }
+
+        return digits > 0 && digits <= 18;
+    }
+
+    public static String stripComma(String v) {
+        return v.indexOf(',') < 0 ? v : v.replace(",", "");
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
@@ -5,12 +5,16 @@ import com.stock.batch.domain.SchedulableJob;
 
 import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Objects;
 
 public class BatchScheduleCalculator {
 
     public static LocalDate calculateNextExecDate(SchedulableJob job, LocalDate today) {
 
-        return switch (job.getScheduleGb()) {
+        // schedule_gb 가 비어 있으면 일 배치로 취급 (기존 default 와 동일)
+        return switch (Objects.toString(job.getScheduleGb(), "")) {
 
             // ======================
             // MONTHLY
@@ -53,6 +57,61 @@ public class BatchScheduleCalculator {
         };
     }
 
+    // 연 배치 2/29 대비 탐색 범위
+    private static final int MAX_SEARCH_DAYS = 366 * 4 + 1;
+
+    /**
+     * after 이후(초과) 첫 실행 시각 (selectExecutable* 쿼리와 같은 일자 조건)
+     * - D: 매일 / W: job_week 요일 / M: job_day 일 / Y: job_month 월 job_day 일
+     * - 실행 시각은 job_hour:job_min (초 0)
+     *
+     * @return 실행 시각, 조건에 맞는 날이 없거나 시각 값이 잘못되었으면 null
+     */
+    public static LocalDateTime nextFireTime(SchedulableJob job, LocalDateTime after) {
+
+        LocalTime time;
+
+        try {
+            time = LocalTime.of(Integer.parseInt(job.getJobHour().trim()), Integer.parseInt(job.getJobMin().trim()));
+        } catch (RuntimeException e) {
+            return null;
+        }
+
+        LocalDate date = after.toLocalDate();
+
+        for (int i = 0; i < MAX_SEARCH_DAYS; i++, date = date.plusDays(1)) {
+
+            if (!matchesDate(job, date)) {
+                continue;
+            }
+
+            LocalDateTime fireAt = date.atTime(time);
+
+            if (fireAt.isAfter(after)) {
+                return fireAt;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * 일자 조건 일치 여부 (selectExecutable* 쿼리의 schedule_gb 조건과 동일)
+     * - schedule_gb 가 비어 있으면 일 배치 (calculateNextExecDate 와 동일)
+     * - 알 수 없는 값이면 어느 날짜와도 일치하지 않음
+     */
+    public static boolean matchesDate(SchedulableJob job, LocalDate date) {
+
+        return switch (Objects.toString(job.getScheduleGb(), "")) {
+            case "D", "" -> true;
+            case "W" -> date.getDayOfWeek().name().substring(0, 3).equals(job.getJobWeek());
+            case "M" -> String.format("%02d", date.getDayOfMonth()).equals(job.getJobDay());
+            case "Y" -> String.format("%02d", date.getMonthValue()).equals(job.getJobMonth())
+                    && String.format("%02d", date.getDayOfMonth()).equals(job.getJobDay());
+            default -> false;
+        };
+    }
+
     private static DayOfWeek toDayOfWeek(String week) {
         return switch (week) {
             case "MON" -> DayOfWeek.MONDAY;
@@ -0,0 +1,19 @@
+-- =========================================================
+-- BatchSystem 스키마 보강 : 중복 파일 적재 생략 (MariaDB 10.5+)
+-- - 배포 전 1회 적용, 여러 번 실행해도 안전 (IF NOT EXISTS)
+-- =========================================================
+
+-- ---------------------------------------------------------
+-- batch_in_manifest : 적재 완료 파일 (batch.in.manifest.enabled)
+-- ---------------------------------------------------------
+CREATE TABLE IF NOT EXISTS batch_in_manifest (
+    manifest_id bigint(20)   NOT NULL AUTO_INCREMENT,
+    table_name  varchar(100) NOT NULL,
+    file_name   varchar(255) NOT NULL,
+    file_size   bigint(20)   NOT NULL,
+    file_hash   char(64)     NOT NULL,
+    loaded_at   datetime     NULL DEFAULT current_timestamp(),
+    PRIMARY KEY (manifest_id),
+    UNIQUE KEY uk_batch_in_manifest (table_name, file_hash),
+    KEY idx_batch_in_manifest_latest (table_name, loaded_at)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
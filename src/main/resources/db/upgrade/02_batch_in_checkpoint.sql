@@ -0,0 +1,21 @@
+-- =========================================================
+-- BatchSystem 스키마 보강 : chunk commit checkpoint (MariaDB 10.5+)
+-- - 배포 전 1회 적용, 여러 번 실행해도 안전 (IF NOT EXISTS)
+-- =========================================================
+
+-- ---------------------------------------------------------
+-- batch_in_checkpoint : chunk commit 위치 (batch.in.checkpoint.tables)
+-- ---------------------------------------------------------
+CREATE TABLE IF NOT EXISTS batch_in_checkpoint (
+    file_hash   char(64)      NOT NULL,
+    table_name  varchar(100)  NOT NULL,
+    file_name   varchar(255)  NOT NULL,
+    file_path   varchar(1000) NULL,
+    byte_offset bigint(20)    NOT NULL,
+    row_num     bigint(20)    NOT NULL,
+    updated_at  datetime      NULL DEFAULT current_timestamp(),
+    PRIMARY KEY (file_hash)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+ALTER TABLE batch_in_checkpoint
+    ADD COLUMN IF NOT EXISTS file_path varchar(1000) NULL AFTER file_name;
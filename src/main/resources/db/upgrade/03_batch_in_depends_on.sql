@@ -0,0 +1,11 @@
+-- =========================================================
+-- BatchSystem 스키마 보강 : job 선행 관계 (MariaDB 10.5+)
+-- - 배포 전 1회 적용, 여러 번 실행해도 안전 (IF NOT EXISTS)
+-- =========================================================
+
+-- ---------------------------------------------------------
+-- batch_in : depends_on (선행 job_name 목록, 콤마 구분)
+--   BatchInMapper 조회에 포함되므로 batch.in.dag.workers 와 관계없이 필요
+-- ---------------------------------------------------------
+ALTER TABLE batch_in
+    ADD COLUMN IF NOT EXISTS depends_on varchar(500) NULL AFTER file_pattern;
@@ -0,0 +1,16 @@
+-- =========================================================
+-- BatchSystem 스키마 보강 : 다중 노드 lease (MariaDB 10.5+)
+-- - 배포 전 1회 적용, 여러 번 실행해도 안전 (IF NOT EXISTS)
+-- =========================================================
+
+-- ---------------------------------------------------------
+-- batch_lease : 다중 노드 작업 점유 (batch.cluster.enabled)
+-- ---------------------------------------------------------
+CREATE TABLE IF NOT EXISTS batch_lease (
+    lease_key   varchar(200) NOT NULL,
+    owner_node  varchar(100) NOT NULL,
+    expires_at  datetime     NOT NULL,
+    acquired_at datetime     NOT NULL,
+    PRIMARY KEY (lease_key),
+    KEY idx_batch_lease_expires (expires_at)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
@@ -0,0 +1,11 @@
+-- =========================================================
+-- BatchSystem 스키마 보강 : Java queue worker 점유 노드 (MariaDB 10.5+)
+-- - 배포 전 1회 적용, 여러 번 실행해도 안전 (IF NOT EXISTS)
+-- =========================================================
+
+-- ---------------------------------------------------------
+-- stock_job_queue : claimed_by (R 로 점유한 worker, 외부 Python runner 점유분은 NULL)
+--   중단된 실행(R) 복구는 자기 worker 가 점유한 행만 대상
+-- ---------------------------------------------------------
+ALTER TABLE stock_job_queue
+    ADD COLUMN IF NOT EXISTS claimed_by varchar(100) NULL;
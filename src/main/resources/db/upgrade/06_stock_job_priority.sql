@@ -0,0 +1,21 @@
+-- =========================================================
+-- BatchSystem 스키마 보강 : queue 우선순위 / fair share (MariaDB 10.5+)
+-- - 배포 전 1회 적용, 여러 번 실행해도 안전 (IF NOT EXISTS)
+-- =========================================================
+
+-- ---------------------------------------------------------
+-- stock_job_info : queue 우선순위 등급 / fair share 비중
+-- ---------------------------------------------------------
+ALTER TABLE stock_job_info
+    ADD COLUMN IF NOT EXISTS priority     tinyint(4) NOT NULL DEFAULT 5,
+    ADD COLUMN IF NOT EXISTS share_weight int(11)    NOT NULL DEFAULT 1;
+
+-- ---------------------------------------------------------
+-- stock_job_queue : 우선순위 / aging
+-- ---------------------------------------------------------
+ALTER TABLE stock_job_queue
+    ADD COLUMN IF NOT EXISTS priority      tinyint(4) NOT NULL DEFAULT 5,
+    ADD COLUMN IF NOT EXISTS base_priority tinyint(4) NOT NULL DEFAULT 5;
+
+CREATE INDEX IF NOT EXISTS idx_stock_job_queue_claim
+    ON stock_job_queue (status, priority, requested_at);
@@ -0,0 +1,21 @@
+-- =========================================================
+-- BatchSystem 스키마 보강 : queue 요청 멱등 key (MariaDB 10.5+)
+-- - 배포 전 1회 적용, 여러 번 실행해도 안전 (IF NOT EXISTS)
+-- =========================================================
+
+-- ---------------------------------------------------------
+-- stock_job_queue : 실행 기준일 + 진행 중(W / R) 요청 unique
+--   live_batch_out_id 는 W / R 인 동안만 batch_out_id, 종료(S / F) 후 NULL
+--   → 같은 날 같은 job 의 진행 중 요청은 1건, 실패 / 완료 후 재요청은 허용
+--   기존 행의 exec_date 는 NULL 로 남는다 (NULL 은 unique 충돌 없음)
+-- ---------------------------------------------------------
+ALTER TABLE stock_job_queue
+    ADD COLUMN IF NOT EXISTS exec_date         date       NULL,
+    ADD COLUMN IF NOT EXISTS live_batch_out_id bigint(20)
+        AS (CASE WHEN status IN ('W', 'R') THEN batch_out_id END) PERSISTENT;
+
+-- 이전 (batch_out_id, exec_date) unique 는 실패 후 재요청까지 막으므로 제거
+DROP INDEX IF EXISTS uq_stock_job_queue_request ON stock_job_queue;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_stock_job_queue_live
+    ON stock_job_queue (live_batch_out_id, exec_date);
@@ -0,0 +1,144 @@
+package com.stock.batch.cluster;
+
+import com.stock.batch.mapper.BatchLeaseMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class BatchLeaseManagerTest {
+
+    private final BatchLeaseMapper leaseMapper = mock(BatchLeaseMapper.class);
+
+    private final BatchLeaseManager manager = new BatchLeaseManager(leaseMapper);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(manager, "enabled", true);
+        ReflectionTestUtils.setField(manager, "nodeId", "node-a");
+        ReflectionTestUtils.setField(manager, "ttlSeconds", 120);
+    }
+
+    @Test
+    void leaseIsAcquiredOnlyWhenThisNodeOwnsTheRow() {
+
+        when(leaseMapper.selectOwner("IN:7:20261018")).thenReturn("node-a");
+        when(leaseMapper.selectOwner("IN:8:20261018")).thenReturn("node-b");
+
+        assertThat(manager.tryAcquire("IN:7:20261018")).isTrue();
+        assertThat(manager.tryAcquire("IN:8:20261018")).isFalse();
+
+        verify(leaseMapper).upsertLease("IN:7:20261018", "node-a", 120);
+
+        // 종료 시 보유 lease 만 반납
+        manager.shutdown();
+
+        verify(leaseMapper).deleteLease("IN:7:20261018", "node-a");
+        verify(leaseMapper, never()).deleteLease("IN:8:20261018", "node-a");
+    }
+
+    @Test
+    void disabledClusterAlwaysAcquiresWithoutDatabase() {
+
+        ReflectionTestUtils.setField(manager, "enabled", false);
+
+        assertThat(manager.tryAcquire("FILE:20261018/a.csv")).isTrue();
+        assertThat(manager.expiredJobIds(BatchLeaseManager.BATCH_IN, "20261018")).isEmpty();
+        manager.heartbeat();
+
+        verifyNoInteractions(leaseMapper);
+    }
+
+    @Test
+    void expiredJobIdsAreFilteredByTypeAndDay() {
+
+        when(leaseMapper.selectExpiredLeaseKeys(BatchLeaseManager.BATCH_IN))
+                .thenReturn(List.of("IN:7:20261018", "IN:8:20261017", "IN:bad"));
+
+        assertThat(manager.expiredJobIds(BatchLeaseManager.BATCH_IN, "20261018")).containsExactly(7);
+    }
+
+    @Test
+    void nodeIdDefaultsToHostAndPid() {
+
+        ReflectionTestUtils.setField(manager, "nodeId", "");
+        manager.init();
+
+        assertThat(manager.nodeId()).matches(".+:\\d+");
+    }
+
+    /**
+     * upsertLease 는 MariaDB 의 SET 절 왼쪽→오른쪽 평가(앞에서 갱신한 값을 뒤 식이 참조)에 의존한다
+     * - owner_node 는 갱신 전 expires_at 으로 만료 여부를 판단해야 하고
+     * - expires_at 은 갱신 후 owner_node 로 "이 노드 소유" 여부를 판단해야 한다
+     *   (순서가 바뀌면 만료 lease 회수 시 expires_at 이 연장되지 않거나, 타 노드 lease 가 연장된다)
+     */
+    @Test
+    void upsertLeaseAssignsOwnerBeforeExpiry() throws Exception {
+
+        List<String> assignments = upsertAssignments();
+
+        assertThat(assignments).extracting(a -> a.substring(0, a.indexOf('=')).trim())
+                .containsExactly("acquired_at", "owner_node", "expires_at");
+
+        assertThat(assignments.get(1)).contains("IF(expires_at < NOW(), VALUES(owner_node), owner_node)");
+        assertThat(assignments.get(2)).contains("IF(owner_node = VALUES(owner_node), VALUES(expires_at), expires_at)");
+    }
+
+    private static List<String> upsertAssignments() throws Exception {
+
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+
+        Document doc;
+        try (InputStream in = BatchLeaseManagerTest.class.getResourceAsStream("/mapper/BatchLeaseMapper.xml")) {
+            doc = factory.newDocumentBuilder().parse(in);
+        }
+
+        NodeList inserts = doc.getElementsByTagName("insert");
+        String sql = null;
+        for (int i = 0; i < inserts.getLength(); i++) {
+            Element insert = (Element) inserts.item(i);
+            if (insert.getAttribute("id").equals("upsertLease")) {
+                sql = insert.getTextContent();
+            }
+        }
+
+        assertThat(sql).isNotNull();
+
+        String update = sql.substring(sql.indexOf("ON DUPLICATE KEY UPDATE") + "ON DUPLICATE KEY UPDATE".length());
+
+        // 최상위 콤마 기준으로 SET 항목 분리
+        List<String> assignments = new ArrayList<>();
+        int depth = 0;
+        int start = 0;
+        for (int i = 0; i < update.length(); i++) {
+            char c = update.charAt(i);
+            if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (c == ',' && depth == 0) {
+                assignments.add(update.substring(start, i).trim());
+                start = i + 1;
+            }
+        }
+        assignments.add(update.substring(start).trim());
+
+        return assignments;
+    }
+}
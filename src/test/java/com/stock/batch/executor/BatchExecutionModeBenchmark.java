@@ -0,0 +1,106 @@
+package com.stock.batch.executor;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * platform / virtual thread 실행 모드 비교 (수동 실행, CI 제외)
+ * - ./gradlew benchmark                     : 빌드 런타임(17)에서는 virtual 요청도 platform 으로 동작
+ * - ./gradlew benchmark -PbenchmarkJava=21  : virtual thread 실측
+ * - 작업 1건 = 파일 I/O 대기(permit 밖) + DB 쓰기 대기(withDbPermit 안)를 sleep 으로 모사
+ *   → 동시 DB 작업은 두 모드 모두 permit 수로 제한되고, 차이는 permit 밖 대기 구간의 동시성 / 스레드 수
+ */
+@Tag("benchmark")
+class BatchExecutionModeBenchmark {
+
+    private static final int TASKS = 2_000;
+    private static final int PLATFORM_THREADS = 8;
+    private static final int DB_POOL_SIZE = 12;
+    private static final long IO_WAIT_MS = 8;
+    private static final long DB_WAIT_MS = 2;
+
+    @Test
+    void compareExecutionModes() throws Exception {
+
+        // JIT / 클래스 로딩 영향 제거
+        measure(false, TASKS / 10);
+        measure(true, TASKS / 10);
+
+        Result platform = measure(false, TASKS);
+        Result virtual = measure(true, TASKS);
+
+        System.out.printf("%n[Benchmark] java=%d, tasks=%d, platformThreads=%d, dbPermits=%d, ioWaitMs=%d, dbWaitMs=%d%n",
+                Runtime.version().feature(), TASKS, PLATFORM_THREADS, DB_POOL_SIZE - 2, IO_WAIT_MS, DB_WAIT_MS);
+        System.out.println(platform);
+        System.out.println(virtual);
+
+        assertThat(platform.completed).isEqualTo(TASKS);
+        assertThat(virtual.completed).isEqualTo(TASKS);
+    }
+
+    private static Result measure(boolean virtualRequested, int tasks) throws Exception {
+
+        BatchExecutionMode mode = new BatchExecutionMode(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(mode, "virtualRequested", virtualRequested);
+        ReflectionTestUtils.setField(mode, "dbPoolSize", DB_POOL_SIZE);
+        ReflectionTestUtils.setField(mode, "dbReserve", 2);
+        ReflectionTestUtils.setField(mode, "pythonSlots", 1);
+        mode.init();
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        threads.resetPeakThreadCount();
+
+        ExecutorService pool = mode.newExecutor("bench", PLATFORM_THREADS);
+        List<Future<Boolean>> futures = new ArrayList<>(tasks);
+
+        long start = System.nanoTime();
+
+        try {
+            for (int i = 0; i < tasks; i++) {
+                futures.add(pool.submit(() -> {
+                    Thread.sleep(IO_WAIT_MS);
+                    return mode.withDbPermit(() -> {
+                        Thread.sleep(DB_WAIT_MS);
+                        return true;
+                    });
+                }));
+            }
+
+            int completed = 0;
+            for (Future<Boolean> future : futures) {
+                if (future.get(1, TimeUnit.MINUTES)) {
+                    completed++;
+                }
+            }
+
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            return new Result(virtualRequested, mode.isVirtual(), completed, elapsedMs, threads.getPeakThreadCount());
+
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private record Result(boolean requested, boolean virtual, int completed, long elapsedMs, int peakPlatformThreads) {
+
+        @Override
+        public String toString() {
+            return String.format("[Benchmark] requested=%-8s actual=%-8s completed=%d elapsedMs=%d throughput=%.0f/s peakPlatformThreads=%d",
+                    requested ? "virtual" : "platform", virtual ? "virtual" : "platform",
+                    completed, elapsedMs, completed * 1000.0 / Math.max(1, elapsedMs), peakPlatformThreads);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.stock.batch.executor;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BatchExecutionModeTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private BatchExecutionMode mode;
+
+    @BeforeEach
+    void setUp() {
+        mode = new BatchExecutionMode(registry);
+        ReflectionTestUtils.setField(mode, "virtualRequested", false);
+        ReflectionTestUtils.setField(mode, "dbPoolSize", 5);
+        ReflectionTestUtils.setField(mode, "dbReserve", 2);
+        ReflectionTestUtils.setField(mode, "pythonSlots", 1);
+        mode.init();
+    }
+
+    @Test
+    void dbPermitsArePoolSizeMinusReserve() {
+        assertThat(mode.availableDbPermits()).isEqualTo(3);
+    }
+
+    @Test
+    void permitGaugesAreRegisteredOnInjectedRegistry() throws Exception {
+
+        assertThat(registry.get("batch.exec.db.permits.available").gauge().value()).isEqualTo(3.0);
+
+        double held = mode.withDbPermit(() -> registry.get("batch.exec.db.permits.available").gauge().value());
+
+        assertThat(held).isEqualTo(2.0);
+        assertThat(registry.get("batch.exec.python.slots.available").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    void nestedDbPermitReusesOuterPermit() throws Exception {
+
+        int inner = mode.withDbPermit(() -> mode.withDbPermit(mode::availableDbPermits));
+
+        assertThat(inner).isEqualTo(2);
+        assertThat(mode.availableDbPermits()).isEqualTo(3);
+    }
+
+    @Test
+    void dbPermitIsReleasedWhenTaskThrows() {
+
+        try {
+            mode.withDbPermit(() -> {
+                throw new IllegalStateException("boom");
+            });
+        } catch (Exception ignored) {
+        }
+
+        assertThat(mode.availableDbPermits()).isEqualTo(3);
+    }
+
+    @Test
+    void tryAcquireDbPermitsTakesOnlyFreePermits() throws Exception {
+
+        int extra = mode.withDbPermit(() -> mode.tryAcquireDbPermits(5));
+
+        assertThat(extra).isEqualTo(2);
+        assertThat(mode.availableDbPermits()).isEqualTo(1);
+
+        mode.releaseDbPermits(extra);
+        assertThat(mode.availableDbPermits()).isEqualTo(3);
+    }
+
+    @Test
+    void concurrentDbTasksNeverExceedPermits() throws Exception {
+
+        ExecutorService pool = mode.newExecutor("test-db", 8);
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        try {
+            Future<?>[] futures = new Future<?>[16];
+
+            for (int i = 0; i < futures.length; i++) {
+                futures[i] = pool.submit(() -> mode.withDbPermit(() -> {
+                    start.await();
+                    peak.accumulateAndGet(active.incrementAndGet(), Math::max);
+                    Thread.sleep(5);
+                    active.decrementAndGet();
+                    return null;
+                }));
+            }
+
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(peak.get()).isLessThanOrEqualTo(3);
+        assertThat(mode.availableDbPermits()).isEqualTo(3);
+    }
+
+    @Test
+    void platformExecutorUsesNamedDaemonThreads() throws Exception {
+
+        ExecutorService pool = mode.newExecutor("test-exec", 2);
+
+        try {
+            Thread thread = pool.submit(Thread::currentThread).get();
+
+            assertThat(mode.isVirtual()).isFalse();
+            assertThat(thread.getName()).startsWith("test-exec-");
+            assertThat(thread.isDaemon()).isTrue();
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.stock.batch.executor;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BatchInBatchSizerTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private final BatchInBatchSizer sizer = new BatchInBatchSizer(registry);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(sizer, "initialRows", 1000);
+        ReflectionTestUtils.setField(sizer, "minRows", 100);
+        ReflectionTestUtils.setField(sizer, "maxRows", 20000);
+        ReflectionTestUtils.setField(sizer, "targetLatencyMs", 200L);
+        ReflectionTestUtils.setField(sizer, "maxPacketBytes", 16_777_216L);
+    }
+
+    @Test
+    void stagingTableSharesTuningWithLogicalTable() {
+
+        assertThat(sizer.tuning("quote" + BatchInStagingManager.STAGING_SUFFIX)).isSameAs(sizer.tuning("quote"));
+        assertThat(registry.get("batch.in.batch.rows").tag("table", "quote").gauge().value()).isEqualTo(1000.0);
+    }
+
+    @Test
+    void fastBatchesGrowAndSlowBatchesShrink() {
+
+        BatchInBatchSizer.Tuning tuning = sizer.tuning("quote");
+
+        tuning.observe(1000, 100_000, TimeUnit.MILLISECONDS.toNanos(10));
+        assertThat(tuning.batchRows()).isEqualTo(1500);
+
+        BatchInBatchSizer.Tuning slow = sizer.tuning("trade");
+
+        slow.observe(1000, 100_000, TimeUnit.MILLISECONDS.toNanos(500));
+        assertThat(slow.batchRows()).isEqualTo(700);
+    }
+
+    @Test
+    void batchRowsAreCappedByHalfThePacketLimit() {
+
+        BatchInBatchSizer.Tuning tuning = sizer.tuning("quote");
+
+        // row 당 10KB → 8MB / 10KB ≈ 838 row
+        tuning.observe(100, 100 * 10_000L, TimeUnit.MILLISECONDS.toNanos(10));
+
+        assertThat(tuning.batchRows()).isEqualTo((int) (16_777_216 / 2.0 / 10_000));
+        assertThat(registry.get("batch.in.batch.row.bytes").tag("table", "quote").gauge().value()).isEqualTo(10_000.0);
+    }
+}
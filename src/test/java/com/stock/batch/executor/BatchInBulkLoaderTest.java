@@ -0,0 +1,176 @@
+package com.stock.batch.executor;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BatchInBulkLoaderTest {
+
+    private static final List<String> HEADERS = List.of("stock_code", "name", "volume");
+
+    private final BatchInWriteMode writeMode = mock(BatchInWriteMode.class);
+    private final Connection conn = mock(Connection.class);
+    private final Statement stmt = mock(Statement.class);
+    private final org.mariadb.jdbc.Statement mariadbStmt = mock(org.mariadb.jdbc.Statement.class);
+
+    private final BatchInBulkLoader loader = new BatchInBulkLoader(writeMode);
+
+    // LOAD DATA 로 전송된 본문
+    private String streamed;
+    private long affected;
+
+    @BeforeEach
+    void setUp() throws Exception {
+
+        when(conn.createStatement()).thenReturn(stmt);
+        when(stmt.unwrap(org.mariadb.jdbc.Statement.class)).thenReturn(mariadbStmt);
+
+        InputStream[] in = new InputStream[1];
+        doAnswer(inv -> in[0] = inv.getArgument(0)).when(mariadbStmt).setLocalInfileInputStream(any());
+        when(stmt.executeLargeUpdate(anyString())).thenAnswer(inv -> {
+            streamed = new String(in[0].readAllBytes(), StandardCharsets.UTF_8);
+            return affected;
+        });
+    }
+
+    @Test
+    void valuesAreTabSeparatedWithLoadDataEscapes() throws Exception {
+
+        when(writeMode.resolve("etf_holdings")).thenReturn(BatchInWriteMode.Mode.REPLACE);
+        affected = 2;
+
+        BatchInProcessor.LoadResult result = loader.load(source(
+                new String[]{"0,001", "A\tB\\C", "1,234"},
+                new String[]{"005930", "line1\nline2\r", null}
+        ), HEADERS, "etf_holdings", conn);
+
+        // 코드 컬럼은 원문 유지, 숫자 형식 값은 천단위 콤마 제거, null 은 \N
+        assertThat(streamed).isEqualTo(
+                "0,001\tA\\tB\\\\C\t1234\n"
+                        + "005930\tline1\\nline2\t\\N\n");
+        assertThat(result.rows()).isEqualTo(2);
+        assertThat(result.hasRowError()).isFalse();
+
+        verify(stmt).executeLargeUpdate("LOAD DATA LOCAL INFILE 'batch_in_stream' REPLACE INTO TABLE etf_holdings"
+                + " CHARACTER SET utf8mb4 FIELDS TERMINATED BY '\\t' ESCAPED BY '\\\\' LINES TERMINATED BY '\\n'"
+                + " (stock_code, name, volume)");
+    }
+
+    @Test
+    void columnMismatchIsSkippedAndReported() throws Exception {
+
+        when(writeMode.resolve("etf_holdings")).thenReturn(BatchInWriteMode.Mode.REPLACE);
+        affected = 1;
+
+        BatchInProcessor.LoadResult result = loader.load(source(
+                new String[]{"A", "B"},
+                new String[]{"C", "D", "1"}
+        ), HEADERS, "etf_holdings", conn);
+
+        assertThat(streamed).isEqualTo("C\tD\t1\n");
+        assertThat(result.rows()).isEqualTo(1);
+        assertThat(result.hasRowError()).isTrue();
+    }
+
+    @Test
+    void insertModeTreatsSkippedRowsAsDuplicateKey() throws Exception {
+
+        when(writeMode.resolve("etf_holdings")).thenReturn(BatchInWriteMode.Mode.INSERT);
+        affected = 1;
+
+        assertThatThrownBy(() -> loader.load(source(
+                new String[]{"A", "x", "1"},
+                new String[]{"A", "x", "1"}
+        ), HEADERS, "etf_holdings", conn))
+                .isInstanceOf(SQLException.class)
+                .satisfies(e -> assertThat(BatchInWriteMode.isDuplicateKey(e)).isTrue());
+
+        verify(stmt).executeLargeUpdate(startsWith("LOAD DATA LOCAL INFILE 'batch_in_stream' INTO TABLE"));
+    }
+
+    @Test
+    void replaceModeAcceptsReplacedRowCount() throws Exception {
+
+        when(writeMode.resolve("etf_holdings")).thenReturn(BatchInWriteMode.Mode.REPLACE);
+
+        // REPLACE 는 교체된 row 를 2건으로 센다
+        affected = 3;
+
+        assertThat(loader.load(source(
+                new String[]{"A", "x", "1"},
+                new String[]{"B", "y", "2"}
+        ), HEADERS, "etf_holdings", conn).rows()).isEqualTo(2);
+    }
+
+    @Test
+    void registeredTablesRequireAllowLocalInfile() {
+
+        ReflectionTestUtils.setField(loader, "loadDataTables", Set.of("etf_holdings"));
+        ReflectionTestUtils.setField(loader, "datasourceUrl", "jdbc:mariadb://db:3306/stock");
+
+        assertThatThrownBy(loader::init).isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("allowLocalInfile=true");
+
+        ReflectionTestUtils.setField(loader, "datasourceUrl", "jdbc:mariadb://db:3306/stock?allowLocalInfile=true");
+        loader.init();
+    }
+
+    @Test
+    void upsertTablesFallBackToJdbcBatch() throws Exception {
+
+        ReflectionTestUtils.setField(loader, "loadDataTables", Set.of("etf_holdings"));
+        when(conn.isWrapperFor(org.mariadb.jdbc.Connection.class)).thenReturn(true);
+
+        when(writeMode.resolve("etf_holdings__staging")).thenReturn(BatchInWriteMode.Mode.INSERT);
+        assertThat(loader.supports("etf_holdings__staging", conn)).isTrue();
+
+        when(writeMode.resolve("etf_holdings")).thenReturn(BatchInWriteMode.Mode.UPSERT);
+        assertThat(loader.supports("etf_holdings", conn)).isFalse();
+    }
+
+    private static BatchInRowSource source(String[]... records) {
+
+        return new BatchInRowSource() {
+
+            private int next;
+
+            @Override
+            public int next(String[] row) {
+
+                if (next == records.length) {
+                    return -1;
+                }
+
+                String[] record = records[next++];
+                if (record.length == row.length) {
+                    System.arraycopy(record, 0, row, 0, record.length);
+                }
+                return record.length;
+            }
+
+            @Override
+            public String describe() {
+                return Arrays.toString(records[next - 1]);
+            }
+        };
+    }
+}
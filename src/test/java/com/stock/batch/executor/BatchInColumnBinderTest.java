@@ -0,0 +1,123 @@
+package com.stock.batch.executor;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BatchInColumnBinderTest {
+
+    private static final List<String> HEADERS = List.of("stock_code", "name", "volume", "nav", "base_date");
+
+    private final Connection conn = mock(Connection.class);
+    private final PreparedStatement schemaQuery = mock(PreparedStatement.class);
+    private final PreparedStatement ps = mock(PreparedStatement.class);
+
+    private final BatchInColumnBinder binder = new BatchInColumnBinder();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(conn.prepareStatement(anyString())).thenReturn(schemaQuery);
+        columns("stock_code", "varchar", "name", "varchar", "volume", "bigint", "nav", "decimal", "base_date", "date");
+    }
+
+    @Test
+    void textColumnsKeepThousandsSeparatorCleaning() throws Exception {
+
+        BatchInColumnBinder.ColumnSetter[] setters = binder.compile(conn, "etf_price", HEADERS);
+
+        setters[0].set(ps, 1, "0,001");
+        setters[1].set(ps, 2, "1,234");
+        setters[1].set(ps, 3, "KODEX 200, 레버리지");
+        setters[1].set(ps, 4, "007");
+
+        // 코드 컬럼은 원문 그대로, 일반 문자열 컬럼은 숫자 형식일 때만 콤마 제거 (선행 0 유지)
+        verify(ps).setString(1, "0,001");
+        verify(ps).setString(2, "1234");
+        verify(ps).setString(3, "KODEX 200, 레버리지");
+        verify(ps).setString(4, "007");
+    }
+
+    @Test
+    void numericColumnsAreBoundByDeclaredType() throws Exception {
+
+        BatchInColumnBinder.ColumnSetter[] setters = binder.compile(conn, "etf_price", HEADERS);
+
+        setters[2].set(ps, 1, "1,234,567");
+        setters[3].set(ps, 2, "12,345.6700");
+        setters[4].set(ps, 3, "2026-10-16");
+
+        verify(ps).setLong(1, 1_234_567L);
+        verify(ps).setBigDecimal(2, new BigDecimal("12345.6700"));
+        verify(ps).setString(3, "2026-10-16");
+    }
+
+    @Test
+    void columnMetadataIsQueriedOncePerTablePerRun() throws Exception {
+
+        binder.beginRun();
+
+        BatchInColumnBinder.ColumnSetter[] first = binder.compile(conn, "etf_price", HEADERS);
+        BatchInColumnBinder.ColumnSetter[] second = binder.compile(conn, "etf_price", HEADERS);
+
+        assertThat(second).isSameAs(first);
+        verify(schemaQuery, times(1)).executeQuery();
+
+        // 다음 실행: 재조회하되 스키마가 같으면 setter 재사용
+        columns("stock_code", "varchar", "name", "varchar", "volume", "bigint", "nav", "decimal", "base_date", "date");
+        binder.beginRun();
+
+        assertThat(binder.compile(conn, "etf_price", HEADERS)).isSameAs(first);
+        verify(schemaQuery, times(2)).executeQuery();
+    }
+
+    @Test
+    void schemaChangeBetweenRunsRebuildsSetters() throws Exception {
+
+        binder.beginRun();
+        BatchInColumnBinder.ColumnSetter[] before = binder.compile(conn, "etf_price", HEADERS);
+
+        columns("stock_code", "varchar", "name", "varchar", "volume", "decimal", "nav", "decimal", "base_date", "date");
+        binder.beginRun();
+        BatchInColumnBinder.ColumnSetter[] after = binder.compile(conn, "etf_price", HEADERS);
+
+        assertThat(after).isNotSameAs(before);
+
+        after[2].set(ps, 1, "1,000.5");
+        verify(ps).setBigDecimal(1, new BigDecimal("1000.5"));
+    }
+
+    private void columns(String... nameTypePairs) throws Exception {
+
+        ResultSet rs = mock(ResultSet.class);
+        int rows = nameTypePairs.length / 2;
+
+        Boolean[] more = new Boolean[rows];
+        for (int i = 0; i < rows; i++) {
+            more[i] = i < rows - 1;
+        }
+        when(rs.next()).thenReturn(true, more);
+
+        String[] names = new String[rows - 1];
+        String[] types = new String[rows - 1];
+        for (int i = 1; i < rows; i++) {
+            names[i - 1] = nameTypePairs[i * 2];
+            types[i - 1] = nameTypePairs[i * 2 + 1];
+        }
+        when(rs.getString(1)).thenReturn(nameTypePairs[0], names);
+        when(rs.getString(2)).thenReturn(nameTypePairs[1], types);
+
+        when(schemaQuery.executeQuery()).thenReturn(rs);
+    }
+}
@@ -0,0 +1,97 @@
+package com.stock.batch.executor;
+
+import io.airlift.compress.zstd.ZstdOutputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BatchInCompressedInputTest {
+
+    private static final String CONTENT = "code,name\n005930,삼성전자\n000660,SK하이닉스\n";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void compressedSuffixIsDetectedAndStripped() {
+
+        assertThat(BatchInCompressedInput.isCompressed("daily_price_20261018.csv.gz")).isTrue();
+        assertThat(BatchInCompressedInput.isCompressed("strategy_20261018.txt.zst")).isTrue();
+        assertThat(BatchInCompressedInput.isCompressed("holdings.json")).isFalse();
+
+        assertThat(BatchInCompressedInput.stripSuffix("holdings.json.gz")).isEqualTo("holdings.json");
+        assertThat(BatchInCompressedInput.stripSuffix("strategy.txt.zst")).isEqualTo("strategy.txt");
+        assertThat(BatchInCompressedInput.stripSuffix("strategy.txt")).isEqualTo("strategy.txt");
+    }
+
+    @Test
+    void gzipIsDecompressedWhileStreaming() throws Exception {
+
+        Path file = dir.resolve("daily_price.csv.gz");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(file))) {
+            out.write(CONTENT.getBytes(StandardCharsets.UTF_8));
+        }
+
+        assertThat(read(file, null)).isEqualTo(CONTENT);
+    }
+
+    @Test
+    void zstdIsDecompressedWhileStreaming() throws Exception {
+
+        Path file = dir.resolve("strategy.txt.zst");
+        try (OutputStream out = new ZstdOutputStream(Files.newOutputStream(file))) {
+            out.write(CONTENT.getBytes(StandardCharsets.UTF_8));
+        }
+
+        assertThat(read(file, null)).isEqualTo(CONTENT);
+    }
+
+    @Test
+    void plainFileIsPassedThrough() throws Exception {
+
+        Path file = Files.writeString(dir.resolve("holdings.csv"), CONTENT);
+
+        assertThat(read(file, null)).isEqualTo(CONTENT);
+    }
+
+    @Test
+    void digestIsComputedOverCompressedBytes() throws Exception {
+
+        Path file = dir.resolve("daily_price.csv.gz");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(file))) {
+            out.write(CONTENT.getBytes(StandardCharsets.UTF_8));
+        }
+
+        BatchInFileDigest digest = new BatchInFileDigest(file, true);
+        read(file, digest);
+
+        // manifest 는 원본(압축 상태) 파일 기준
+        assertThat(digest.value()).isEqualTo(BatchInFileDigest.of(file));
+    }
+
+    @Test
+    void corruptGzipFailsOnOpen() throws Exception {
+
+        Path file = Files.writeString(dir.resolve("broken.csv.gz"), CONTENT);
+
+        assertThatThrownBy(() -> BatchInCompressedInput.openReader(file)).isInstanceOf(IOException.class);
+    }
+
+    private static String read(Path file, BatchInFileDigest digest) throws IOException {
+
+        try (BufferedReader reader = BatchInCompressedInput.openReader(file, digest)) {
+            return reader.lines().map(line -> line + "\n").collect(Collectors.joining());
+        }
+    }
+}
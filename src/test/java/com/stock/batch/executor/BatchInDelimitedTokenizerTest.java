@@ -0,0 +1,136 @@
+package com.stock.batch.executor;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BatchInDelimitedTokenizerTest {
+
+    @Test
+    void readsHeaderAndTrimmedFields() throws Exception {
+
+        BatchInDelimitedTokenizer tokenizer = tokenizer(" code , name \n005930 , 삼성전자 \n", ',');
+        String[] row = new String[2];
+
+        assertThat(tokenizer.readHeader()).containsExactly("code", "name");
+        assertThat(tokenizer.next(row)).isEqualTo(2);
+        assertThat(row).containsExactly("005930", "삼성전자");
+        assertThat(tokenizer.next(row)).isEqualTo(-1);
+    }
+
+    @Test
+    void nullLikeValuesBecomeNull() throws Exception {
+
+        BatchInDelimitedTokenizer tokenizer = tokenizer("a|b|c|d|e|f\n |None|NULL|NaN|nano|x\n", '|');
+        String[] row = new String[6];
+
+        tokenizer.readHeader();
+
+        assertThat(tokenizer.next(row)).isEqualTo(6);
+        assertThat(row).containsExactly(null, null, null, null, "nano", "x");
+    }
+
+    @Test
+    void acceptsAllLineEndingsAndSkipsBlankLines() throws Exception {
+
+        BatchInDelimitedTokenizer tokenizer = tokenizer("h1,h2\r\n1,2\r\n\r\n3,4\r5,6\n\n7,8", ',');
+        String[] row = new String[2];
+
+        tokenizer.readHeader();
+
+        StringBuilder values = new StringBuilder();
+        while (tokenizer.next(row) >= 0) {
+            values.append(row[0]).append(row[1]).append(' ');
+        }
+
+        assertThat(values.toString()).isEqualTo("12 34 56 78 ");
+    }
+
+    @Test
+    void reportsActualFieldCount() throws Exception {
+
+        BatchInDelimitedTokenizer tokenizer = tokenizer("h1,h2\n1,2,3\n1,\n", ',');
+        String[] row = new String[2];
+
+        tokenizer.readHeader();
+
+        assertThat(tokenizer.next(row)).isEqualTo(3);
+        assertThat(row).containsExactly("1", "2");
+        assertThat(tokenizer.describe()).isEqualTo("line 2: 1,2,3");
+
+        assertThat(tokenizer.next(row)).isEqualTo(2);
+        assertThat(row).containsExactly("1", null);
+    }
+
+    @Test
+    void recordsSpanningRefillsAndLongerThanBufferAreKept() throws Exception {
+
+        String longValue = "x".repeat(200_000);
+        String content = "h1,h2\r\n" + longValue + ",tail\r\nlast,row";
+
+        // 한 번에 한 문자씩만 돌려주는 reader (\r\n 이 read 경계에 걸리는 경우 포함)
+        BatchInDelimitedTokenizer tokenizer = new BatchInDelimitedTokenizer(oneCharAtATime(content), ',');
+        String[] row = new String[2];
+
+        assertThat(tokenizer.readHeader()).containsExactly("h1", "h2");
+        assertThat(tokenizer.next(row)).isEqualTo(2);
+        assertThat(row[0]).isEqualTo(longValue);
+        assertThat(row[1]).isEqualTo("tail");
+        assertThat(tokenizer.next(row)).isEqualTo(2);
+        assertThat(row).containsExactly("last", "row");
+        assertThat(tokenizer.next(row)).isEqualTo(-1);
+    }
+
+    @Test
+    void quoteRaisesQuotedInputException() throws Exception {
+
+        BatchInDelimitedTokenizer tokenizer = tokenizer("h1,h2\n1,2\n\"a,b\",3\n", ',');
+        String[] row = new String[2];
+
+        tokenizer.readHeader();
+        tokenizer.next(row);
+
+        assertThatThrownBy(() -> tokenizer.next(row))
+                .isInstanceOf(BatchInDelimitedTokenizer.QuotedInputException.class)
+                .hasMessageContaining("line 3");
+    }
+
+    @Test
+    void isQuotedFindsWrappedCause() {
+
+        IOException quoted = new BatchInDelimitedTokenizer.QuotedInputException(1);
+
+        assertThat(BatchInDelimitedTokenizer.isQuoted(new RuntimeException(new IllegalStateException(quoted)))).isTrue();
+        assertThat(BatchInDelimitedTokenizer.isQuoted(new RuntimeException("other"))).isFalse();
+    }
+
+    private static BatchInDelimitedTokenizer tokenizer(String content, char delimiter) {
+        return new BatchInDelimitedTokenizer(new StringReader(content), delimiter);
+    }
+
+    private static Reader oneCharAtATime(String content) {
+
+        return new Reader() {
+
+            private int pos;
+
+            @Override
+            public int read(char[] cbuf, int off, int len) {
+                if (pos >= content.length()) {
+                    return -1;
+                }
+                cbuf[off] = content.charAt(pos++);
+                return 1;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+}
@@ -0,0 +1,63 @@
+package com.stock.batch.executor;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BatchInFileDigestTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void streamedDigestMatchesFileDigest() throws Exception {
+
+        Path file = write("a,b\n1,2\n3,4\n");
+        String expected = BatchInFileDigest.of(file);
+        BatchInFileDigest digest = new BatchInFileDigest(file, true);
+
+        try (InputStream in = digest.track(Files.newInputStream(file))) {
+            in.readAllBytes();
+        }
+
+        // 파일을 지운 뒤에도 stream 에서 계산된 값을 사용 (재읽기 없음)
+        Files.delete(file);
+
+        assertThat(digest.value()).isEqualTo(expected).hasSize(64);
+    }
+
+    @Test
+    void partiallyReadStreamFallsBackToFileDigest() throws Exception {
+
+        Path file = write("a,b\n1,2\n3,4\n");
+        BatchInFileDigest digest = new BatchInFileDigest(file, true);
+
+        try (InputStream in = digest.track(Files.newInputStream(file))) {
+            in.read(new byte[4]);
+        }
+
+        assertThat(digest.value()).isEqualTo(BatchInFileDigest.of(file));
+    }
+
+    @Test
+    void notTrackingLeavesStreamUntouched() throws Exception {
+
+        Path file = write("x\n");
+        BatchInFileDigest digest = new BatchInFileDigest(file, false);
+        InputStream raw = Files.newInputStream(file);
+
+        try (InputStream in = digest.track(raw)) {
+            assertThat(in).isSameAs(raw);
+        }
+    }
+
+    private Path write(String content) throws Exception {
+        return Files.writeString(dir.resolve("a_20250101.csv"), content, StandardCharsets.UTF_8);
+    }
+}
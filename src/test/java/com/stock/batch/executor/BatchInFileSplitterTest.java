@@ -0,0 +1,140 @@
+package com.stock.batch.executor;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BatchInFileSplitterTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void splitsAreContiguousAndCutAtLineEnds() throws Exception {
+
+        StringBuilder sb = new StringBuilder("code,name\n");
+        for (int i = 0; i < 100; i++) {
+            sb.append("r").append(i).append(",종목").append(i).append('\n');
+        }
+
+        Path file = write(sb.toString());
+
+        try (FileChannel ch = FileChannel.open(file)) {
+
+            BatchInFileSplitter.Plan plan = BatchInFileSplitter.plan(ch, 4, ',');
+
+            assertThat(plan.headerEnd()).isEqualTo("code,name\n".length());
+            assertThat(plan.splits()).hasSize(4);
+            assertContiguous(plan, ch.size());
+
+            for (BatchInFileSplitter.Split split : plan.splits()) {
+                assertThat(read(ch, split)).startsWith("r").endsWith("\n");
+            }
+        }
+    }
+
+    @Test
+    void newlineInsideQuotedFieldIsNotABoundary() throws Exception {
+
+        StringBuilder sb = new StringBuilder("code,memo\n");
+        for (int i = 0; i < 50; i++) {
+            sb.append("r").append(i).append(",\"multi\nline \"\"quoted\"\"\nend\"\n");
+        }
+
+        Path file = write(sb.toString());
+
+        try (FileChannel ch = FileChannel.open(file)) {
+
+            BatchInFileSplitter.Plan plan = BatchInFileSplitter.plan(ch, 8, ',');
+
+            assertThat(plan.splits()).hasSizeGreaterThan(1);
+            assertContiguous(plan, ch.size());
+
+            for (BatchInFileSplitter.Split split : plan.splits()) {
+                assertThat(read(ch, split)).startsWith("r");
+            }
+        }
+    }
+
+    @Test
+    void quoteInsideUnquotedFieldDoesNotOpenQuote() throws Exception {
+
+        StringBuilder sb = new StringBuilder("code|name\n");
+        for (int i = 0; i < 40; i++) {
+            sb.append("r").append(i).append("|5\" screen\n");
+        }
+
+        Path file = write(sb.toString());
+
+        try (FileChannel ch = FileChannel.open(file)) {
+
+            BatchInFileSplitter.Plan plan = BatchInFileSplitter.plan(ch, 4, '|');
+
+            assertThat(plan.splits()).hasSize(4);
+            assertContiguous(plan, ch.size());
+        }
+    }
+
+    @Test
+    void lastLineWithoutNewlineIsIncluded() throws Exception {
+
+        Path file = write("h\na\nb\nc");
+
+        try (FileChannel ch = FileChannel.open(file)) {
+
+            BatchInFileSplitter.Plan plan = BatchInFileSplitter.plan(ch, 1, ',');
+
+            assertThat(plan.headerEnd()).isEqualTo(2);
+            assertThat(plan.splits()).containsExactly(new BatchInFileSplitter.Split(2, ch.size()));
+            assertThat(read(ch, plan.splits().get(0))).isEqualTo("a\nb\nc");
+        }
+    }
+
+    @Test
+    void headerOnlyFileHasNoSplits() throws Exception {
+
+        Path file = write("code,name");
+
+        try (FileChannel ch = FileChannel.open(file)) {
+
+            BatchInFileSplitter.Plan plan = BatchInFileSplitter.plan(ch, 4, ',');
+
+            assertThat(plan.headerEnd()).isEqualTo(ch.size());
+            assertThat(plan.splits()).isEmpty();
+        }
+    }
+
+    private static void assertContiguous(BatchInFileSplitter.Plan plan, long size) {
+
+        List<BatchInFileSplitter.Split> splits = plan.splits();
+        long expectedStart = plan.headerEnd();
+
+        for (BatchInFileSplitter.Split split : splits) {
+            assertThat(split.start()).isEqualTo(expectedStart);
+            assertThat(split.end()).isGreaterThan(split.start());
+            expectedStart = split.end();
+        }
+
+        assertThat(expectedStart).isEqualTo(size);
+    }
+
+    private static String read(FileChannel ch, BatchInFileSplitter.Split split) throws Exception {
+        try (InputStream in = BatchInFileSplitter.open(ch, split.start(), split.end())) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private Path write(String content) throws Exception {
+        Path file = dir.resolve("input.csv");
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+        return file;
+    }
+}
@@ -0,0 +1,186 @@
+package com.stock.batch.executor;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stock.batch.cluster.BatchLeaseManager;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InOrder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.sql.DataSource;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BatchInProcessorTest {
+
+    private static final String TODAY = "20261018";
+
+    @TempDir
+    Path root;
+
+    private final DataSource dataSource = mock(DataSource.class);
+    private final BatchInStagingManager stagingManager = mock(BatchInStagingManager.class);
+    private final BatchInLeaseStub leases = new BatchInLeaseStub();
+    private final BatchInWriteMode writeMode = mock(BatchInWriteMode.class);
+    private final Connection conn = mock(Connection.class);
+
+    private final BatchExecutionMode executionMode = new BatchExecutionMode(new SimpleMeterRegistry());
+
+    private final BatchInProcessor processor = new BatchInProcessor(dataSource, mock(BatchInBulkLoader.class),
+            mock(BatchInColumnBinder.class), stagingManager, mock(BatchInPreCleaner.class),
+            mock(BatchInFileManifest.class), mock(BatchInCheckpointStore.class), mock(BatchInBatchSizer.class), writeMode,
+            new BatchInSessionProfile(mock(BatchInPreCleaner.class)), executionMode, leases.manager);
+
+    @BeforeEach
+    void setUp() {
+
+        ReflectionTestUtils.setField(executionMode, "dbPoolSize", 10);
+        ReflectionTestUtils.setField(executionMode, "dbReserve", 2);
+        ReflectionTestUtils.setField(executionMode, "pythonSlots", 1);
+        executionMode.init();
+
+        ReflectionTestUtils.setField(processor, "batchOutRoot", root.resolve("out").toString());
+        ReflectionTestUtils.setField(processor, "batchInRoot", root.resolve("in").toString());
+        ReflectionTestUtils.setField(processor, "archiveRoot", root.resolve("archive").toString());
+        ReflectionTestUtils.setField(processor, "errorRoot", root.resolve("error").toString());
+
+        when(stagingManager.resolveTarget(anyString())).thenAnswer(inv -> inv.getArgument(0));
+        when(writeMode.resolve(anyString())).thenReturn(BatchInWriteMode.Mode.REPLACE);
+    }
+
+    @Test
+    void jsonRowsAreWrittenInFileOrderAcrossSignatures() throws Exception {
+
+        PreparedStatement codePrice = mock(PreparedStatement.class);
+        PreparedStatement codeOnly = mock(PreparedStatement.class);
+
+        when(conn.prepareStatement("REPLACE INTO quote (code, price) VALUES (?, ?)")).thenReturn(codePrice);
+        when(conn.prepareStatement("REPLACE INTO quote (code) VALUES (?)")).thenReturn(codeOnly);
+
+        // 같은 code 의 1행 → 3행 순서가 뒤집히면 REPLACE 결과가 달라진다
+        insert("[{\"code\":\"A\",\"price\":1},{\"code\":\"A\"},{\"code\":\"A\",\"price\":3}]");
+
+        InOrder order = inOrder(codePrice, codeOnly, conn);
+        order.verify(codePrice).addBatch();
+        order.verify(codePrice).executeBatch();
+        order.verify(codeOnly).addBatch();
+        order.verify(codeOnly).executeBatch();
+        order.verify(codePrice).addBatch();
+        order.verify(codePrice).executeBatch();
+        order.verify(conn).commit();
+
+        verify(conn, never()).rollback();
+    }
+
+    @Test
+    void sameSignatureRowsShareOneBatch() throws Exception {
+
+        PreparedStatement ps = mock(PreparedStatement.class);
+
+        when(writeMode.resolve("quote")).thenReturn(BatchInWriteMode.Mode.INSERT);
+        when(conn.prepareStatement(anyString())).thenReturn(ps);
+
+        insert("[{\"code\":\"A\",\"price\":1},{\"code\":\"B\",\"price\":2}]");
+
+        verify(conn).prepareStatement("INSERT INTO quote (code, price) VALUES (?, ?)");
+        verify(ps, times(2)).addBatch();
+        verify(ps).executeBatch();
+        verify(conn).commit();
+    }
+
+    private void insert(String json) throws Exception {
+
+        try (JsonParser parser = new ObjectMapper().createParser(json)) {
+            ReflectionTestUtils.invokeMethod(processor, "jsonBatchInsert", parser, "quote", conn);
+        }
+    }
+
+    @Test
+    void parallelIngestSerializesFilesOfTheSameTable() throws Exception {
+
+        ReflectionTestUtils.setField(processor, "parallelWorkers", 3);
+
+        Path out = Files.createDirectories(root.resolve("out").resolve(TODAY));
+        Files.writeString(out.resolve("quote_20261017.json"), "[{\"code\":\"A\"}]");
+        Files.writeString(out.resolve("quote_20261018.json"), "[{\"code\":\"B\"}]");
+        Files.writeString(out.resolve("trade_20261018.json"), "[{\"code\":\"C\"}]");
+        Files.writeString(out.resolve("broken_20261018.json"), "[1]");
+
+        Map<String, AtomicInteger> activeByTable = new ConcurrentHashMap<>();
+        Map<String, Integer> peakByTable = new ConcurrentHashMap<>();
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+
+        when(dataSource.getConnection()).thenAnswer(inv -> {
+            Connection c = mock(Connection.class);
+            when(c.prepareStatement(anyString())).thenAnswer(sql -> {
+                String table = sql.getArgument(0, String.class).split(" ")[2];
+                PreparedStatement ps = mock(PreparedStatement.class);
+                when(ps.executeBatch()).thenAnswer(exec -> {
+                    int tableActive = activeByTable.computeIfAbsent(table, k -> new AtomicInteger()).incrementAndGet();
+                    peakByTable.merge(table, tableActive, Math::max);
+                    peak.accumulateAndGet(active.incrementAndGet(), Math::max);
+                    Thread.sleep(200);
+                    active.decrementAndGet();
+                    activeByTable.get(table).decrementAndGet();
+                    return new int[]{1};
+                });
+                return ps;
+            });
+            return c;
+        });
+
+        BatchInProcessor.BatchResult result = processor.executeBatch(TODAY, "");
+
+        assertThat(result).isEqualTo(new BatchInProcessor.BatchResult(4, 3, 1, 0));
+
+        // 같은 테이블 파일은 한 worker 에서 순차, 다른 테이블은 동시에
+        assertThat(peakByTable).containsEntry("quote", 1);
+        assertThat(peak.get()).isEqualTo(2);
+
+        assertThat(root.resolve("archive").resolve(TODAY))
+                .isDirectoryContaining(p -> p.getFileName().toString().equals("quote_20261017.json"))
+                .isDirectoryContaining(p -> p.getFileName().toString().equals("quote_20261018.json"))
+                .isDirectoryContaining(p -> p.getFileName().toString().equals("trade_20261018.json"));
+        assertThat(root.resolve("error").resolve(TODAY).resolve("broken_20261018.json")).exists();
+
+        // 파일 점유는 처리 후 모두 반납
+        assertThat(leases.held).isEmpty();
+    }
+
+    /**
+     * 단일 노드 동작 lease (점유 / 반납 기록)
+     */
+    private static final class BatchInLeaseStub {
+
+        private final Map<String, Boolean> held = new ConcurrentHashMap<>();
+        private final BatchLeaseManager manager = mock(BatchLeaseManager.class);
+
+        private BatchInLeaseStub() {
+            when(manager.tryAcquire(anyString())).thenAnswer(inv -> {
+                held.put(inv.getArgument(0), true);
+                return true;
+            });
+            doAnswer(inv -> held.remove(inv.getArgument(0, String.class)))
+                    .when(manager).release(anyString());
+        }
+    }
+}
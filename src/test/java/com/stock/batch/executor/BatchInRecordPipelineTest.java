@@ -0,0 +1,134 @@
+package com.stock.batch.executor;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BatchInRecordPipelineTest {
+
+    @Test
+    void chunksArriveInSourceOrderAndMismatchIsFlagged() throws Exception {
+
+        List<String[]> records = List.of(
+                new String[]{"A", "1"},
+                new String[]{"B"},
+                new String[]{"C", "3"},
+                new String[]{"D", "4"});
+
+        List<String> written = new ArrayList<>();
+
+        try (BatchInRecordPipeline pipeline = new BatchInRecordPipeline(source(records), 2, 2, 1)) {
+            pipeline.start();
+
+            BatchInRecordPipeline.RowChunk chunk;
+            while ((chunk = pipeline.take()) != null) {
+                for (int r = 0; r < chunk.size; r++) {
+                    written.add(chunk.rows[r][0] + chunk.rows[r][1]);
+                }
+                pipeline.release(chunk);
+            }
+
+            assertThat(written).containsExactly("A1", "C3", "D4");
+            assertThat(pipeline.hasRowError()).isTrue();
+        }
+    }
+
+    @Test
+    void parseFailureIsRethrownToWriter() throws Exception {
+
+        BatchInRowSource failing = new BatchInRowSource() {
+            @Override
+            public int next(String[] row) {
+                throw new IllegalStateException("broken quote");
+            }
+
+            @Override
+            public String describe() {
+                return "";
+            }
+        };
+
+        try (BatchInRecordPipeline pipeline = new BatchInRecordPipeline(failing, 2, 2, 1)) {
+            pipeline.start();
+
+            assertThatThrownBy(pipeline::take).hasRootCauseMessage("broken quote");
+        }
+    }
+
+    @Test
+    void interruptedCloseKeepsInterruptFlag() throws Exception {
+
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        // interrupt 를 무시하고 release 될 때까지 머무는 source (parser 스레드가 살아 있는 상태에서 close)
+        BatchInRowSource stuck = new BatchInRowSource() {
+            @Override
+            public int next(String[] row) {
+                entered.countDown();
+                while (true) {
+                    try {
+                        release.await();
+                        return -1;
+                    } catch (InterruptedException ignored) {
+                        // 계속 대기
+                    }
+                }
+            }
+
+            @Override
+            public String describe() {
+                return "";
+            }
+        };
+
+        BatchInRecordPipeline pipeline = new BatchInRecordPipeline(stuck, 2, 2, 1);
+        pipeline.start();
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        Thread.currentThread().interrupt();
+        try {
+            assertThatThrownBy(pipeline::close).isInstanceOf(InterruptedIOException.class);
+            assertThat(Thread.currentThread().isInterrupted()).isTrue();
+        } finally {
+            Thread.interrupted();
+            release.countDown();
+        }
+
+        pipeline.close();
+    }
+
+    private static BatchInRowSource source(List<String[]> records) {
+
+        return new BatchInRowSource() {
+
+            private int next;
+
+            @Override
+            public int next(String[] row) {
+
+                if (next == records.size()) {
+                    return -1;
+                }
+
+                String[] record = records.get(next++);
+                if (record.length == row.length) {
+                    System.arraycopy(record, 0, row, 0, record.length);
+                }
+                return record.length;
+            }
+
+            @Override
+            public String describe() {
+                return String.join(",", records.get(next - 1));
+            }
+        };
+    }
+}
@@ -0,0 +1,131 @@
+package com.stock.batch.executor;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BatchInRowWriterTest {
+
+    private static final List<String> HEADERS = List.of("code", "price");
+    private static final BatchInWriteMode.Mode MODE = BatchInWriteMode.Mode.REPLACE;
+
+    private final Connection conn = mock(Connection.class);
+    private final PreparedStatement single = mock(PreparedStatement.class);
+    private final PreparedStatement multi = mock(PreparedStatement.class);
+
+    private final BatchInColumnBinder.ColumnSetter[] setters = {
+            (ps, idx, v) -> ps.setString(idx, v),
+            (ps, idx, v) -> ps.setString(idx, v)
+    };
+
+    @Test
+    void remainderBelowStatementWidthIsSentAsSingleRows() throws Exception {
+
+        BatchInRowWriter writer = writer(3, 1000);
+
+        for (int i = 1; i <= 7; i++) {
+            writer.add(new String[]{"A" + i, String.valueOf(i)});
+        }
+        writer.flush();
+
+        // 3 + 3 → 다중 row 문장 2건, 나머지 1건 → 단일 row 문장
+        verify(multi, times(2)).addBatch();
+        verify(multi, times(1)).executeBatch();
+        verify(single, times(1)).addBatch();
+        verify(single, times(1)).executeBatch();
+
+        // 두 번째 다중 row 문장의 마지막 row (A6) 는 placeholder 5, 6
+        verify(multi).setString(5, "A6");
+        verify(multi).setString(6, "6");
+        verify(single).setString(1, "A7");
+
+        assertThat(writer.rows()).isEqualTo(7);
+    }
+
+    @Test
+    void batchIsExecutedWhenTuningRowLimitIsReached() throws Exception {
+
+        BatchInRowWriter writer = writer(2, 4);
+
+        for (int i = 1; i <= 5; i++) {
+            writer.add(new String[]{"A" + i, String.valueOf(i)});
+        }
+
+        // 4 row (다중 row 문장 2건) 에서 1회 전송, 5번째 row 는 버퍼에 대기
+        verify(multi, times(1)).executeBatch();
+        verify(single, never()).addBatch();
+
+        writer.flush();
+
+        verify(multi, times(1)).executeBatch();
+        verify(single, times(1)).executeBatch();
+    }
+
+    @Test
+    void nullValueIsBoundAsDbNull() throws Exception {
+
+        BatchInRowWriter writer = writer(1, 1000);
+
+        writer.add(new String[]{"A1", null});
+        writer.flush();
+
+        verify(single).setString(1, "A1");
+        verify(single).setObject(2, null);
+        verify(single, times(1)).executeBatch();
+    }
+
+    @Test
+    void statementWidthIsCappedByPlaceholderLimit() throws Exception {
+
+        BatchInRowWriter.sql(MODE, "quote", HEADERS, 32767);
+        when(conn.prepareStatement(BatchInRowWriter.sql(MODE, "quote", HEADERS, 1))).thenReturn(single);
+        when(conn.prepareStatement(BatchInRowWriter.sql(MODE, "quote", HEADERS, 32767))).thenReturn(multi);
+
+        new BatchInRowWriter(conn, MODE, "quote", HEADERS, setters, tuning(1000), 100_000);
+
+        verify(conn).prepareStatement(BatchInRowWriter.sql(MODE, "quote", HEADERS, 32767));
+    }
+
+    @Test
+    void sqlCacheIsBounded() {
+
+        for (int i = 0; i < 1000; i++) {
+            BatchInRowWriter.sql(MODE, "quote_" + i, HEADERS, 1);
+        }
+
+        assertThat(BatchInRowWriter.cachedStatements()).isLessThanOrEqualTo(256);
+    }
+
+    private BatchInRowWriter writer(int rowsPerStatement, int batchRows) throws Exception {
+
+        when(conn.prepareStatement(BatchInRowWriter.sql(MODE, "quote", HEADERS, 1))).thenReturn(single);
+        if (rowsPerStatement > 1) {
+            when(conn.prepareStatement(BatchInRowWriter.sql(MODE, "quote", HEADERS, rowsPerStatement))).thenReturn(multi);
+        }
+
+        return new BatchInRowWriter(conn, MODE, "quote", HEADERS, setters, tuning(batchRows), rowsPerStatement);
+    }
+
+    private static BatchInBatchSizer.Tuning tuning(int batchRows) {
+
+        BatchInBatchSizer sizer = new BatchInBatchSizer(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(sizer, "initialRows", batchRows);
+        ReflectionTestUtils.setField(sizer, "minRows", 1);
+        ReflectionTestUtils.setField(sizer, "maxRows", batchRows);
+        ReflectionTestUtils.setField(sizer, "targetLatencyMs", 200L);
+        ReflectionTestUtils.setField(sizer, "maxPacketBytes", 16_777_216L);
+
+        return sizer.tuning("quote");
+    }
+}
@@ -0,0 +1,75 @@
+package com.stock.batch.executor;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BatchInSessionProfileTest {
+
+    private final BatchInPreCleaner preCleaner = mock(BatchInPreCleaner.class);
+    private final Connection conn = mock(Connection.class);
+    private final Statement stmt = mock(Statement.class);
+
+    private final BatchInSessionProfile profile = new BatchInSessionProfile(preCleaner);
+
+    @BeforeEach
+    void setUp() throws Exception {
+
+        ReflectionTestUtils.setField(profile, "enabled", true);
+
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.next()).thenReturn(true);
+        when(rs.getInt(1)).thenReturn(1);
+        when(stmt.executeQuery(anyString())).thenReturn(rs);
+        when(conn.createStatement()).thenReturn(stmt);
+    }
+
+    @Test
+    void sessionIsRestoredEvenWhenLoadFails() throws Exception {
+
+        when(preCleaner.isPreCleanedToday("kodex_etf_holdings")).thenReturn(true);
+
+        assertThatThrownBy(() -> profile.withSession(conn, "kodex_etf_holdings__staging", () -> {
+            throw new IllegalStateException("load failed");
+        })).hasMessage("load failed");
+
+        InOrder order = inOrder(stmt);
+        order.verify(stmt).execute("SET SESSION foreign_key_checks = 0");
+        order.verify(stmt).execute("SET SESSION foreign_key_checks = 1");
+    }
+
+    @Test
+    void tableNotPreCleanedTodayRunsWithoutSessionChange() throws Exception {
+
+        assertThat(profile.withSession(conn, "etf_price", () -> 42)).isEqualTo(42);
+
+        verify(conn, never()).createStatement();
+    }
+
+    @Test
+    void failedRestoreAbortsConnection() throws Exception {
+
+        when(preCleaner.isPreCleanedToday("nps_portfolio_item")).thenReturn(true);
+        when(stmt.execute("SET SESSION foreign_key_checks = 1")).thenThrow(new SQLException("gone"));
+
+        profile.withSession(conn, "nps_portfolio_item", () -> { });
+
+        verify(conn).abort(any());
+    }
+}
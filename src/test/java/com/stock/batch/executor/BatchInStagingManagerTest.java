@@ -0,0 +1,247 @@
+package com.stock.batch.executor;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BatchInStagingManagerTest {
+
+    private static final String HOLDINGS_DDL = String.join("\n",
+            "CREATE TABLE `kodex_etf_holdings` (",
+            "  `id` bigint(20) NOT NULL AUTO_INCREMENT,",
+            "  `base_date` varchar(8) NOT NULL,",
+            "  `stock_code` varchar(20) NOT NULL,",
+            "  `stock_name` varchar(200) DEFAULT NULL,",
+            "  PRIMARY KEY (`id`),",
+            "  UNIQUE KEY `uq_holdings` (`base_date`,`stock_code`),",
+            "  KEY `idx_holdings_code` (`stock_code`),",
+            "  FULLTEXT KEY `ft_holdings_name` (`stock_name`)",
+            ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4");
+
+    private final DataSource dataSource = mock(DataSource.class);
+    private final Connection conn = mock(Connection.class);
+    private final Statement stmt = mock(Statement.class);
+    private final BatchExecutionMode executionMode = mock(BatchExecutionMode.class);
+
+    private final BatchInStagingManager manager = new BatchInStagingManager(dataSource, executionMode);
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ReflectionTestUtils.setField(manager, "enabled", true);
+        ReflectionTestUtils.setField(manager, "publishTimeoutMinutes", 360L);
+        when(executionMode.withDbPermit(any())).thenAnswer(inv -> ((Callable<?>) inv.getArgument(0)).call());
+        when(dataSource.getConnection()).thenReturn(conn);
+        when(conn.createStatement()).thenReturn(stmt);
+    }
+
+    @Test
+    void groupIsPublishedOnceEveryTableLoaded() throws Exception {
+
+        manager.enterJob();
+        manager.begin("KODEX", "kodex_etf_summary", "kodex_etf_holdings");
+
+        assertThat(manager.resolveTarget("kodex_etf_summary")).isEqualTo("kodex_etf_summary__staging");
+
+        manager.onFileResult("kodex_etf_summary", true);
+        manager.afterJob();
+
+        // 형제 테이블 미적재 → 대기
+        assertThat(executed()).noneMatch(sql -> sql.startsWith("RENAME TABLE"));
+
+        manager.enterJob();
+        manager.onFileResult("kodex_etf_holdings", true);
+        manager.afterJob();
+
+        assertThat(executed()).contains("RENAME TABLE kodex_etf_summary TO kodex_etf_summary__old, "
+                + "kodex_etf_summary__staging TO kodex_etf_summary, "
+                + "kodex_etf_holdings TO kodex_etf_holdings__old, "
+                + "kodex_etf_holdings__staging TO kodex_etf_holdings");
+        assertThat(manager.resolveTarget("kodex_etf_summary")).isEqualTo("kodex_etf_summary");
+    }
+
+    @Test
+    void failedFileAbortsGroupAndKeepsLiveTables() throws Exception {
+
+        manager.enterJob();
+        manager.begin("NPS", "nps_portfolio_header", "nps_portfolio_item");
+        manager.onFileResult("nps_portfolio_header", true);
+        manager.onFileResult("nps_portfolio_item", false);
+        manager.afterJob();
+
+        assertThat(executed())
+                .contains("DROP TABLE IF EXISTS nps_portfolio_header__staging", "DROP TABLE IF EXISTS nps_portfolio_item__staging")
+                .noneMatch(sql -> sql.startsWith("RENAME TABLE"));
+        assertThat(manager.resolveTarget("nps_portfolio_item")).isEqualTo("nps_portfolio_item");
+    }
+
+    @Test
+    void settleIsDeferredWhileSiblingJobRuns() throws Exception {
+
+        manager.enterJob();
+        manager.enterJob();
+        manager.begin("TIGER", "tiger_etf_summary");
+        manager.onFileResult("tiger_etf_summary", true);
+        manager.afterJob();
+
+        assertThat(executed()).noneMatch(sql -> sql.startsWith("RENAME TABLE"));
+
+        manager.afterJob();
+
+        assertThat(executed()).anyMatch(sql -> sql.startsWith("RENAME TABLE"));
+    }
+
+    @Test
+    void unpublishedGroupIsAbortedAfterDayRollover() throws Exception {
+
+        manager.enterJob();
+        manager.begin("KODEX", "kodex_etf_summary", "kodex_etf_holdings");
+        manager.onFileResult("kodex_etf_summary", true);
+        manager.afterJob();
+        clearInvocations(stmt);
+
+        // 당일, 제한 시간 이내 → 유지
+        manager.abortExpired(LocalDateTime.now().plusMinutes(1));
+        verify(stmt, never()).execute(anyString());
+
+        manager.abortExpired(LocalDateTime.now().plusDays(1));
+
+        assertThat(executed()).contains("DROP TABLE IF EXISTS kodex_etf_summary__staging", "DROP TABLE IF EXISTS kodex_etf_holdings__staging");
+        assertThat(manager.resolveTarget("kodex_etf_summary")).isEqualTo("kodex_etf_summary");
+    }
+
+    @Test
+    void expiryWaitsForRunningJobs() throws Exception {
+
+        manager.enterJob();
+        manager.begin("KODEX", "kodex_etf_summary", "kodex_etf_holdings");
+        clearInvocations(stmt);
+
+        manager.abortExpired(LocalDateTime.now().plusDays(1));
+
+        verify(stmt, never()).execute(anyString());
+        assertThat(manager.resolveTarget("kodex_etf_summary")).isEqualTo("kodex_etf_summary__staging");
+    }
+
+    @Test
+    void stagingIsRejectedInClusterMode() {
+
+        ReflectionTestUtils.setField(manager, "clusterEnabled", true);
+
+        assertThatThrownBy(manager::init).isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("batch.cluster.enabled");
+    }
+
+    @Test
+    void stagingDefersSecondaryIndexesUntilPublish() throws Exception {
+
+        ReflectionTestUtils.setField(manager, "deferIndexes", true);
+        showCreateTable(HOLDINGS_DDL);
+
+        manager.enterJob();
+        manager.begin("KODEX", "kodex_etf_holdings");
+        manager.onFileResult("kodex_etf_holdings", true);
+        manager.afterJob();
+
+        // PRIMARY / UNIQUE 는 유지, KEY / FULLTEXT KEY 만 제거 후 swap 직전 재생성
+        InOrder order = inOrder(stmt);
+        order.verify(stmt).execute("CREATE TABLE kodex_etf_holdings__staging LIKE kodex_etf_holdings");
+        order.verify(stmt).execute("ALTER TABLE kodex_etf_holdings__staging DROP INDEX `idx_holdings_code`, DROP INDEX `ft_holdings_name`");
+        order.verify(stmt).execute("ALTER TABLE kodex_etf_holdings__staging"
+                + " ADD KEY `idx_holdings_code` (`stock_code`), ADD FULLTEXT KEY `ft_holdings_name` (`stock_name`)");
+        order.verify(stmt).execute("RENAME TABLE kodex_etf_holdings TO kodex_etf_holdings__old, kodex_etf_holdings__staging TO kodex_etf_holdings");
+    }
+
+    @Test
+    void truncatedTableIndexesAreRebuiltAfterLoad() throws Exception {
+
+        ReflectionTestUtils.setField(manager, "enabled", false);
+        ReflectionTestUtils.setField(manager, "deferIndexes", true);
+        showCreateTable(HOLDINGS_DDL);
+
+        manager.enterJob();
+        manager.deferLiveIndexes("kodex_etf_holdings");
+
+        verify(stmt).execute("ALTER TABLE kodex_etf_holdings DROP INDEX `idx_holdings_code`, DROP INDEX `ft_holdings_name`");
+
+        // 당일 재실행: 이미 제거된 인덱스는 다시 읽지 않고 처음 재생성 절 유지
+        manager.deferLiveIndexes("kodex_etf_holdings");
+        verify(stmt).executeQuery("SHOW CREATE TABLE kodex_etf_holdings");
+
+        // 적재 결과 기록 전에는 재생성하지 않는다
+        manager.afterJob();
+        assertThat(executed()).noneMatch(sql -> sql.contains(" ADD KEY "));
+
+        manager.enterJob();
+        manager.onFileResult("kodex_etf_holdings", false);
+        manager.afterJob();
+
+        verify(stmt).execute("ALTER TABLE kodex_etf_holdings"
+                + " ADD KEY `idx_holdings_code` (`stock_code`), ADD FULLTEXT KEY `ft_holdings_name` (`stock_name`)");
+    }
+
+    @Test
+    void unloadedTruncatedTableIndexesAreRebuiltAfterDayRollover() throws Exception {
+
+        ReflectionTestUtils.setField(manager, "enabled", false);
+        ReflectionTestUtils.setField(manager, "deferIndexes", true);
+        showCreateTable("CREATE TABLE `nps_portfolio_item` (\n  `id` int NOT NULL,\n  KEY `idx_item` (`id`)\n) ENGINE=Aria");
+
+        manager.deferLiveIndexes("nps_portfolio_item");
+        verify(stmt).execute("ALTER TABLE nps_portfolio_item DISABLE KEYS");
+
+        manager.abortExpired(LocalDateTime.now());
+        verify(stmt, never()).execute("ALTER TABLE nps_portfolio_item ENABLE KEYS");
+
+        manager.abortExpired(LocalDateTime.now().plusDays(1));
+        verify(stmt).execute("ALTER TABLE nps_portfolio_item ENABLE KEYS");
+    }
+
+    @Test
+    void deferredIndexesAreRejectedInClusterMode() {
+
+        ReflectionTestUtils.setField(manager, "enabled", false);
+        ReflectionTestUtils.setField(manager, "deferIndexes", true);
+        ReflectionTestUtils.setField(manager, "clusterEnabled", true);
+
+        assertThatThrownBy(manager::init).isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("defer-indexes");
+    }
+
+    private void showCreateTable(String ddl) throws Exception {
+
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.next()).thenReturn(true);
+        when(rs.getString(2)).thenReturn(ddl);
+        when(stmt.executeQuery(anyString())).thenReturn(rs);
+    }
+
+    private List<String> executed() throws Exception {
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(stmt, atLeastOnce()).execute(sql.capture());
+
+        return sql.getAllValues();
+    }
+}
@@ -0,0 +1,89 @@
+package com.stock.batch.executor;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.BatchUpdateException;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BatchInWriteModeTest {
+
+    private static final List<String> COLUMNS = List.of("code", "price");
+
+    @Test
+    void statementPerMode() {
+
+        assertThat(BatchInWriteMode.statement(BatchInWriteMode.Mode.REPLACE, "quote", COLUMNS, "(?, ?)"))
+                .isEqualTo("REPLACE INTO quote (code, price) VALUES (?, ?)");
+
+        assertThat(BatchInWriteMode.statement(BatchInWriteMode.Mode.INSERT, "quote", COLUMNS, "(?, ?), (?, ?)"))
+                .isEqualTo("INSERT INTO quote (code, price) VALUES (?, ?), (?, ?)");
+
+        assertThat(BatchInWriteMode.statement(BatchInWriteMode.Mode.UPSERT, "quote", COLUMNS, "(?, ?)"))
+                .isEqualTo("INSERT INTO quote (code, price) VALUES (?, ?)"
+                        + " ON DUPLICATE KEY UPDATE code = VALUES(code), price = VALUES(price)");
+    }
+
+    @Test
+    void configuredTablesUseFixedModeIncludingStagingName() {
+
+        BatchInWriteMode writeMode = writeMode(Set.of("ins_t"), Set.of("ups_t"), false, false);
+
+        assertThat(writeMode.resolve("ins_t")).isEqualTo(BatchInWriteMode.Mode.INSERT);
+        assertThat(writeMode.resolve("ins_t" + BatchInStagingManager.STAGING_SUFFIX)).isEqualTo(BatchInWriteMode.Mode.INSERT);
+        assertThat(writeMode.resolve("ups_t")).isEqualTo(BatchInWriteMode.Mode.UPSERT);
+        assertThat(writeMode.resolve("other")).isEqualTo(BatchInWriteMode.Mode.REPLACE);
+        assertThat(writeMode.fallbackToReplace("ins_t")).isFalse();
+    }
+
+    @Test
+    void inferredInsertFallsBackToReplaceForTheDay() {
+
+        BatchInWriteMode writeMode = writeMode(Set.of(), Set.of(), true, true);
+
+        assertThat(writeMode.resolve("quote")).isEqualTo(BatchInWriteMode.Mode.INSERT);
+        assertThat(writeMode.fallbackToReplace("quote")).isTrue();
+        assertThat(writeMode.resolve("quote")).isEqualTo(BatchInWriteMode.Mode.REPLACE);
+        assertThat(writeMode.fallbackToReplace("quote")).isFalse();
+    }
+
+    @Test
+    void notPreCleanedTableIsNotInferred() {
+
+        BatchInWriteMode writeMode = writeMode(Set.of(), Set.of(), true, false);
+
+        assertThat(writeMode.resolve("quote")).isEqualTo(BatchInWriteMode.Mode.REPLACE);
+        assertThat(writeMode.fallbackToReplace("quote")).isFalse();
+    }
+
+    @Test
+    void duplicateKeyDetectedThroughCauseChain() {
+
+        SQLException duplicate = BatchInWriteMode.duplicateKey("Duplicate entry");
+        BatchUpdateException wrapped = new BatchUpdateException("batch", new int[0], duplicate);
+
+        assertThat(BatchInWriteMode.isDuplicateKey(new RuntimeException(wrapped))).isTrue();
+        assertThat(BatchInWriteMode.isDuplicateKey(new SQLException("deadlock", "40001", 1213))).isFalse();
+    }
+
+    private static BatchInWriteMode writeMode(Set<String> insertTables, Set<String> upsertTables,
+                                              boolean infer, boolean preCleaned) {
+
+        BatchInPreCleaner preCleaner = mock(BatchInPreCleaner.class);
+        when(preCleaner.isPreCleanedToday(anyString())).thenReturn(preCleaned);
+
+        BatchInWriteMode writeMode = new BatchInWriteMode(preCleaner);
+        ReflectionTestUtils.setField(writeMode, "insertTables", insertTables);
+        ReflectionTestUtils.setField(writeMode, "upsertTables", upsertTables);
+        ReflectionTestUtils.setField(writeMode, "infer", infer);
+
+        return writeMode;
+    }
+}
@@ -0,0 +1,99 @@
+package com.stock.batch.executor;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class Utf8PositionReaderTest {
+
+    @Test
+    void decodesLikeStandardUtf8() throws Exception {
+
+        String text = "a,삼성전자,€,😀\n";
+
+        assertThat(readAll(new Utf8PositionReader(stream(text)), 3)).isEqualTo(text);
+    }
+
+    @Test
+    void mapsCharPositionsToByteOffsets() throws Exception {
+
+        // a(1) 가(3) €(3) 😀(4, surrogate pair 2문자) b(1)
+        String text = "a가€😀b";
+        Utf8PositionReader reader = new Utf8PositionReader(stream(text));
+
+        assertThat(readAll(reader, 64)).isEqualTo(text);
+
+        assertThat(reader.byteOffsetOf(0)).isEqualTo(0);
+        assertThat(reader.byteOffsetOf(1)).isEqualTo(1);
+        assertThat(reader.byteOffsetOf(2)).isEqualTo(4);
+        assertThat(reader.byteOffsetOf(3)).isEqualTo(7);
+        assertThat(reader.byteOffsetOf(5)).isEqualTo(11);
+        assertThat(reader.byteOffsetOf(text.length())).isEqualTo(text.getBytes(StandardCharsets.UTF_8).length);
+    }
+
+    @Test
+    void multiByteCharacterSplitAcrossReadsKeepsOffsets() throws Exception {
+
+        String text = "가나다라";
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+
+        // 1바이트씩 돌려주는 stream (멀티바이트 문자가 read 경계에 걸림)
+        InputStream trickle = new InputStream() {
+
+            private int pos;
+
+            @Override
+            public int read() {
+                return pos < bytes.length ? bytes[pos++] & 0xff : -1;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) {
+                if (pos >= bytes.length) {
+                    return -1;
+                }
+                b[off] = bytes[pos++];
+                return 1;
+            }
+        };
+
+        Utf8PositionReader reader = new Utf8PositionReader(trickle);
+
+        assertThat(readAll(reader, 2)).isEqualTo(text);
+        assertThat(reader.byteOffsetOf(3)).isEqualTo(9);
+    }
+
+    @Test
+    void positionOutsideWindowIsRejected() throws Exception {
+
+        Utf8PositionReader reader = new Utf8PositionReader(stream("x".repeat(70_000)));
+
+        readAll(reader, 4096);
+
+        assertThat(reader.byteOffsetOf(69_000)).isEqualTo(69_000);
+        assertThatThrownBy(() -> reader.byteOffsetOf(1)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> reader.byteOffsetOf(70_001)).isInstanceOf(IllegalStateException.class);
+    }
+
+    private static InputStream stream(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String readAll(Utf8PositionReader reader, int chunk) throws Exception {
+
+        StringBuilder sb = new StringBuilder();
+        char[] cbuf = new char[chunk];
+        int n;
+
+        while ((n = reader.read(cbuf, 0, cbuf.length)) >= 0) {
+            sb.append(cbuf, 0, n);
+        }
+
+        return sb.toString();
+    }
+}
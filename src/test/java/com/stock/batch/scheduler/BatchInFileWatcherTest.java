@@ -0,0 +1,93 @@
+package com.stock.batch.scheduler;
+
+import com.stock.batch.service.BatchInService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class BatchInFileWatcherTest {
+
+    @TempDir
+    Path root;
+
+    private Path today;
+
+    private final BatchInService batchInService = mock(BatchInService.class);
+
+    private final BatchInFileWatcher watcher = new BatchInFileWatcher(batchInService);
+
+    // executeTriggeredJobs 는 synchronized 이므로 timeout verify 대신 latch 로 대기
+    private final CountDownLatch triggered = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() throws Exception {
+
+        today = Files.createDirectories(root.resolve(LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"))));
+
+        doAnswer(inv -> {
+            triggered.countDown();
+            return null;
+        }).when(batchInService).executeTriggeredJobs(anyList(), anyBoolean());
+
+        ReflectionTestUtils.setField(watcher, "BATCH_OUT", root.toString());
+        ReflectionTestUtils.setField(watcher, "enabled", true);
+        ReflectionTestUtils.setField(watcher, "debounceMs", 200L);
+        watcher.start();
+
+        // watcher 스레드가 오늘 폴더를 등록할 시간
+        Thread.sleep(300);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        watcher.stop();
+    }
+
+    @Test
+    void fileMarkerTriggersOnlyThatFile() throws Exception {
+
+        Files.writeString(today.resolve("daily_price_20261018.csv"), "code\n005930\n");
+        Files.writeString(today.resolve("strategy_20261018.csv"), "code\n");
+        Files.createFile(today.resolve("daily_price_20261018.csv.ready"));
+
+        assertThat(triggered.await(5, TimeUnit.SECONDS)).isTrue();
+        verify(batchInService).executeTriggeredJobs(List.of("daily_price_20261018.csv"), false);
+    }
+
+    @Test
+    void folderMarkerTriggersEveryFile() throws Exception {
+
+        Files.writeString(today.resolve("daily_price_20261018.csv"), "code\n005930\n");
+        Files.createFile(today.resolve("_READY"));
+
+        assertThat(triggered.await(5, TimeUnit.SECONDS)).isTrue();
+        verify(batchInService).executeTriggeredJobs(List.of("daily_price_20261018.csv"), true);
+    }
+
+    @Test
+    void fileWithoutMarkerIsNotTriggered() throws Exception {
+
+        Files.writeString(today.resolve("daily_price_20261018.csv"), "code\n005930\n");
+
+        assertThat(triggered.await(1, TimeUnit.SECONDS)).isFalse();
+        verify(batchInService, never()).executeTriggeredJobs(anyList(), anyBoolean());
+    }
+}
@@ -0,0 +1,89 @@
+package com.stock.batch.scheduler;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BatchJobDispatcherTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private final BatchJobDispatcher dispatcher = new BatchJobDispatcher(registry, 2, 10, 1, 1, 1);
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void workerThreadsHaveUniqueNames() throws Exception {
+
+        Set<String> names = ConcurrentHashMap.newKeySet();
+        CountDownLatch bothRunning = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+
+        for (int i = 0; i < 2; i++) {
+            dispatcher.submitBatchIn(() -> {
+                names.add(Thread.currentThread().getName());
+                bothRunning.countDown();
+                await(release);
+            });
+        }
+
+        assertThat(bothRunning.await(5, TimeUnit.SECONDS)).isTrue();
+        release.countDown();
+
+        assertThat(names).containsExactlyInAnyOrder("batch-in-exec-1", "batch-in-exec-2");
+    }
+
+    @Test
+    void saturatedPoolRunsOnCallerAndCountsRejection() throws Exception {
+
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+
+        // 스레드 1 + 대기열 1 점유
+        dispatcher.submitBatchOut(() -> {
+            started.countDown();
+            await(release);
+        });
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        dispatcher.submitBatchOut(() -> { });
+
+        String[] ranOn = new String[1];
+        dispatcher.submitBatchOut(() -> ranOn[0] = Thread.currentThread().getName());
+        release.countDown();
+
+        assertThat(ranOn[0]).isEqualTo(Thread.currentThread().getName());
+        assertThat(registry.get("batch.dispatch.rejected").tag("executor", "batch-out-exec").counter().count()).isEqualTo(1.0);
+        assertThat(registry.get("batch.dispatch.queued").tag("executor", "batch-out-exec").gauge()).isNotNull();
+    }
+
+    @Test
+    void failingJobDoesNotKillWorker() throws Exception {
+
+        CountDownLatch done = new CountDownLatch(1);
+
+        dispatcher.submitMaintenance(() -> {
+            throw new IllegalStateException("boom");
+        });
+        dispatcher.submitMaintenance(done::countDown);
+
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.stock.batch.scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MinuteScanWindowTest {
+
+    private static final LocalDateTime T = LocalDateTime.of(2025, 3, 10, 9, 0);
+
+    @Test
+    void firstCallCatchesUpStartupMinutes() {
+
+        MinuteScanWindow window = new MinuteScanWindow();
+
+        assertThat(window.advance(T.plusSeconds(42), 2, 10))
+                .containsExactly(T.minusMinutes(2), T.minusMinutes(1), T);
+    }
+
+    @Test
+    void sameMinuteIsNotScannedTwice() {
+
+        MinuteScanWindow window = new MinuteScanWindow();
+        window.advance(T, 0, 10);
+
+        assertThat(window.advance(T.plusSeconds(30), 0, 10)).isEmpty();
+        assertThat(window.advance(T.plusMinutes(1), 0, 10)).containsExactly(T.plusMinutes(1));
+    }
+
+    @Test
+    void delayedTickReturnsSkippedMinutes() {
+
+        MinuteScanWindow window = new MinuteScanWindow();
+        window.advance(T, 0, 10);
+
+        assertThat(window.advance(T.plusMinutes(3).plusSeconds(5), 0, 10))
+                .containsExactly(T.plusMinutes(1), T.plusMinutes(2), T.plusMinutes(3));
+    }
+
+    @Test
+    void catchUpIsCappedAtMaxMinutes() {
+
+        MinuteScanWindow window = new MinuteScanWindow();
+        window.advance(T, 0, 5);
+
+        assertThat(window.advance(T.plusMinutes(60), 0, 5))
+                .hasSize(6)
+                .startsWith(T.plusMinutes(55))
+                .endsWith(T.plusMinutes(60));
+    }
+
+    @Test
+    void startupCatchUpDoesNotReachIntoPreviousDay() {
+
+        MinuteScanWindow window = new MinuteScanWindow();
+        LocalDateTime midnight = LocalDateTime.of(2025, 3, 11, 0, 0);
+
+        assertThat(window.advance(midnight.plusMinutes(10), 30, 180))
+                .hasSize(11)
+                .startsWith(midnight)
+                .endsWith(midnight.plusMinutes(10));
+    }
+
+    @Test
+    void delayedTickAcrossMidnightScansOnlyToday() {
+
+        MinuteScanWindow window = new MinuteScanWindow();
+        LocalDateTime midnight = LocalDateTime.of(2025, 3, 11, 0, 0);
+        window.advance(midnight.minusMinutes(5), 0, 180);
+
+        assertThat(window.advance(midnight.plusMinutes(2), 0, 180))
+                .containsExactly(midnight, midnight.plusMinutes(1), midnight.plusMinutes(2));
+    }
+
+    @Test
+    void clockGoingBackwardsDoesNotRewindWindow() {
+
+        MinuteScanWindow window = new MinuteScanWindow();
+        window.advance(T, 0, 10);
+
+        assertThat(window.advance(T.minusMinutes(2), 0, 10)).isEmpty();
+        assertThat(window.advance(T.plusMinutes(1), 0, 10)).containsExactly(T.plusMinutes(1));
+    }
+}
@@ -0,0 +1,66 @@
+package com.stock.batch.scheduler;
+
+import com.stock.batch.service.StockJobQueuedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.DatagramSocket;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class StockJobQueueNotifierTest {
+
+    private final StockJobQueueWorker localWorker = mock(StockJobQueueWorker.class);
+    private final StockJobQueueWorker remoteWorker = mock(StockJobQueueWorker.class);
+
+    private final StockJobQueueNotifier local = new StockJobQueueNotifier(localWorker);
+    private final StockJobQueueNotifier remote = new StockJobQueueNotifier(remoteWorker);
+
+    @AfterEach
+    void tearDown() {
+        local.stop();
+        remote.stop();
+    }
+
+    @Test
+    void queuedEventWakesLocalWorkerWithoutPeers() throws Exception {
+
+        ReflectionTestUtils.setField(local, "peers", "");
+        local.start();
+
+        local.onQueued(new StockJobQueuedEvent("STRATEGY_A", 3));
+
+        verify(localWorker).wakeUp();
+    }
+
+    @Test
+    void queuedEventWakesPeerWorkerOverUdp() throws Exception {
+
+        int port;
+        try (DatagramSocket probe = new DatagramSocket(0)) {
+            port = probe.getLocalPort();
+        }
+
+        ReflectionTestUtils.setField(remote, "port", port);
+        ReflectionTestUtils.setField(remote, "peers", "");
+        remote.start();
+
+        ReflectionTestUtils.setField(local, "peers", " 127.0.0.1:" + port + " ,");
+        local.start();
+
+        local.onQueued(new StockJobQueuedEvent("STRATEGY_A", 3));
+
+        verify(localWorker).wakeUp();
+        verify(remoteWorker, timeout(5000)).wakeUp();
+
+        // 알림이 유실되어도 발신 측은 실패하지 않는다 (poll 이 안전망)
+        remote.stop();
+        local.onQueued(new StockJobQueuedEvent("STRATEGY_B", 4));
+
+        verify(localWorker, times(2)).wakeUp();
+    }
+}
@@ -0,0 +1,45 @@
+package com.stock.batch.scheduler;
+
+import com.stock.batch.executor.BatchExecutionMode;
+import com.stock.batch.service.StockJobQueueService;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class StockJobQueueWorkerTest {
+
+    private final StockJobQueueService queueService = mock(StockJobQueueService.class);
+
+    @Test
+    void disabledWorkerDoesNotTouchQueue() {
+
+        StockJobQueueWorker worker = worker(false, "node-a");
+
+        worker.start();
+        worker.age();
+        worker.recoverStale();
+
+        verifyNoInteractions(queueService);
+    }
+
+    @Test
+    void blankOwnerFallsBackToHostName() {
+
+        StockJobQueueWorker worker = worker(false, "");
+
+        assertThat((String) ReflectionTestUtils.getField(worker, "ownerId")).isNotBlank();
+    }
+
+    private StockJobQueueWorker worker(boolean enabled, String ownerId) {
+
+        StockJobQueueWorker worker = new StockJobQueueWorker(queueService, mock(BatchExecutionMode.class));
+        ReflectionTestUtils.setField(worker, "enabled", enabled);
+        ReflectionTestUtils.setField(worker, "ownerId", ownerId);
+        worker.init();
+
+        return worker;
+    }
+}
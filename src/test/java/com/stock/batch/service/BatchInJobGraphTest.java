@@ -0,0 +1,172 @@
+package com.stock.batch.service;
+
+import com.stock.batch.domain.BatchIn;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BatchInJobGraphTest {
+
+    private final ExecutorService pool = Executors.newFixedThreadPool(4);
+
+    private final List<String> started = Collections.synchronizedList(new ArrayList<>());
+    private final Map<String, String> skipped = Collections.synchronizedMap(new LinkedHashMap<>());
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void dependsOnParsesCommaListAndIgnoresSelf() {
+
+        assertThat(BatchInJobGraph.dependsOn(job(1, "A", " B, ,C,B ,A"))).containsExactly("B", "C");
+        assertThat(BatchInJobGraph.dependsOn(job(2, "A", null))).isEmpty();
+    }
+
+    @Test
+    void singleWorkerRunsPrerequisitesFirstThenJobIdOrder() throws Exception {
+
+        List<BatchIn> jobs = List.of(job(1, "A", "C"), job(2, "B", null), job(3, "C", null));
+
+        BatchInJobGraph.run(jobs, 1, pool, this::record, this::skip, job -> null);
+
+        assertThat(started).containsExactly("B", "C", "A");
+        assertThat(skipped).isEmpty();
+    }
+
+    @Test
+    void failureSkipsDependentsTransitively() throws Exception {
+
+        List<BatchIn> jobs = List.of(job(1, "A", null), job(2, "B", "A"), job(3, "C", "B"), job(4, "D", null));
+
+        BatchInJobGraph.run(jobs, 2, pool, job -> record(job) && !job.getJobName().equals("A"), this::skip, job -> null);
+
+        assertThat(started).containsExactlyInAnyOrder("A", "D");
+        assertThat(skipped).containsExactly(
+                Map.entry("B", "DEPENDENCY_FAILED(A)"),
+                Map.entry("C", "DEPENDENCY_FAILED(A)"));
+    }
+
+    @Test
+    void exceptionCountsAsFailure() throws Exception {
+
+        List<BatchIn> jobs = List.of(job(1, "A", null), job(2, "B", "A"));
+
+        BatchInJobGraph.run(jobs, 1, pool, job -> {
+            throw new IllegalStateException("boom");
+        }, this::skip, job -> null);
+
+        assertThat(skipped).containsExactly(Map.entry("B", "DEPENDENCY_FAILED(A)"));
+    }
+
+    @Test
+    void cycleIsSkippedWithoutBlockingOthers() throws Exception {
+
+        List<BatchIn> jobs = List.of(job(1, "A", "B"), job(2, "B", "A"), job(3, "C", null), job(4, "D", "A"));
+
+        BatchInJobGraph.run(jobs, 2, pool, this::record, this::skip, job -> null);
+
+        assertThat(started).containsExactly("C");
+        assertThat(skipped).containsOnlyKeys("A", "B", "D");
+        assertThat(Set.copyOf(skipped.values())).containsExactly("DEPENDENCY_CYCLE");
+    }
+
+    @Test
+    void prerequisiteOutsideBatchIsIgnored() throws Exception {
+
+        BatchInJobGraph.run(List.of(job(1, "A", "EXTERNAL")), 1, pool, this::record, this::skip, job -> null);
+
+        assertThat(started).containsExactly("A");
+    }
+
+    @Test
+    void concurrencyIsCappedAtWorkers() throws Exception {
+
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+
+        List<BatchIn> jobs = new ArrayList<>();
+        for (int i = 1; i <= 8; i++) {
+            jobs.add(job(i, "J" + i, null));
+        }
+
+        BatchInJobGraph.run(jobs, 2, pool, job -> {
+            peak.accumulateAndGet(active.incrementAndGet(), Math::max);
+            sleep(20);
+            active.decrementAndGet();
+            return record(job);
+        }, this::skip, job -> null);
+
+        assertThat(started).hasSize(8);
+        assertThat(peak.get()).isEqualTo(2);
+    }
+
+    @Test
+    void exclusiveGroupRunsOneAtATimeInJobIdOrder() throws Exception {
+
+        AtomicInteger activeInGroup = new AtomicInteger();
+        AtomicInteger peakInGroup = new AtomicInteger();
+
+        List<BatchIn> jobs = List.of(job(1, "KODEX_ETF_1", null), job(2, "KODEX_ETF_2", null),
+                job(3, "KODEX_ETF_3", null), job(4, "OTHER", null));
+
+        BatchInJobGraph.run(jobs, 4, pool, job -> {
+            boolean grouped = job.getJobName().startsWith("KODEX");
+            if (grouped) {
+                peakInGroup.accumulateAndGet(activeInGroup.incrementAndGet(), Math::max);
+            }
+            record(job);
+            sleep(20);
+            if (grouped) {
+                activeInGroup.decrementAndGet();
+            }
+            return true;
+        }, this::skip, BatchInJobGraphTest::group);
+
+        assertThat(peakInGroup.get()).isEqualTo(1);
+        assertThat(started.stream().filter(name -> name.startsWith("KODEX")))
+                .containsExactly("KODEX_ETF_1", "KODEX_ETF_2", "KODEX_ETF_3");
+        assertThat(started).contains("OTHER");
+    }
+
+    private boolean record(BatchIn job) {
+        started.add(job.getJobName());
+        return true;
+    }
+
+    private void skip(BatchIn job, String reason) {
+        skipped.put(job.getJobName(), reason);
+    }
+
+    private static String group(BatchIn job) {
+        return job.getJobName().startsWith("KODEX") ? "KODEX" : null;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static BatchIn job(int jobId, String jobName, String dependsOn) {
+        return BatchIn.builder()
+                .jobId(jobId)
+                .jobName(jobName)
+                .dependsOn(dependsOn)
+                .build();
+    }
+}
@@ -0,0 +1,98 @@
+package com.stock.batch.service;
+
+import com.stock.batch.cluster.BatchLeaseManager;
+import com.stock.batch.domain.BatchOut;
+import com.stock.batch.domain.StockJobQueue;
+import com.stock.batch.mapper.BatchOutMapper;
+import com.stock.batch.mapper.StockJobQueueMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BatchOutServiceTest {
+
+    private final BatchOutMapper batchOutMapper = mock(BatchOutMapper.class);
+    private final StockJobQueueMapper queueMapper = mock(StockJobQueueMapper.class);
+    private final BatchLeaseManager leaseManager = mock(BatchLeaseManager.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+
+    private BatchOutService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new BatchOutService(batchOutMapper, queueMapper, leaseManager, eventPublisher);
+        when(leaseManager.tryAcquire(anyString())).thenReturn(true);
+        when(batchOutMapper.selectBatchOutForDispatch(anyList())).thenReturn(List.of(job()));
+    }
+
+    @Test
+    void retryAfterFailedRunIsQueuedAgain() {
+
+        // 같은 날 F 로 끝난 요청은 live_batch_out_id 가 NULL → 새 요청 INSERT 성공
+        when(queueMapper.insertWaiting(any())).thenReturn(1);
+
+        service.executeJobsById(List.of(7));
+
+        ArgumentCaptor<StockJobQueue> waiting = ArgumentCaptor.forClass(StockJobQueue.class);
+        verify(queueMapper).insertWaiting(waiting.capture());
+
+        assertThat(waiting.getValue().getBatchOutId()).isEqualTo(7);
+        assertThat(waiting.getValue().getExecDate()).isEqualTo(LocalDate.now());
+        assertThat(waiting.getValue().getStatus()).isEqualTo("W");
+
+        verify(eventPublisher).publishEvent(new StockJobQueuedEvent("KospiUpdate", 7));
+        verify(batchOutMapper).updateExecutionStatus(any());
+    }
+
+    @Test
+    void liveRequestIsNotQueuedTwice() {
+
+        when(queueMapper.insertWaiting(any())).thenThrow(new DuplicateKeyException("uq_stock_job_queue_live"));
+
+        service.executeJobsById(List.of(7));
+
+        verify(eventPublisher, never()).publishEvent(any());
+
+        ArgumentCaptor<BatchOut> updated = ArgumentCaptor.forClass(BatchOut.class);
+        verify(batchOutMapper).updateExecutionStatus(updated.capture());
+        assertThat(updated.getValue().getActGb()).isEqualTo("Y");
+    }
+
+    @Test
+    void otherInsertErrorLeavesJobForNextScan() {
+
+        when(queueMapper.insertWaiting(any())).thenThrow(new DataIntegrityViolationException("job_code cannot be null"));
+
+        service.executeJobsById(List.of(7));
+
+        verify(batchOutMapper, never()).updateExecutionStatus(any());
+        verify(leaseManager).release(anyString());
+    }
+
+    private static BatchOut job() {
+        return BatchOut.builder()
+                .jobId(7)
+                .jobName("KOSPI_UPDATE")
+                .shellFileDir("KospiUpdate")
+                .scheduleGb("D")
+                .jobHour("09")
+                .jobMin("00")
+                .actGb("N")
+                .build();
+    }
+}
@@ -0,0 +1,162 @@
+package com.stock.batch.service;
+
+import com.stock.batch.domain.BatchOutHistory;
+import com.stock.batch.domain.StockJobInfo;
+import com.stock.batch.domain.StockJobQueue;
+import com.stock.batch.executor.BatchExecutionMode;
+import com.stock.batch.executor.PythonBatchJob;
+import com.stock.batch.mapper.BatchOutHistoryMapper;
+import com.stock.batch.mapper.BatchOutMapper;
+import com.stock.batch.mapper.StockJobInfoMapper;
+import com.stock.batch.mapper.StockJobQueueMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StockJobQueueServiceTest {
+
+    private static final String OWNER = "node-a";
+
+    private final StockJobQueueMapper queueMapper = mock(StockJobQueueMapper.class);
+    private final StockJobInfoMapper jobInfoMapper = mock(StockJobInfoMapper.class);
+    private final BatchOutMapper batchOutMapper = mock(BatchOutMapper.class);
+    private final BatchOutHistoryMapper historyMapper = mock(BatchOutHistoryMapper.class);
+    private final BatchExecutionMode executionMode = mock(BatchExecutionMode.class);
+
+    private StockJobQueueService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        service = new StockJobQueueService(queueMapper, jobInfoMapper, batchOutMapper,
+                historyMapper, mock(PythonBatchJob.class), executionMode);
+        when(executionMode.withDbPermit(any())).thenAnswer(inv -> ((Callable<?>) inv.getArgument(0)).call());
+    }
+
+    @Test
+    void equalWeightsAlternateBetweenJobCodes() {
+
+        waiting(item(1, "A", 5), item(2, "A", 5), item(3, "A", 5), item(4, "B", 5));
+
+        assertThat(waitIds(service.claim(4, 10, OWNER, item -> true))).containsExactly(1L, 4L, 2L, 3L);
+        verify(queueMapper).updateStatusRunningByIds(List.of(1L, 4L, 2L, 3L), OWNER);
+    }
+
+    @Test
+    void shareWeightGivesProportionalTurns() {
+
+        weights(Map.of("A", 2, "B", 1));
+        waiting(item(1, "A", 5), item(2, "A", 5), item(3, "A", 5), item(4, "A", 5), item(5, "B", 5), item(6, "B", 5));
+
+        assertThat(waitIds(service.claim(6, 10, OWNER, item -> true))).containsExactly(1L, 5L, 2L, 3L, 6L, 4L);
+    }
+
+    @Test
+    void servedCountCarriesAcrossClaims() {
+
+        waiting(item(1, "A", 5), item(2, "B", 5));
+        assertThat(waitIds(service.claim(1, 10, OWNER, item -> true))).containsExactly(1L);
+
+        waiting(item(3, "A", 5), item(2, "B", 5));
+        assertThat(waitIds(service.claim(1, 10, OWNER, item -> true))).containsExactly(2L);
+    }
+
+    @Test
+    void moreUrgentPriorityClassGoesFirst() {
+
+        // 후보는 priority, requested_at 순 (selectWaitingForUpdate 정렬)
+        waiting(item(3, "A", 1), item(4, "A", 1), item(1, "B", 5), item(2, "C", null));
+
+        assertThat(waitIds(service.claim(4, 10, OWNER, item -> true))).containsExactly(3L, 4L, 1L, 2L);
+    }
+
+    @Test
+    void rejectedJobCodeIsDroppedFromThisClaim() {
+
+        waiting(item(1, "A", 5), item(2, "B", 5), item(3, "A", 5), item(4, "B", 5));
+
+        List<StockJobQueue> claimed = service.claim(4, 10, OWNER, item -> !"A".equals(item.getJobCode()));
+
+        assertThat(waitIds(claimed)).containsExactly(2L, 4L);
+    }
+
+    @Test
+    void emptyQueueClaimsNothing() {
+
+        waiting();
+
+        assertThat(service.claim(4, 10, OWNER, item -> true)).isEmpty();
+        verify(queueMapper, never()).updateStatusRunningByIds(anyList(), anyString());
+    }
+
+    @Test
+    void jobWithoutBatchOutIdIsRecordedByJobCode() throws Exception {
+
+        StockJobQueue item = item(1, "EXTERNAL_JOB", 5);
+        item.setBatchOutId(null);
+
+        // handler 없음 → UNKNOWN_JOB_CODE 로 F
+        service.run(item);
+
+        verify(queueMapper).updateStatusFinished(1L, "F");
+        verify(batchOutMapper, never()).selectBatchOutById(anyInt());
+
+        ArgumentCaptor<BatchOutHistory> history = ArgumentCaptor.forClass(BatchOutHistory.class);
+        verify(historyMapper).insertBatchOutHistory(history.capture());
+        assertThat(history.getValue().getJobName()).isEqualTo("EXTERNAL_JOB");
+        assertThat(history.getValue().getExecMessage()).isEqualTo("UNKNOWN_JOB_CODE");
+    }
+
+    @Test
+    void recoveryIsScopedToOwner() {
+
+        service.recoverRunning(0, "W", OWNER);
+
+        verify(queueMapper).recoverRunning(0, "W", OWNER);
+    }
+
+    private void waiting(StockJobQueue... items) {
+        when(queueMapper.selectWaitingForUpdate(anyInt())).thenReturn(new ArrayList<>(List.of(items)));
+    }
+
+    private void weights(Map<String, Integer> shareWeights) {
+
+        List<StockJobInfo> infos = new ArrayList<>();
+        shareWeights.forEach((code, weight) -> {
+            StockJobInfo info = new StockJobInfo();
+            info.setJobCode(code);
+            info.setShareWeight(weight);
+            infos.add(info);
+        });
+
+        when(jobInfoMapper.selectByJobCodes(anyList())).thenReturn(infos);
+    }
+
+    private static List<Long> waitIds(List<StockJobQueue> items) {
+        return items.stream().map(StockJobQueue::getWaitId).toList();
+    }
+
+    private static StockJobQueue item(long waitId, String jobCode, Integer priority) {
+        return StockJobQueue.builder()
+                .waitId(waitId)
+                .jobCode(jobCode)
+                .status("W")
+                .batchOutId((int) waitId)
+                .priority(priority)
+                .build();
+    }
+}
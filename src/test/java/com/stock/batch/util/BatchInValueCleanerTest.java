@@ -0,0 +1,62 @@
+package com.stock.batch.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BatchInValueCleanerTest {
+
+    @Test
+    void cleanTrimsAndNullsPlaceholders() {
+
+        assertThat(BatchInValueCleaner.clean(null)).isNull();
+        assertThat(BatchInValueCleaner.clean("   ")).isNull();
+        assertThat(BatchInValueCleaner.clean(" None ")).isNull();
+        assertThat(BatchInValueCleaner.clean("NULL")).isNull();
+        assertThat(BatchInValueCleaner.clean("nan")).isNull();
+        assertThat(BatchInValueCleaner.clean(" nano ")).isEqualTo("nano");
+    }
+
+    @Test
+    void isNumericAcceptsSignCommaDecimalAndExponent() {
+
+        assertThat(BatchInValueCleaner.isNumeric("1,234,567")).isTrue();
+        assertThat(BatchInValueCleaner.isNumeric("-12.5")).isTrue();
+        assertThat(BatchInValueCleaner.isNumeric("+.5")).isTrue();
+        assertThat(BatchInValueCleaner.isNumeric("1.2E-3")).isTrue();
+        assertThat(BatchInValueCleaner.isNumeric("3.")).isTrue();
+    }
+
+    @Test
+    void isNumericRejectsNonNumbers() {
+
+        assertThat(BatchInValueCleaner.isNumeric("")).isFalse();
+        assertThat(BatchInValueCleaner.isNumeric("-")).isFalse();
+        assertThat(BatchInValueCleaner.isNumeric(",123")).isFalse();
+        assertThat(BatchInValueCleaner.isNumeric("1e")).isFalse();
+        assertThat(BatchInValueCleaner.isNumeric("12a")).isFalse();
+        assertThat(BatchInValueCleaner.isNumeric("2025.01.02")).isFalse();
+    }
+
+    @Test
+    void isIntegerAcceptsLongRangeDigits() {
+
+        assertThat(BatchInValueCleaner.isInteger("-1,000")).isTrue();
+        assertThat(BatchInValueCleaner.isInteger("999999999999999999")).isTrue();
+        assertThat(BatchInValueCleaner.isInteger("1234567890123456789")).isFalse();
+        assertThat(BatchInValueCleaner.isInteger("1.0")).isFalse();
+        assertThat(BatchInValueCleaner.isInteger(",1")).isFalse();
+        assertThat(BatchInValueCleaner.isInteger("+")).isFalse();
+    }
+
+    @Test
+    void toTextAppliesColumnRules() {
+
+        assertThat(BatchInValueCleaner.toText("kodex_etf_daily", "BASE_DATE", "2025.01.02")).isEqualTo("20250102");
+        assertThat(BatchInValueCleaner.toText("tiger_etf_daily", "base_date", "2025.01.02")).isEqualTo("2025.01.02");
+        assertThat(BatchInValueCleaner.toText("t", "stock_code", " 1,234 ")).isEqualTo("1,234");
+        assertThat(BatchInValueCleaner.toText("t", "amount", "1,234.5")).isEqualTo("1234.5");
+        assertThat(BatchInValueCleaner.toText("t", "name", "A,B")).isEqualTo("A,B");
+        assertThat(BatchInValueCleaner.toText("t", "amount", "NaN")).isNull();
+    }
+}
@@ -0,0 +1,87 @@
+package com.stock.batch.util;
+
+import com.stock.batch.domain.BatchOut;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BatchScheduleCalculatorTest {
+
+    // 2025-03-10 (월)
+    private static final LocalDateTime MON_0800 = LocalDateTime.of(2025, 3, 10, 8, 0);
+
+    @Test
+    void dailyFiresTodayWhenTimeNotPassed() {
+
+        assertThat(BatchScheduleCalculator.nextFireTime(job("D", null, null, null, "09", "30"), MON_0800))
+                .isEqualTo(LocalDateTime.of(2025, 3, 10, 9, 30));
+    }
+
+    @Test
+    void dailyFiresTomorrowWhenTimeEqualOrPassed() {
+
+        assertThat(BatchScheduleCalculator.nextFireTime(job("D", null, null, null, "08", "00"), MON_0800))
+                .isEqualTo(LocalDateTime.of(2025, 3, 11, 8, 0));
+    }
+
+    @Test
+    void weeklyFiresOnJobWeek() {
+
+        assertThat(BatchScheduleCalculator.nextFireTime(job("W", null, null, "FRI", "18", "00"), MON_0800))
+                .isEqualTo(LocalDateTime.of(2025, 3, 14, 18, 0));
+    }
+
+    @Test
+    void monthlySkipsMonthsWithoutJobDay() {
+
+        LocalDateTime after = LocalDateTime.of(2025, 1, 31, 12, 0);
+
+        assertThat(BatchScheduleCalculator.nextFireTime(job("M", null, "30", null, "06", "00"), after))
+                .isEqualTo(LocalDateTime.of(2025, 3, 30, 6, 0));
+    }
+
+    @Test
+    void yearlyLeapDayFindsNextLeapYear() {
+
+        assertThat(BatchScheduleCalculator.nextFireTime(job("Y", "02", "29", null, "07", "15"), MON_0800))
+                .isEqualTo(LocalDateTime.of(2028, 2, 29, 7, 15));
+    }
+
+    @Test
+    void invalidTimeReturnsNull() {
+
+        assertThat(BatchScheduleCalculator.nextFireTime(job("D", null, null, null, "25", "00"), MON_0800)).isNull();
+        assertThat(BatchScheduleCalculator.nextFireTime(job("D", null, null, null, "xx", "00"), MON_0800)).isNull();
+        assertThat(BatchScheduleCalculator.nextFireTime(job("D", null, null, null, null, "00"), MON_0800)).isNull();
+    }
+
+    @Test
+    void missingScheduleGbIsDaily() {
+
+        assertThat(BatchScheduleCalculator.nextFireTime(job(null, null, null, null, "09", "00"), MON_0800))
+                .isEqualTo(LocalDateTime.of(2025, 3, 10, 9, 0));
+        assertThat(BatchScheduleCalculator.nextFireTime(job("", null, null, null, "07", "00"), MON_0800))
+                .isEqualTo(LocalDateTime.of(2025, 3, 11, 7, 0));
+        assertThat(BatchScheduleCalculator.calculateNextExecDate(job(null, null, null, null, "09", "00"), MON_0800.toLocalDate()))
+                .isEqualTo(MON_0800.toLocalDate().plusDays(1));
+    }
+
+    @Test
+    void unknownScheduleGbNeverFires() {
+
+        assertThat(BatchScheduleCalculator.nextFireTime(job("X", null, null, null, "09", "00"), MON_0800)).isNull();
+    }
+
+    private static BatchOut job(String scheduleGb, String month, String day, String week, String hour, String min) {
+        return BatchOut.builder()
+                .scheduleGb(scheduleGb)
+                .jobMonth(month)
+                .jobDay(day)
+                .jobWeek(week)
+                .jobHour(hour)
+                .jobMin(min)
+                .build();
+    }
+}